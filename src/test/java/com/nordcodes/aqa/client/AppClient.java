@@ -8,6 +8,7 @@ import io.restassured.specification.RequestSpecification;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.util.Map;
 
 import static com.nordcodes.aqa.config.TestConfig.*;
@@ -16,7 +17,7 @@ import static io.restassured.RestAssured.given;
 /**
  * HTTP-клиент для взаимодействия с тестируемым приложением.
  */
-public class AppClient {
+public class AppClient implements PreparedTransport {
 
     private static final Logger log = LoggerFactory.getLogger(AppClient.class);
 
@@ -53,6 +54,55 @@ public class AppClient {
         return response;
     }
 
+    /**
+     * Отправляет тот же запрос, что и {@link #sendRequest(String, String)}, но без шага Allure,
+     * аттачментов и логирования каждого запроса. Используется нагрузочными прогонами:
+     * результаты таких запросов попадают в отчёт только в агрегированном виде (см. LoadReport).
+     *
+     * @param token  токен
+     * @param action действие (LOGIN, ACTION, LOGOUT)
+     * @return ответ от сервера
+     */
+    public Response sendRequestUnreported(String token, String action) {
+        return given()
+                .header(HEADER_X_API_KEY, APP_API_KEY)
+                .header(HEADER_CONTENT_TYPE, CONTENT_TYPE_FORM_URLENCODED)
+                .header(HEADER_ACCEPT, CONTENT_TYPE_JSON)
+                .formParam(PARAM_TOKEN, token)
+                .formParam(PARAM_ACTION, action)
+                .post(APP_ENDPOINT);
+    }
+
+    /**
+     * Отправляет запрос по заранее собранному шаблону: на каждый вызов только подставляются байты токена.
+     * Как и {@link #sendRequestUnreported(String, String)}, не создаёт шагов и аттачментов Allure.
+     *
+     * @param template шаблон запроса
+     * @param token    токен в ASCII (32 байта)
+     * @return ответ от сервера
+     */
+    public Response sendPrepared(RequestTemplate template, byte[] token) {
+        return given()
+                .spec(template.getSpecification())
+                .body(template.bodyFor(token))
+                .post(APP_ENDPOINT);
+    }
+
+    /**
+     * Отправляет запрос по шаблону через RestAssured и извлекает из ответа статус и поле result.
+     * Ошибки соединения RestAssured пробрасывает как непроверяемые исключения; здесь они приводятся к {@link IOException}.
+     */
+    @Override
+    public PreparedResponse execute(RequestTemplate template, byte[] token) throws IOException {
+        Response response;
+        try {
+            response = sendPrepared(template, token);
+        } catch (RuntimeException e) {
+            throw new IOException(e.getClass().getSimpleName() + ": " + e.getMessage(), e);
+        }
+        return new PreparedResponse(response.getStatusCode(), PreparedResponse.resultOf(response.getBody().asString()));
+    }
+
     /**
      * Отправляет POST-запрос к приложению БЕЗ заголовка X-Api-Key.
      * Используется для тестирования валидации обязательного заголовка.
@@ -113,6 +163,42 @@ public class AppClient {
         return response;
     }
 
+    /**
+     * Запрос без заголовка X-Api-Key, как {@link #sendRequestWithoutApiKey(String, String)}, но без шага Allure,
+     * аттачментов и логирования. Используется нагрузочными прогонами пути отказа.
+     *
+     * @param token  токен
+     * @param action действие
+     * @return ответ от сервера
+     */
+    public Response sendRequestWithoutApiKeyUnreported(String token, String action) {
+        return given()
+                .header(HEADER_CONTENT_TYPE, CONTENT_TYPE_FORM_URLENCODED)
+                .header(HEADER_ACCEPT, CONTENT_TYPE_JSON)
+                .formParam(PARAM_TOKEN, token)
+                .formParam(PARAM_ACTION, action)
+                .post(APP_ENDPOINT);
+    }
+
+    /**
+     * Запрос с произвольным Content-Type, как {@link #sendRequestWithCustomContentType(String, String, String)},
+     * но без шага Allure, аттачментов и логирования. Используется нагрузочными прогонами пути отказа.
+     *
+     * @param token       токен
+     * @param action      действие
+     * @param contentType Content-Type
+     * @return ответ от сервера
+     */
+    public Response sendRequestWithCustomContentTypeUnreported(String token, String action, String contentType) {
+        return given()
+                .header(HEADER_X_API_KEY, APP_API_KEY)
+                .header(HEADER_CONTENT_TYPE, contentType)
+                .header(HEADER_ACCEPT, CONTENT_TYPE_JSON)
+                .formParam(PARAM_TOKEN, token)
+                .formParam(PARAM_ACTION, action)
+                .post(APP_ENDPOINT);
+    }
+
     /**
      * Логирует детали HTTP-запроса в Allure-отчёт.
      *
@@ -0,0 +1,553 @@
+package com.nordcodes.aqa.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Транспорт для пиковых нагрузочных прогонов: HTTP/1.1 поверх неблокирующих {@link SocketChannel}
+ * с конвейеризацией (pipelining) запросов.
+ * <p>
+ * Один поток ввода-вывода обслуживает несколько постоянных соединений. Запросы записываются в direct-буферы
+ * из заранее собранных байтов: стартовая строка и заголовки кешируются на шаблон, тело копируется
+ * из {@link RequestTemplate} с подстановкой токена. На каждом соединении одновременно находится до
+ * {@code pipelineDepth} запросов без ответа; ответы сопоставляются с запросами по порядку.
+ * Из ответа разбираются только статусная строка, заголовки, нужные для определения границ сообщения
+ * (Content-Length, Transfer-Encoding: chunked, Connection: close), и значение поля result.
+ * <p>
+ * Если сервер закрывает соединение с заголовком {@code Connection: close} (например, по лимиту keep-alive),
+ * запросы, отправленные следом по этому соединению, сервером не обрабатывались и переотправляются по новому
+ * соединению. При внезапном разрыве такие запросы завершаются ошибкой.
+ */
+public class NioPipelinedTransport implements PreparedTransport, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NioPipelinedTransport.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final long SELECT_TIMEOUT_MILLIS = 100;
+
+    private static final byte[] CRLF_CRLF = {'\r', '\n', '\r', '\n'};
+    private static final byte[] HEADER_CONTENT_LENGTH = "content-length:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER_TRANSFER_ENCODING = "transfer-encoding:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEADER_CONNECTION = "connection:".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VALUE_CHUNKED = "chunked".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] VALUE_CLOSE = "close".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] RESULT_KEY = ("\"" + JSON_KEY_RESULT + "\"").getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] OK_BYTES = RESULT_OK.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] ERROR_BYTES = RESULT_ERROR.getBytes(StandardCharsets.US_ASCII);
+
+    private final InetSocketAddress address;
+    private final int pipelineDepth;
+    private final long timeoutMillis;
+    private final Selector selector;
+    private final Connection[] connections;
+    private final Queue<Pending> submissions = new ConcurrentLinkedQueue<>();
+    private final ArrayDeque<Pending> backlog = new ArrayDeque<>();
+    private final Map<RequestTemplate, byte[]> requestHeads = new ConcurrentHashMap<>();
+    private final AtomicBoolean wakeupRequested = new AtomicBoolean();
+    private final Thread ioThread;
+    private volatile boolean running = true;
+
+    /**
+     * Открывает соединения с локальным приложением с параметрами по умолчанию из {@code TestConfig}.
+     *
+     * @throws IOException если не удалось установить соединение
+     */
+    public NioPipelinedTransport() throws IOException {
+        this(NIO_CONNECTIONS, NIO_PIPELINE_DEPTH);
+    }
+
+    /**
+     * Открывает соединения с локальным приложением и запускает поток ввода-вывода.
+     *
+     * @param connectionCount число постоянных соединений
+     * @param pipelineDepth   максимальное число запросов без ответа на одно соединение
+     * @throws IOException если не удалось установить соединение
+     */
+    public NioPipelinedTransport(int connectionCount, int pipelineDepth) throws IOException {
+        this("localhost", APP_PORT, connectionCount, pipelineDepth, TimeUnit.SECONDS.toMillis(NIO_RESPONSE_TIMEOUT_SECONDS));
+    }
+
+    /**
+     * Открывает соединения с произвольным HTTP-сервером и запускает поток ввода-вывода.
+     *
+     * @param timeoutMillis максимальное ожидание ответа на один запрос
+     */
+    public NioPipelinedTransport(String host, int port, int connectionCount, int pipelineDepth, long timeoutMillis)
+            throws IOException {
+        if (connectionCount < 1 || pipelineDepth < 1) {
+            throw new IllegalArgumentException("Число соединений и глубина конвейера должны быть положительными");
+        }
+        this.address = new InetSocketAddress(host, port);
+        this.pipelineDepth = pipelineDepth;
+        this.timeoutMillis = timeoutMillis;
+        this.selector = Selector.open();
+        this.connections = new Connection[connectionCount];
+        for (int i = 0; i < connectionCount; i++) {
+            connections[i] = new Connection(host + ":" + port);
+            connections[i].open();
+        }
+        this.ioThread = new Thread(this::ioLoop, "nio-transport-io");
+        this.ioThread.setDaemon(true);
+        this.ioThread.start();
+        log.info("NIO-транспорт: {} соединений с {}:{}, глубина конвейера {}", connectionCount, host, port, pipelineDepth);
+    }
+
+    @Override
+    public PreparedResponse execute(RequestTemplate template, byte[] token) throws IOException {
+        if (!running) {
+            throw new IOException("NIO-транспорт закрыт");
+        }
+        Pending pending = new Pending(template, token);
+        submissions.add(pending);
+        if (wakeupRequested.compareAndSet(false, true)) {
+            selector.wakeup();
+        }
+        try {
+            return pending.future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Ожидание ответа прервано", e);
+        } catch (TimeoutException e) {
+            throw new IOException("Нет ответа за " + timeoutMillis + " мс", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        selector.wakeup();
+        try {
+            ioThread.join(TimeUnit.SECONDS.toMillis(NIO_RESPONSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void ioLoop() {
+        try {
+            while (running) {
+                selector.select(SELECT_TIMEOUT_MILLIS);
+                wakeupRequested.set(false);
+                Pending pending;
+                while ((pending = submissions.poll()) != null) {
+                    backlog.add(pending);
+                }
+                dispatch();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Connection connection = (Connection) key.attachment();
+                    try {
+                        if (key.isValid() && key.isReadable()) {
+                            connection.read();
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            connection.flush();
+                        }
+                    } catch (IOException e) {
+                        connection.fail(e);
+                    }
+                }
+                dispatch();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("Поток ввода-вывода NIO-транспорта остановлен с ошибкой", e);
+        } finally {
+            running = false;
+            IOException closed = new IOException("NIO-транспорт закрыт");
+            for (Connection connection : connections) {
+                connection.closeChannel();
+                connection.failInFlight(closed);
+            }
+            Pending pending;
+            while ((pending = backlog.poll()) != null || (pending = submissions.poll()) != null) {
+                pending.future.completeExceptionally(closed);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("Не удалось закрыть селектор NIO-транспорта", e);
+            }
+        }
+    }
+
+    /**
+     * Раздаёт ожидающие запросы по соединениям: каждому — наименее загруженное соединение со свободным местом
+     * в конвейере и в буфере записи.
+     */
+    private void dispatch() {
+        for (Connection connection : connections) {
+            connection.reopenIfClosed();
+        }
+        while (!backlog.isEmpty()) {
+            Pending pending = backlog.peek();
+            Connection target = null;
+            for (Connection connection : connections) {
+                if (connection.canAccept(pending) && (target == null || connection.inFlight.size() < target.inFlight.size())) {
+                    target = connection;
+                }
+            }
+            if (target == null) {
+                break;
+            }
+            backlog.poll();
+            target.enqueue(pending);
+        }
+        for (Connection connection : connections) {
+            try {
+                connection.flush();
+            } catch (IOException e) {
+                connection.fail(e);
+            }
+        }
+    }
+
+    private byte[] requestHead(RequestTemplate template, String hostHeader) {
+        return requestHeads.computeIfAbsent(template, t -> {
+            StringBuilder head = new StringBuilder()
+                    .append("POST ").append(APP_ENDPOINT).append(" HTTP/1.1\r\n")
+                    .append("Host: ").append(hostHeader).append("\r\n");
+            t.getHeaders().forEach((name, value) -> head.append(name).append(": ").append(value).append("\r\n"));
+            head.append("Content-Length: ").append(t.bodyLength()).append("\r\n\r\n");
+            return head.toString().getBytes(StandardCharsets.US_ASCII);
+        });
+    }
+
+    private static final class Pending {
+        private final RequestTemplate template;
+        private final byte[] token;
+        private final CompletableFuture<PreparedResponse> future = new CompletableFuture<>();
+
+        private Pending(RequestTemplate template, byte[] token) {
+            this.template = template;
+            this.token = token;
+        }
+    }
+
+    /**
+     * Постоянное соединение с очередью запросов, ожидающих ответа. Используется только потоком ввода-вывода.
+     */
+    private final class Connection {
+        private final String hostHeader;
+        private final ByteBuffer out = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer in = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private final ByteBuffer chunkedBody = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ArrayDeque<Pending> inFlight = new ArrayDeque<>();
+        private SocketChannel channel;
+        private SelectionKey key;
+
+        // Результат последнего разобранного ответа
+        private int status;
+        private String result;
+        private boolean closeAfterResponse;
+
+        private Connection(String hostHeader) {
+            this.hostHeader = hostHeader;
+        }
+
+        private void open() throws IOException {
+            channel = SocketChannel.open(address);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.configureBlocking(false);
+            key = channel.register(selector, SelectionKey.OP_READ, this);
+            out.clear();
+            in.clear();
+        }
+
+        private void reopenIfClosed() {
+            if (channel != null || backlog.isEmpty()) {
+                return;
+            }
+            try {
+                open();
+            } catch (IOException e) {
+                log.debug("Соединение с {} пока недоступно", address, e);
+            }
+        }
+
+        private boolean canAccept(Pending pending) {
+            return channel != null && inFlight.size() < pipelineDepth
+                    && out.remaining() >= requestHead(pending.template, hostHeader).length + pending.template.bodyLength();
+        }
+
+        private void enqueue(Pending pending) {
+            out.put(requestHead(pending.template, hostHeader));
+            pending.template.writeBody(out, pending.token);
+            inFlight.add(pending);
+        }
+
+        private void flush() throws IOException {
+            if (channel == null || out.position() == 0) {
+                return;
+            }
+            out.flip();
+            channel.write(out);
+            out.compact();
+            key.interestOps(out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        private void read() throws IOException {
+            if (channel.read(in) < 0) {
+                throw new IOException("Соединение закрыто сервером");
+            }
+            in.flip();
+            while (!inFlight.isEmpty() && parseResponse()) {
+                inFlight.poll().future.complete(new PreparedResponse(status, result));
+                if (closeAfterResponse) {
+                    reconnect();
+                    return;
+                }
+            }
+            if (!in.hasRemaining()) {
+                in.clear();
+            } else if (in.position() == 0 && in.limit() == in.capacity()) {
+                throw new IOException("Ответ не помещается в буфер " + BUFFER_SIZE + " байт");
+            } else {
+                in.compact();
+            }
+        }
+
+        /**
+         * Разбирает один полный ответ с текущей позиции буфера чтения.
+         *
+         * @return true, если ответ разобран и позиция сдвинута за него; false, если данных пока недостаточно
+         */
+        private boolean parseResponse() throws IOException {
+            int start = in.position();
+            int limit = in.limit();
+            int headersEnd = indexOf(in, start, limit, CRLF_CRLF);
+            if (headersEnd < 0) {
+                return false;
+            }
+            // "HTTP/1.1 200 ..." — код статуса занимает байты 9..11
+            if (headersEnd - start < 12 || in.get(start + 8) != ' ') {
+                throw new IOException("Некорректная статусная строка ответа");
+            }
+            status = (in.get(start + 9) - '0') * 100 + (in.get(start + 10) - '0') * 10 + (in.get(start + 11) - '0');
+
+            long contentLength = 0;
+            boolean chunked = false;
+            closeAfterResponse = false;
+            int line = indexOf(in, start, headersEnd + 2, CRLF_CRLF, 2) + 2;
+            while (line < headersEnd) {
+                int lineEnd = indexOf(in, line, headersEnd + 2, CRLF_CRLF, 2);
+                if (startsWithIgnoreCase(in, line, lineEnd, HEADER_CONTENT_LENGTH)) {
+                    contentLength = parseDecimal(in, line + HEADER_CONTENT_LENGTH.length, lineEnd);
+                } else if (startsWithIgnoreCase(in, line, lineEnd, HEADER_TRANSFER_ENCODING)) {
+                    chunked = containsIgnoreCase(in, line + HEADER_TRANSFER_ENCODING.length, lineEnd, VALUE_CHUNKED);
+                } else if (startsWithIgnoreCase(in, line, lineEnd, HEADER_CONNECTION)) {
+                    closeAfterResponse = containsIgnoreCase(in, line + HEADER_CONNECTION.length, lineEnd, VALUE_CLOSE);
+                }
+                line = lineEnd + 2;
+            }
+
+            int bodyStart = headersEnd + CRLF_CRLF.length;
+            int end;
+            result = null;
+            if (chunked) {
+                chunkedBody.clear();
+                int position = bodyStart;
+                while (true) {
+                    int sizeEnd = indexOf(in, position, limit, CRLF_CRLF, 2);
+                    if (sizeEnd < 0) {
+                        return false;
+                    }
+                    int size = parseHex(in, position, sizeEnd);
+                    int dataStart = sizeEnd + 2;
+                    if (size == 0) {
+                        // Трейлеры не поддерживаются: после нулевого чанка ожидается пустая строка
+                        if (dataStart + 2 > limit) {
+                            return false;
+                        }
+                        end = dataStart + 2;
+                        result = findResult(chunkedBody, 0, chunkedBody.position());
+                        break;
+                    }
+                    if (dataStart + size + 2 > limit) {
+                        return false;
+                    }
+                    // Значение result может оказаться на границе чанков, поэтому данные склеиваются
+                    chunkedBody.put(chunkedBody.position(), in, dataStart, size);
+                    chunkedBody.position(chunkedBody.position() + size);
+                    position = dataStart + size + 2;
+                }
+            } else {
+                if (bodyStart + contentLength > limit) {
+                    return false;
+                }
+                end = (int) (bodyStart + contentLength);
+                result = findResult(in, bodyStart, end);
+            }
+            in.position(end);
+            return true;
+        }
+
+        /**
+         * Сервер объявил закрытие соединения: оставшиеся в конвейере запросы им не обрабатывались,
+         * поэтому возвращаются в начало очереди и отправляются по новому соединению.
+         */
+        private void reconnect() throws IOException {
+            while (!inFlight.isEmpty()) {
+                backlog.addFirst(inFlight.pollLast());
+            }
+            closeChannel();
+            open();
+        }
+
+        private void fail(IOException cause) {
+            log.warn("Ошибка соединения NIO-транспорта, запросов без ответа: {}", inFlight.size(), cause);
+            closeChannel();
+            failInFlight(cause);
+            try {
+                open();
+            } catch (IOException e) {
+                log.warn("Не удалось переустановить соединение с {}", address, e);
+            }
+        }
+
+        private void failInFlight(IOException cause) {
+            Pending pending;
+            while ((pending = inFlight.poll()) != null) {
+                pending.future.completeExceptionally(cause);
+            }
+        }
+
+        private void closeChannel() {
+            if (channel == null) {
+                return;
+            }
+            key.cancel();
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.debug("Ошибка при закрытии соединения", e);
+            }
+            channel = null;
+            key = null;
+        }
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte[] pattern) {
+        return indexOf(buffer, from, to, pattern, pattern.length);
+    }
+
+    private static int indexOf(ByteBuffer buffer, int from, int to, byte[] pattern, int patternLength) {
+        outer:
+        for (int i = from; i <= to - patternLength; i++) {
+            for (int j = 0; j < patternLength; j++) {
+                if (buffer.get(i + j) != pattern[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static boolean startsWithIgnoreCase(ByteBuffer buffer, int from, int to, byte[] lowerCasePrefix) {
+        if (to - from < lowerCasePrefix.length) {
+            return false;
+        }
+        for (int i = 0; i < lowerCasePrefix.length; i++) {
+            if (Character.toLowerCase(buffer.get(from + i)) != lowerCasePrefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean containsIgnoreCase(ByteBuffer buffer, int from, int to, byte[] lowerCaseValue) {
+        for (int i = from; i <= to - lowerCaseValue.length; i++) {
+            if (startsWithIgnoreCase(buffer, i, to, lowerCaseValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long parseDecimal(ByteBuffer buffer, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+            }
+        }
+        return value;
+    }
+
+    private static int parseHex(ByteBuffer buffer, int from, int to) throws IOException {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(buffer.get(i), 16);
+            if (digit < 0) {
+                // Расширения чанка (";name=value") игнорируются
+                break;
+            }
+            value = value * 16 + digit;
+        }
+        if (value < 0 || value > BUFFER_SIZE) {
+            throw new IOException("Некорректный размер чанка: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Находит значение поля result в JSON-теле; для OK и ERROR возвращает константы без создания строк.
+     */
+    private static String findResult(ByteBuffer buffer, int from, int to) {
+        int key = indexOf(buffer, from, to, RESULT_KEY);
+        if (key < 0) {
+            return null;
+        }
+        int open = key + RESULT_KEY.length;
+        while (open < to && buffer.get(open) != '"') {
+            open++;
+        }
+        int close = open + 1;
+        while (close < to && buffer.get(close) != '"') {
+            close++;
+        }
+        if (close >= to) {
+            return null;
+        }
+        int length = close - open - 1;
+        if (length == OK_BYTES.length && indexOf(buffer, open + 1, close, OK_BYTES) == open + 1) {
+            return RESULT_OK;
+        }
+        if (length == ERROR_BYTES.length && indexOf(buffer, open + 1, close, ERROR_BYTES) == open + 1) {
+            return RESULT_ERROR;
+        }
+        byte[] value = new byte[length];
+        for (int i = 0; i < length; i++) {
+            value[i] = buffer.get(open + 1 + i);
+        }
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
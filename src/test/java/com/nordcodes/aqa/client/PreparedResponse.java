@@ -0,0 +1,51 @@
+package com.nordcodes.aqa.client;
+
+import static com.nordcodes.aqa.config.TestConfig.JSON_KEY_RESULT;
+
+/**
+ * Минимальный ответ приложения для нагрузочных прогонов: только HTTP-статус и значение поля result.
+ */
+public final class PreparedResponse {
+
+    private static final String RESULT_KEY = "\"" + JSON_KEY_RESULT + "\"";
+
+    private final int statusCode;
+    private final String result;
+
+    public PreparedResponse(int statusCode, String result) {
+        this.statusCode = statusCode;
+        this.result = result;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * Значение поля result (OK, ERROR) или {@code null}, если поле не найдено.
+     */
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Извлекает значение поля result из JSON-ответа без полного разбора JSON.
+     *
+     * @param body тело ответа
+     * @return значение поля или {@code null}, если поле не найдено
+     */
+    public static String resultOf(String body) {
+        int key = body.indexOf(RESULT_KEY);
+        if (key < 0) {
+            return null;
+        }
+        int open = body.indexOf('"', body.indexOf(':', key + RESULT_KEY.length()) + 1);
+        int close = open < 0 ? -1 : body.indexOf('"', open + 1);
+        return close < 0 ? null : body.substring(open + 1, close);
+    }
+
+    @Override
+    public String toString() {
+        return "status=" + statusCode + ", result=" + result;
+    }
+}
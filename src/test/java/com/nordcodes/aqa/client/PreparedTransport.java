@@ -0,0 +1,21 @@
+package com.nordcodes.aqa.client;
+
+import java.io.IOException;
+
+/**
+ * Транспорт для отправки заранее собранных запросов ({@link RequestTemplate}) в нагрузочных прогонах.
+ * Реализации: {@link AppClient} (RestAssured) и {@link NioPipelinedTransport} (неблокирующие сокеты с конвейеризацией).
+ * Реализации потокобезопасны: один экземпляр используется всеми рабочими потоками нагрузки.
+ */
+public interface PreparedTransport {
+
+    /**
+     * Отправляет запрос по шаблону с подставленным токеном и ждёт ответа.
+     *
+     * @param template шаблон запроса
+     * @param token    токен в ASCII (32 байта)
+     * @return статус и поле result ответа
+     * @throws IOException если ответ не получен (ошибка соединения, таймаут)
+     */
+    PreparedResponse execute(RequestTemplate template, byte[] token) throws IOException;
+}
@@ -0,0 +1,134 @@
+package com.nordcodes.aqa.client;
+
+import io.restassured.builder.RequestSpecBuilder;
+import io.restassured.config.EncoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import io.restassured.http.ContentType;
+import io.restassured.specification.RequestSpecification;
+
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Неизменяемый шаблон запроса к /endpoint, собранный один раз при компиляции сценария.
+ * Тело {@code token=<32 символа>&action=...} заранее закодировано как форма (action проходит через
+ * {@link URLEncoder} в UTF-8) и переведено в байты, заголовки и спецификация
+ * RestAssured собраны заранее, поэтому на каждый запрос остаётся только вставить байты токена.
+ */
+public final class RequestTemplate {
+
+    private static final byte[] TOKEN_PREFIX = (PARAM_TOKEN + "=").getBytes(StandardCharsets.US_ASCII);
+
+    private final String action;
+    private final byte[] body;
+    private final int tokenOffset;
+    private final Map<String, String> headers;
+    private final RequestSpecification specification;
+
+    private RequestTemplate(String action, Map<String, String> headers) {
+        this.action = action;
+        // После URLEncoder в строке только ASCII: пробелы, &, =, + и не-ASCII символы закодированы
+        byte[] suffix = ("&" + PARAM_ACTION + "=" + URLEncoder.encode(action, StandardCharsets.UTF_8))
+                .getBytes(StandardCharsets.US_ASCII);
+        this.tokenOffset = TOKEN_PREFIX.length;
+        this.body = new byte[TOKEN_PREFIX.length + TOKEN_LENGTH + suffix.length];
+        System.arraycopy(TOKEN_PREFIX, 0, body, 0, TOKEN_PREFIX.length);
+        System.arraycopy(suffix, 0, body, tokenOffset + TOKEN_LENGTH, suffix.length);
+        this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+
+        // Тело уже закодировано: RestAssured должен отправить байты как есть, не кодируя их как форму
+        EncoderConfig encoderConfig = EncoderConfig.encoderConfig()
+                .appendDefaultContentCharsetToContentTypeIfUndefined(false);
+        String contentType = this.headers.get(HEADER_CONTENT_TYPE);
+        if (contentType != null) {
+            encoderConfig = encoderConfig.encodeContentTypeAs(contentType, ContentType.BINARY);
+        }
+        this.specification = new RequestSpecBuilder()
+                .setConfig(RestAssuredConfig.config().encoderConfig(encoderConfig))
+                .addHeaders(this.headers)
+                .build();
+    }
+
+    /**
+     * Создаёт шаблон корректного запроса: X-Api-Key, form-urlencoded, Accept: application/json.
+     *
+     * @param action действие (LOGIN, ACTION, LOGOUT)
+     * @return шаблон запроса
+     */
+    public static RequestTemplate of(String action) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(HEADER_X_API_KEY, APP_API_KEY);
+        headers.put(HEADER_CONTENT_TYPE, CONTENT_TYPE_FORM_URLENCODED);
+        headers.put(HEADER_ACCEPT, CONTENT_TYPE_JSON);
+        return new RequestTemplate(action, headers);
+    }
+
+    /**
+     * Создаёт шаблон с произвольным набором заголовков (например, без X-Api-Key).
+     *
+     * @param action  действие
+     * @param headers заголовки запроса
+     * @return шаблон запроса
+     */
+    public static RequestTemplate withHeaders(String action, Map<String, String> headers) {
+        return new RequestTemplate(action, headers);
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+
+    /**
+     * Заранее собранная спецификация RestAssured с заголовками шаблона.
+     */
+    public RequestSpecification getSpecification() {
+        return specification;
+    }
+
+    /**
+     * Возвращает тело запроса с подставленным токеном.
+     *
+     * @param token токен в ASCII, ровно {@value com.nordcodes.aqa.config.TestConfig#TOKEN_LENGTH} байт
+     * @return новый массив с телом запроса
+     */
+    public byte[] bodyFor(byte[] token) {
+        if (token.length != TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Длина токена должна быть " + TOKEN_LENGTH + " байт: " + token.length);
+        }
+        byte[] result = body.clone();
+        System.arraycopy(token, 0, result, tokenOffset, TOKEN_LENGTH);
+        return result;
+    }
+
+    /**
+     * Записывает тело запроса с подставленным токеном в буфер без промежуточных массивов.
+     *
+     * @param target буфер, в котором должно быть не меньше {@link #bodyLength()} свободных байт
+     * @param token  токен в ASCII, ровно {@value com.nordcodes.aqa.config.TestConfig#TOKEN_LENGTH} байт
+     */
+    public void writeBody(ByteBuffer target, byte[] token) {
+        if (token.length != TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Длина токена должна быть " + TOKEN_LENGTH + " байт: " + token.length);
+        }
+        target.put(body, 0, tokenOffset)
+                .put(token)
+                .put(body, tokenOffset + TOKEN_LENGTH, body.length - tokenOffset - TOKEN_LENGTH);
+    }
+
+    /**
+     * Длина тела запроса в байтах (одинакова для всех токенов).
+     */
+    public int bodyLength() {
+        return body.length;
+    }
+}
@@ -0,0 +1,160 @@
+package com.nordcodes.aqa.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Запуск тестируемого приложения (internal-0.0.1-SNAPSHOT.jar) отдельным процессом.
+ * Используется нагрузочными тестами, которым нужен доступ к JVM приложения (JFR, JMX, /proc).
+ * Путь к jar задаётся системным свойством {@code -Dapp.jar=...}; без него тесты работают
+ * с уже запущенным приложением, как и раньше.
+ */
+public class AppLauncher {
+
+    private static final Logger log = LoggerFactory.getLogger(AppLauncher.class);
+
+    private final Process process;
+    private final Path logFile;
+
+    private AppLauncher(Process process, Path logFile) {
+        this.process = process;
+        this.logFile = logFile;
+    }
+
+    /**
+     * Проверяет, задан ли путь к jar тестируемого приложения.
+     *
+     * @return true, если приложение можно запустить из тестов
+     */
+    public static boolean isConfigured() {
+        return System.getProperty(APP_JAR_PROPERTY) != null;
+    }
+
+    /**
+     * Запускает приложение и ждёт, пока оно начнёт принимать соединения.
+     *
+     * @param name    имя запуска (используется в имени лог-файла)
+     * @param jvmArgs дополнительные аргументы JVM приложения
+     * @return запущенное приложение
+     */
+    public static AppLauncher start(String name, List<String> jvmArgs) {
+        return start(name, jvmArgs, APP_MOCK_URL);
+    }
+
+    /**
+     * Запускает приложение с заданным адресом внешнего сервиса и ждёт, пока оно начнёт принимать соединения.
+     *
+     * @param name    имя запуска (используется в имени лог-файла)
+     * @param jvmArgs дополнительные аргументы JVM приложения
+     * @param mockUrl адрес внешнего сервиса ({@code -Dmock}), например сетевого прокси перед WireMock
+     * @return запущенное приложение
+     */
+    public static AppLauncher start(String name, List<String> jvmArgs, String mockUrl) {
+        Path jar = Paths.get(System.getProperty(APP_JAR_PROPERTY, ""));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("Не найден jar тестируемого приложения: " + jar.toAbsolutePath());
+        }
+        if (isPortOpen()) {
+            throw new IllegalStateException("Порт " + APP_PORT + " уже занят. Остановите запущенное приложение");
+        }
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-Dsecret=" + APP_API_KEY);
+        command.add("-Dmock=" + mockUrl);
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+
+        try {
+            Path logFile = Files.createDirectories(Paths.get(APP_RUN_DIR)).resolve(name + ".log");
+            log.info("Запуск приложения: {}", String.join(" ", command));
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(logFile.toFile())
+                    .start();
+            AppLauncher launcher = new AppLauncher(process, logFile);
+            launcher.awaitStarted();
+            return launcher;
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось запустить приложение", e);
+        }
+    }
+
+    /**
+     * Возвращает PID процесса приложения.
+     */
+    public long pid() {
+        return process.pid();
+    }
+
+    /**
+     * Возвращает путь к файлу с выводом приложения.
+     */
+    public Path getLogFile() {
+        return logFile;
+    }
+
+    /**
+     * Штатно останавливает приложение (SIGTERM) и ждёт завершения процесса.
+     * Штатная остановка нужна, чтобы JVM успела выполнить shutdown-хуки (например, сохранить запись JFR).
+     */
+    public void stop() {
+        if (!process.isAlive()) {
+            return;
+        }
+        log.info("Остановка приложения (pid={})", process.pid());
+        process.destroy();
+        try {
+            if (!process.waitFor(APP_STOP_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                log.warn("Приложение не остановилось за {} с, принудительное завершение", APP_STOP_TIMEOUT_SECONDS);
+                process.destroyForcibly().waitFor();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitStarted() {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(APP_STARTUP_TIMEOUT_SECONDS);
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Приложение завершилось при запуске, см. лог " + logFile);
+            }
+            if (isPortOpen()) {
+                log.info("Приложение запущено (pid={})", process.pid());
+                return;
+            }
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        stop();
+        throw new IllegalStateException("Приложение не запустилось за " + APP_STARTUP_TIMEOUT_SECONDS + " с, см. лог " + logFile);
+    }
+
+    private static boolean isPortOpen() {
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress("localhost", APP_PORT), 200);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
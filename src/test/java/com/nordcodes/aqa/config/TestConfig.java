@@ -9,12 +9,64 @@ public class TestConfig {
     public static final String APP_BASE_URL = "http://localhost:8080";
     public static final String APP_ENDPOINT = "/endpoint";
     public static final String APP_API_KEY = "qazWSXedc";
+    public static final int APP_PORT = 8080;
+
+    // Запуск приложения из тестов (AppLauncher)
+    public static final String APP_JAR_PROPERTY = "app.jar";
+    public static final String APP_RUN_DIR = "target/app-runs";
+    public static final int APP_STARTUP_TIMEOUT_SECONDS = 90;
+    public static final int APP_STOP_TIMEOUT_SECONDS = 30;
+    public static final int APP_JMX_PORT = 9010;
+    public static final int APP_JMX_CONNECT_TIMEOUT_SECONDS = 30;
+
+    // NIO-транспорт для пиковых нагрузочных прогонов
+    public static final int NIO_CONNECTIONS = 4;
+    public static final int NIO_PIPELINE_DEPTH = 16;
+    public static final int NIO_RESPONSE_TIMEOUT_SECONDS = 10;
+
+    // Журналы интервальных гистограмм нагрузочных прогонов
+    public static final String LOAD_HISTOGRAM_DIR = "target/load-histograms";
+    public static final long LOAD_INTERVAL_MILLIS = 1000;
+    public static final long LOAD_HISTOGRAM_ATTACH_LIMIT_BYTES = 5L * 1024 * 1024;
+
+    // Прогрев перед измерением (WarmUp): стабильность по коэффициенту вариации rps и p99 в последних окнах
+    public static final int WARMUP_WINDOW_SECONDS = 2;
+    public static final int WARMUP_STABLE_WINDOWS = 5;
+    public static final double WARMUP_THROUGHPUT_TOLERANCE = 0.1;
+    public static final double WARMUP_P99_TOLERANCE = 0.25;
+    public static final int WARMUP_MAX_SECONDS = 120;
+
+    // Длительный (soak) прогон: длительность и окно задаются системными свойствами в формате ISO-8601 (PT8H, PT1M)
+    public static final String SOAK_DURATION_PROPERTY = "soak.duration";
+    public static final String SOAK_WINDOW_PROPERTY = "soak.window";
+    public static final String SOAK_DEFAULT_DURATION = "PT1H";
+    public static final String SOAK_DEFAULT_WINDOW = "PT1M";
+    public static final int SOAK_WINDOW_CAPACITY = 7 * 24 * 60; // Неделя минутных окон
+    public static final int SOAK_WARMUP_WINDOWS = 2;
+    public static final int SOAK_COMPARED_WINDOWS = 5;
+    public static final double SOAK_P99_DRIFT_LIMIT = 0.5;
+    public static final double SOAK_THROUGHPUT_DRIFT_LIMIT = 0.2;
+
+    // Масштабирование хранилища сессий: уровни числа активных сессий через запятую (-Dsession.levels=10000,100000)
+    public static final String SESSION_LEVELS_PROPERTY = "session.levels";
+    public static final String SESSION_DEFAULT_LEVELS = "10000,100000,1000000";
+
+    // Модельное тестирование протокола: seed для повтора прогона (-Dfuzz.seed=...)
+    public static final String FUZZ_SEED_PROPERTY = "fuzz.seed";
 
     // Внешний сервис (мокается WireMock)
     public static final int WIREMOCK_PORT = 8888;
     public static final String WIREMOCK_BASE_URL = "http://localhost:" + WIREMOCK_PORT;
     public static final String MOCK_AUTH_PATH = "/auth";
     public static final String MOCK_DO_ACTION_PATH = "/doAction";
+    public static final String APP_MOCK_URL = WIREMOCK_BASE_URL + "/";
+    public static final int WIREMOCK_CONTAINER_THREADS = 256; // С запасом под очередь CapacityLimiter
+    public static final int WIREMOCK_RESERVED_THREADS = 32; // Акцепторы, селекторы Jetty и эндпоинты без ограничения
+
+    // Сетевой прокси между приложением и WireMock (NetworkProxy)
+    public static final int NETWORK_PROXY_PORT = 8889;
+    public static final String NETWORK_PROXY_MOCK_URL = "http://localhost:" + NETWORK_PROXY_PORT + "/";
+    public static final int NETWORK_PROXY_CONNECT_TIMEOUT_SECONDS = 5;
 
     // Параметры запроса
     public static final String PARAM_TOKEN = "token";
@@ -49,4 +101,5 @@ public class TestConfig {
     public static final int HTTP_BAD_REQUEST = 400;
     public static final int HTTP_CONFLICT = 409;
     public static final int HTTP_INTERNAL_ERROR = 500;
+    public static final int HTTP_SERVICE_UNAVAILABLE = 503;
 }
@@ -3,11 +3,16 @@ package com.nordcodes.aqa.config;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.nordcodes.aqa.mock.CapacityLimiter;
+import com.nordcodes.aqa.mock.ChaosTransformer;
+import com.nordcodes.aqa.mock.OutboundTokenVerifier;
+import com.nordcodes.aqa.mock.TokenKeyedTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
 import static com.nordcodes.aqa.config.TestConfig.WIREMOCK_BASE_URL;
+import static com.nordcodes.aqa.config.TestConfig.WIREMOCK_CONTAINER_THREADS;
 import static com.nordcodes.aqa.config.TestConfig.WIREMOCK_PORT;
 
 /**
@@ -24,9 +29,29 @@ public class WireMockConfig {
      * Запускает WireMock сервер, если он ещё не запущен.
      */
     public static void startWireMock() {
+        startWireMock(true);
+    }
+
+    /**
+     * Запускает WireMock сервер без журнала запросов, если он ещё не запущен.
+     * Для длительных прогонов: журнал хранит каждый запрос и неограниченно растёт,
+     * проверки {@code verify(...)} при этом недоступны.
+     */
+    public static void startWireMockWithoutJournal() {
+        startWireMock(false);
+    }
+
+    private static void startWireMock(boolean requestJournal) {
         if (wireMockServer == null || !wireMockServer.isRunning()) {
-            log.info("Запуск WireMock сервера на порту {}", WIREMOCK_PORT);
-            WireMockConfiguration config = wireMockConfig().port(WIREMOCK_PORT);
+            log.info("Запуск WireMock сервера на порту {}, журнал запросов: {}", WIREMOCK_PORT, requestJournal ? "включён" : "выключен");
+            WireMockConfiguration config = wireMockConfig()
+                    .port(WIREMOCK_PORT)
+                    .containerThreads(WIREMOCK_CONTAINER_THREADS)
+                    .extensions(new ChaosTransformer(), new CapacityLimiter(), new OutboundTokenVerifier(),
+                            new TokenKeyedTransformer());
+            if (!requestJournal) {
+                config.disableRequestJournal();
+            }
             wireMockServer = new WireMockServer(config);
             wireMockServer.start();
             WireMock.configureFor("localhost", WIREMOCK_PORT);
@@ -0,0 +1,172 @@
+package com.nordcodes.aqa.load;
+
+import com.nordcodes.aqa.config.AppLauncher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Память процесса приложения, запущенного через {@link AppLauncher}: куча по JMX и RSS из {@code /proc/<pid>/status}.
+ * Приложение должно быть запущено с аргументами {@link #jvmArgs()}, открывающими JMX на локальном порту
+ * без аутентификации. RSS доступен только в Linux; в других ОС возвращается -1.
+ */
+public class AppResourceProbe implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(AppResourceProbe.class);
+
+    private final long pid;
+    private final JMXConnector connector;
+    private final MemoryMXBean memory;
+
+    private AppResourceProbe(long pid, JMXConnector connector, MemoryMXBean memory) {
+        this.pid = pid;
+        this.connector = connector;
+        this.memory = memory;
+    }
+
+    /**
+     * Аргументы JVM приложения, открывающие JMX на {@code localhost:APP_JMX_PORT}.
+     */
+    public static List<String> jvmArgs() {
+        return List.of(
+                "-Dcom.sun.management.jmxremote.port=" + APP_JMX_PORT,
+                "-Dcom.sun.management.jmxremote.rmi.port=" + APP_JMX_PORT,
+                "-Dcom.sun.management.jmxremote.host=127.0.0.1",
+                "-Dcom.sun.management.jmxremote.authenticate=false",
+                "-Dcom.sun.management.jmxremote.ssl=false",
+                "-Djava.rmi.server.hostname=127.0.0.1");
+    }
+
+    /**
+     * Подключается к JMX приложения, повторяя попытки, пока агент JMX не поднимется.
+     *
+     * @param app приложение, запущенное с {@link #jvmArgs()}
+     * @return подключённый зонд
+     */
+    public static AppResourceProbe connect(AppLauncher app) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(APP_JMX_CONNECT_TIMEOUT_SECONDS);
+        IOException last = null;
+        while (System.nanoTime() < deadline) {
+            try {
+                JMXServiceURL url = new JMXServiceURL("service:jmx:rmi:///jndi/rmi://127.0.0.1:" + APP_JMX_PORT + "/jmxrmi");
+                JMXConnector connector = JMXConnectorFactory.connect(url);
+                MBeanServerConnection connection = connector.getMBeanServerConnection();
+                MemoryMXBean memory = ManagementFactory.newPlatformMXBeanProxy(connection,
+                        ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class);
+                log.info("Подключение к JMX приложения (pid={}) на порту {}", app.pid(), APP_JMX_PORT);
+                return new AppResourceProbe(app.pid(), connector, memory);
+            } catch (IOException e) {
+                last = e;
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        throw new IllegalStateException("Не удалось подключиться к JMX приложения на порту " + APP_JMX_PORT, last);
+    }
+
+    /**
+     * Снимает память приложения после полной сборки мусора, чтобы куча отражала удерживаемые объекты
+     * (например, хранилище сессий), а не накопившийся мусор.
+     *
+     * @return память процесса
+     */
+    public Sample sampleAfterGc() {
+        memory.gc();
+        MemoryUsage heap = memory.getHeapMemoryUsage();
+        MemoryUsage nonHeap = memory.getNonHeapMemoryUsage();
+        return new Sample(heap.getUsed(), heap.getCommitted(), nonHeap.getUsed(), rssBytes());
+    }
+
+    /**
+     * Resident set size процесса из строки {@code VmRSS} файла {@code /proc/<pid>/status} или -1, если он недоступен.
+     */
+    public long rssBytes() {
+        Path status = Paths.get("/proc", Long.toString(pid), "status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    // Формат строки: "VmRSS:    123456 kB"
+                    String[] parts = line.trim().split("\\s+");
+                    return Long.parseLong(parts[1]) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Не удалось прочитать RSS процесса {}: {}", pid, e.toString());
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() {
+        try {
+            connector.close();
+        } catch (IOException e) {
+            log.warn("Ошибка закрытия JMX-подключения: {}", e.toString());
+        }
+    }
+
+    /**
+     * Память процесса приложения в момент снятия.
+     */
+    public static final class Sample {
+        private final long heapUsedBytes;
+        private final long heapCommittedBytes;
+        private final long nonHeapUsedBytes;
+        private final long rssBytes;
+
+        Sample(long heapUsedBytes, long heapCommittedBytes, long nonHeapUsedBytes, long rssBytes) {
+            this.heapUsedBytes = heapUsedBytes;
+            this.heapCommittedBytes = heapCommittedBytes;
+            this.nonHeapUsedBytes = nonHeapUsedBytes;
+            this.rssBytes = rssBytes;
+        }
+
+        public long getHeapUsedBytes() {
+            return heapUsedBytes;
+        }
+
+        public long getHeapCommittedBytes() {
+            return heapCommittedBytes;
+        }
+
+        public long getNonHeapUsedBytes() {
+            return nonHeapUsedBytes;
+        }
+
+        /**
+         * RSS процесса или -1, если он недоступен.
+         */
+        public long getRssBytes() {
+            return rssBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("heap=%d МБ (committed %d МБ), non-heap=%d МБ, RSS=%s",
+                    heapUsedBytes >> 20, heapCommittedBytes >> 20, nonHeapUsedBytes >> 20,
+                    rssBytes < 0 ? "н/д" : (rssBytes >> 20) + " МБ");
+        }
+    }
+}
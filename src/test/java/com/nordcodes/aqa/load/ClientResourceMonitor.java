@@ -0,0 +1,174 @@
+package com.nordcodes.aqa.load;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Самоконтроль нагрузочного клиента: сколько CPU и памяти тратят сами рабочие потоки
+ * и как часто в JVM клиента срабатывает GC. Нужен, чтобы отличить ограничение приложения
+ * от ситуации, когда узким местом стал генератор нагрузки.
+ * Счётчики потоков снимаются через {@link com.sun.management.ThreadMXBean} внутри самих рабочих потоков.
+ * CPU процесса включает WireMock, его расширения и сетевой прокси, работающие в той же JVM, поэтому загрузка
+ * клиента считается только по его собственным потокам: рабочим и вспомогательным ({@link #CLIENT_THREAD_PREFIXES}).
+ */
+public class ClientResourceMonitor {
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.OperatingSystemMXBean os =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+    /** Префиксы имён вспомогательных потоков клиента: поток ввода-вывода NIO-транспорта и сборщик интервалов. */
+    static final String[] CLIENT_THREAD_PREFIXES = {"nio-transport-io", "load-interval-sampler"};
+    /** Префикс имени потока ввода-вывода NIO-транспорта. */
+    static final String IO_THREAD_PREFIX = "nio-transport-io";
+
+    private static final ThreadLocal<long[]> workerStart = new ThreadLocal<>();
+
+    private final LongAdder workerCpuNanos = new LongAdder();
+    private final LongAdder workerAllocatedBytes = new LongAdder();
+    private final boolean cpuTimeSupported;
+    private final boolean allocationSupported;
+    private long startNanos;
+    private long startProcessCpuNanos;
+    private Map<Long, Long> startClientThreadCpu = new HashMap<>();
+    private long startGcCount;
+    private long startGcMillis;
+
+    public ClientResourceMonitor() {
+        this.cpuTimeSupported = threads.isCurrentThreadCpuTimeSupported();
+        this.allocationSupported = threads.isThreadAllocatedMemorySupported();
+        if (cpuTimeSupported && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        if (allocationSupported && !threads.isThreadAllocatedMemoryEnabled()) {
+            threads.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    /**
+     * Фиксирует исходное состояние JVM клиента перед прогоном.
+     */
+    public void start() {
+        startNanos = System.nanoTime();
+        startProcessCpuNanos = os.getProcessCpuTime();
+        startClientThreadCpu = clientThreadCpu();
+        startGcCount = gcCount();
+        startGcMillis = gcMillis();
+    }
+
+    /**
+     * Вызывается рабочим потоком перед первой итерацией.
+     */
+    public void workerStarted() {
+        workerStart.set(new long[]{currentThreadCpu(), currentThreadAllocated()});
+    }
+
+    /**
+     * Вызывается рабочим потоком после последней итерации.
+     */
+    public void workerFinished() {
+        long[] start = workerStart.get();
+        if (start == null) {
+            return;
+        }
+        workerStart.remove();
+        workerCpuNanos.add(currentThreadCpu() - start[0]);
+        workerAllocatedBytes.add(currentThreadAllocated() - start[1]);
+    }
+
+    /**
+     * Снимает итоговые показатели клиента.
+     *
+     * @param workers  число рабочих потоков
+     * @param requests число выполненных запросов
+     * @return показатели потребления ресурсов клиентом
+     */
+    public ClientResourceUsage finish(int workers, long requests) {
+        long auxiliaryCpuNanos = 0;
+        long ioThreadCpuNanos = 0;
+        for (Map.Entry<Long, Long> entry : clientThreadCpu().entrySet()) {
+            long cpu = entry.getValue() - startClientThreadCpu.getOrDefault(entry.getKey(), 0L);
+            auxiliaryCpuNanos += cpu;
+            String name = threadName(entry.getKey());
+            if (name != null && name.startsWith(IO_THREAD_PREFIX)) {
+                ioThreadCpuNanos = Math.max(ioThreadCpuNanos, cpu);
+            }
+        }
+        return new ClientResourceUsage(
+                System.nanoTime() - startNanos,
+                workers,
+                requests,
+                Runtime.getRuntime().availableProcessors(),
+                cpuTimeSupported ? workerCpuNanos.sum() : -1,
+                allocationSupported ? workerAllocatedBytes.sum() : -1,
+                cpuTimeSupported ? auxiliaryCpuNanos : -1,
+                cpuTimeSupported ? ioThreadCpuNanos : -1,
+                os.getProcessCpuTime() - startProcessCpuNanos,
+                gcCount() - startGcCount,
+                gcMillis() - startGcMillis);
+    }
+
+    /**
+     * CPU живых вспомогательных потоков клиента по идентификатору потока. Потоки, завершившиеся
+     * до конца прогона, не учитываются: вспомогательные потоки живут дольше прогона.
+     */
+    private Map<Long, Long> clientThreadCpu() {
+        Map<Long, Long> cpu = new HashMap<>();
+        if (!cpuTimeSupported) {
+            return cpu;
+        }
+        for (long id : threads.getAllThreadIds()) {
+            String name = threadName(id);
+            if (name != null && isClientThread(name)) {
+                long time = threads.getThreadCpuTime(id);
+                if (time >= 0) {
+                    cpu.put(id, time);
+                }
+            }
+        }
+        return cpu;
+    }
+
+    private static boolean isClientThread(String name) {
+        for (String prefix : CLIENT_THREAD_PREFIXES) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String threadName(long id) {
+        ThreadInfo info = threads.getThreadInfo(id);
+        return info == null ? null : info.getThreadName();
+    }
+
+    private long currentThreadCpu() {
+        return cpuTimeSupported ? threads.getCurrentThreadCpuTime() : 0;
+    }
+
+    private long currentThreadAllocated() {
+        return allocationSupported ? threads.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcMillis() {
+        long millis = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            millis += Math.max(0, gc.getCollectionTime());
+        }
+        return millis;
+    }
+}
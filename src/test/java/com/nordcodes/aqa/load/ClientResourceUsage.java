@@ -0,0 +1,150 @@
+package com.nordcodes.aqa.load;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потребление ресурсов нагрузочным клиентом за прогон (см. {@link ClientResourceMonitor}).
+ */
+public class ClientResourceUsage {
+
+    /** Доля CPU всех ядер, занятая потоками клиента, выше которой клиент считается перегруженным. */
+    static final double MAX_CLIENT_CPU_UTILIZATION = 0.8;
+    /** Доля времени рабочего потока или потока NIO на CPU, выше которой поток упирается в CPU, а не в ожидание ответа. */
+    static final double MAX_WORKER_CPU_UTILIZATION = 0.9;
+    /** Доля времени прогона, проведённая в GC клиента, выше которой результаты искажены паузами клиента. */
+    static final double MAX_GC_TIME_RATIO = 0.05;
+
+    private final long wallNanos;
+    private final int workers;
+    private final long requests;
+    private final int processors;
+    private final long workerCpuNanos;
+    private final long workerAllocatedBytes;
+    private final long auxiliaryCpuNanos;
+    private final long ioThreadCpuNanos;
+    private final long processCpuNanos;
+    private final long gcCount;
+    private final long gcMillis;
+
+    ClientResourceUsage(long wallNanos, int workers, long requests, int processors, long workerCpuNanos,
+                        long workerAllocatedBytes, long auxiliaryCpuNanos, long ioThreadCpuNanos,
+                        long processCpuNanos, long gcCount, long gcMillis) {
+        this.wallNanos = wallNanos;
+        this.workers = workers;
+        this.requests = requests;
+        this.processors = processors;
+        this.workerCpuNanos = workerCpuNanos;
+        this.workerAllocatedBytes = workerAllocatedBytes;
+        this.auxiliaryCpuNanos = auxiliaryCpuNanos;
+        this.ioThreadCpuNanos = ioThreadCpuNanos;
+        this.processCpuNanos = processCpuNanos;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    /**
+     * Среднее время CPU рабочего потока на один запрос, мкс (-1, если не поддерживается JVM).
+     */
+    public double getCpuMicrosPerRequest() {
+        return workerCpuNanos < 0 ? -1 : workerCpuNanos / 1000.0 / Math.max(1, requests);
+    }
+
+    /**
+     * Средний объём памяти, выделенной рабочим потоком на один запрос, байт (-1, если не поддерживается JVM).
+     */
+    public double getAllocatedBytesPerRequest() {
+        return workerAllocatedBytes < 0 ? -1 : (double) workerAllocatedBytes / Math.max(1, requests);
+    }
+
+    /**
+     * Доля времени рабочих потоков, проведённая на CPU.
+     */
+    public double getWorkerCpuUtilization() {
+        return workerCpuNanos < 0 ? 0 : (double) workerCpuNanos / Math.max(1, wallNanos * workers);
+    }
+
+    /**
+     * Загрузка CPU потоками клиента (рабочими и вспомогательными, включая поток NIO) относительно всех ядер.
+     * В отличие от {@link #getProcessCpuUtilization()} не включает WireMock и сетевой прокси.
+     */
+    public double getClientCpuUtilization() {
+        if (workerCpuNanos < 0) {
+            return 0;
+        }
+        return (double) (workerCpuNanos + auxiliaryCpuNanos) / Math.max(1, wallNanos * processors);
+    }
+
+    /**
+     * Доля времени потока ввода-вывода NIO-транспорта на CPU (0, если транспорт не использовался).
+     */
+    public double getIoThreadCpuUtilization() {
+        return ioThreadCpuNanos < 0 ? 0 : (double) ioThreadCpuNanos / Math.max(1, wallNanos);
+    }
+
+    /**
+     * Загрузка CPU всем процессом относительно всех доступных ядер, включая WireMock и сетевой прокси в той же JVM.
+     */
+    public double getProcessCpuUtilization() {
+        return (double) processCpuNanos / Math.max(1, wallNanos * processors);
+    }
+
+    /**
+     * Доля времени прогона, проведённая в GC клиента.
+     */
+    public double getGcTimeRatio() {
+        return gcMillis * 1_000_000.0 / Math.max(1, wallNanos);
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    /**
+     * Возвращает предупреждения о перегрузке клиента; пустой список означает, что клиенту можно доверять.
+     */
+    public List<String> getWarnings() {
+        List<String> warnings = new ArrayList<>();
+        if (getClientCpuUtilization() > MAX_CLIENT_CPU_UTILIZATION) {
+            warnings.add(String.format("Потоки клиента занимают %.0f%% CPU всех ядер: клиент может быть узким местом",
+                    100 * getClientCpuUtilization()));
+        }
+        if (getWorkerCpuUtilization() > MAX_WORKER_CPU_UTILIZATION) {
+            warnings.add(String.format("Рабочие потоки %.0f%% времени на CPU: они упираются в подготовку запросов, а не в ожидание ответа",
+                    100 * getWorkerCpuUtilization()));
+        }
+        if (getIoThreadCpuUtilization() > MAX_WORKER_CPU_UTILIZATION) {
+            warnings.add(String.format("Поток NIO %.0f%% времени на CPU: селектор не успевает обрабатывать ответы",
+                    100 * getIoThreadCpuUtilization()));
+        }
+        if (getGcTimeRatio() > MAX_GC_TIME_RATIO) {
+            warnings.add(String.format("GC клиента занял %.1f%% времени прогона: задержки искажены паузами клиента",
+                    100 * getGcTimeRatio()));
+        }
+        return warnings;
+    }
+
+    public boolean isSaturated() {
+        return !getWarnings().isEmpty();
+    }
+
+    /**
+     * Формирует текстовый раздел отчёта.
+     */
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Ресурсы клиента: ядер=%d, потоков=%d%n", processors, workers));
+        sb.append(String.format("  CPU на запрос: %.1f мкс, память на запрос: %.0f байт%n",
+                getCpuMicrosPerRequest(), getAllocatedBytesPerRequest()));
+        sb.append(String.format("  CPU рабочих потоков: %.1f%%, поток NIO: %.1f%%%n",
+                100 * getWorkerCpuUtilization(), 100 * getIoThreadCpuUtilization()));
+        sb.append(String.format("  CPU клиента: %.1f%%, CPU процесса (включая WireMock и прокси): %.1f%% от всех ядер%n",
+                100 * getClientCpuUtilization(), 100 * getProcessCpuUtilization()));
+        sb.append(String.format("  GC клиента: сборок=%d, время=%d мс (%.2f%% прогона)%n",
+                gcCount, gcMillis, 100 * getGcTimeRatio()));
+        for (String warning : getWarnings()) {
+            sb.append("  ВНИМАНИЕ: ").append(warning).append(String.format("%n"));
+        }
+        return sb.toString();
+    }
+}
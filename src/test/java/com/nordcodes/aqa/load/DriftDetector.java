@@ -0,0 +1,198 @@
+package com.nordcodes.aqa.load;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Поиск дрейфа метрик длительного прогона по окнам {@link RollingWindowMetrics}.
+ * <p>
+ * Для каждой метрики сравниваются медиана базовой линии (первые окна после прогрева) и медиана последних окон,
+ * а также оценивается линейный тренд методом наименьших квадратов. Дрейф фиксируется, только если
+ * в неблагоприятную сторону сильнее допуска изменились и последние окна относительно базовой линии,
+ * и тренд, экстраполированный на длительность прогона: одиночные выбросы и шум не дают ложных срабатываний.
+ * Рост p99 и падение пропускной способности при неизменной нагрузке указывают на утечки или рост
+ * хранилища сессий в приложении.
+ */
+public final class DriftDetector {
+
+    private DriftDetector() {
+    }
+
+    /**
+     * Проверяет p99 задержки (рост) и пропускную способность (падение).
+     *
+     * @param metrics            окна прогона
+     * @param warmupWindows      число первых окон, исключаемых как прогрев
+     * @param comparedWindows    число окон в базовой линии и в группе последних окон
+     * @param p99Limit           допустимый относительный рост p99 (0.5 — на 50%)
+     * @param throughputLimit    допустимое относительное падение пропускной способности (0.2 — на 20%)
+     * @return результаты проверок по метрикам
+     */
+    public static List<DriftCheck> analyze(RollingWindowMetrics metrics, int warmupWindows, int comparedWindows,
+                                           double p99Limit, double throughputLimit) {
+        List<RollingWindowMetrics.Window> baseline = skip(metrics.getBaseline(), warmupWindows);
+        List<RollingWindowMetrics.Window> windows = skip(metrics.getWindows(), warmupWindows);
+        List<DriftCheck> checks = new ArrayList<>();
+        checks.add(check("p99, мс", baseline, windows, comparedWindows, RollingWindowMetrics.Window::getP99Millis, p99Limit, true));
+        checks.add(check("пропускная способность, rps", baseline, windows, comparedWindows,
+                RollingWindowMetrics.Window::getThroughput, throughputLimit, false));
+        return checks;
+    }
+
+    private static List<RollingWindowMetrics.Window> skip(List<RollingWindowMetrics.Window> windows, int warmupWindows) {
+        // Индекс окна сквозной: вытесненные из буфера окна прогрева уже не попадут в список
+        List<RollingWindowMetrics.Window> result = new ArrayList<>();
+        for (RollingWindowMetrics.Window window : windows) {
+            if (window.getIndex() >= warmupWindows && window.getRequests() > 0) {
+                result.add(window);
+            }
+        }
+        return result;
+    }
+
+    private static DriftCheck check(String metric, List<RollingWindowMetrics.Window> baselineWindows,
+                                    List<RollingWindowMetrics.Window> windows, int compared,
+                                    ToDoubleFunction<RollingWindowMetrics.Window> value, double limit, boolean growthIsBad) {
+        if (baselineWindows.size() < compared || windows.size() < 2 * compared) {
+            return DriftCheck.insufficient(metric, windows.size(), 2 * compared);
+        }
+        double baseline = median(baselineWindows.subList(0, compared), value);
+        double recent = median(windows.subList(windows.size() - compared, windows.size()), value);
+
+        // Наклон тренда в единицах метрики за час
+        int n = windows.size();
+        double meanX = 0;
+        double meanY = 0;
+        for (RollingWindowMetrics.Window window : windows) {
+            meanX += window.getStartSeconds() / 3600;
+            meanY += value.applyAsDouble(window);
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0;
+        double variance = 0;
+        for (RollingWindowMetrics.Window window : windows) {
+            double dx = window.getStartSeconds() / 3600 - meanX;
+            covariance += dx * (value.applyAsDouble(window) - meanY);
+            variance += dx * dx;
+        }
+        double slopePerHour = variance > 0 ? covariance / variance : 0;
+        double spanHours = (windows.get(n - 1).getStartSeconds() - windows.get(0).getStartSeconds()) / 3600;
+
+        double sign = growthIsBad ? 1 : -1;
+        double recentChange = baseline > 0 ? sign * (recent - baseline) / baseline : 0;
+        double trendChange = baseline > 0 ? sign * slopePerHour * spanHours / baseline : 0;
+        boolean drifting = recentChange > limit && trendChange > limit;
+        return new DriftCheck(metric, baseline, recent, slopePerHour, recentChange, trendChange, limit, drifting);
+    }
+
+    private static double median(List<RollingWindowMetrics.Window> windows, ToDoubleFunction<RollingWindowMetrics.Window> value) {
+        double[] values = windows.stream().mapToDouble(value).toArray();
+        Arrays.sort(values);
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    /**
+     * Результат проверки одной метрики на дрейф.
+     */
+    public static final class DriftCheck {
+        private final String metric;
+        private final double baseline;
+        private final double recent;
+        private final double slopePerHour;
+        private final double recentChange;
+        private final double trendChange;
+        private final double limit;
+        private final boolean drifting;
+        private final String note;
+
+        private DriftCheck(String metric, double baseline, double recent, double slopePerHour,
+                           double recentChange, double trendChange, double limit, boolean drifting) {
+            this.metric = metric;
+            this.baseline = baseline;
+            this.recent = recent;
+            this.slopePerHour = slopePerHour;
+            this.recentChange = recentChange;
+            this.trendChange = trendChange;
+            this.limit = limit;
+            this.drifting = drifting;
+            this.note = null;
+        }
+
+        private DriftCheck(String metric, String note) {
+            this.metric = metric;
+            this.baseline = Double.NaN;
+            this.recent = Double.NaN;
+            this.slopePerHour = Double.NaN;
+            this.recentChange = Double.NaN;
+            this.trendChange = Double.NaN;
+            this.limit = Double.NaN;
+            this.drifting = false;
+            this.note = note;
+        }
+
+        private static DriftCheck insufficient(String metric, int windows, int required) {
+            return new DriftCheck(metric, "недостаточно окон для оценки дрейфа: " + windows + " из " + required);
+        }
+
+        public String getMetric() {
+            return metric;
+        }
+
+        public double getBaseline() {
+            return baseline;
+        }
+
+        public double getRecent() {
+            return recent;
+        }
+
+        public double getSlopePerHour() {
+            return slopePerHour;
+        }
+
+        /**
+         * Относительное изменение последних окон к базовой линии в неблагоприятную сторону.
+         */
+        public double getRecentChange() {
+            return recentChange;
+        }
+
+        /**
+         * Относительное изменение по тренду за весь прогон в неблагоприятную сторону.
+         */
+        public double getTrendChange() {
+            return trendChange;
+        }
+
+        public double getLimit() {
+            return limit;
+        }
+
+        public boolean isDrifting() {
+            return drifting;
+        }
+
+        /**
+         * Признак того, что окон было достаточно для оценки.
+         */
+        public boolean isEvaluated() {
+            return note == null;
+        }
+
+        @Override
+        public String toString() {
+            if (note != null) {
+                return metric + ": " + note;
+            }
+            return String.format(Locale.ROOT,
+                    "%s: %sбазовая линия %.2f, последние окна %.2f, тренд %+.3f/ч; ухудшение %.1f%% (тренд %.1f%%), допуск %.0f%%",
+                    metric, drifting ? "ДРЕЙФ — " : "", baseline, recent, slopePerHour,
+                    100 * recentChange, 100 * trendChange, 100 * limit);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.nordcodes.aqa.load;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Офлайн-сравнение двух журналов интервальных гистограмм ({@link IntervalHistogramLog}),
+ * например прогонов до и после релиза приложения.
+ * <p>
+ * Печатает перцентили задержки по каждому действию за весь прогон и по корзинам времени от старта прогона
+ * с ASCII-графиком выбранного перцентиля; при {@code --svg} дополнительно пишет графики в HTML-файл.
+ * <pre>
+ * java -cp target/test-classes:$(cat target/classpath.txt) com.nordcodes.aqa.load.HistogramLogComparator \
+ *     before.hlog after.hlog [--percentile 99] [--bucket 10] [--svg comparison.html]
+ * </pre>
+ */
+public class HistogramLogComparator {
+
+    private static final double[] SUMMARY_PERCENTILES = {50, 90, 99, 99.9};
+    private static final int TARGET_BUCKETS = 60;
+    private static final int PLOT_HEIGHT = 12;
+
+    private final RunLog baseline;
+    private final RunLog candidate;
+    private final double percentile;
+    private final int bucketSeconds;
+
+    /**
+     * @param baseline      журнал базового прогона (A)
+     * @param candidate     журнал сравниваемого прогона (B)
+     * @param percentile    перцентиль для сравнения по времени
+     * @param bucketSeconds ширина корзины времени в секундах; 0 — подобрать по длительности прогонов
+     */
+    public HistogramLogComparator(Path baseline, Path candidate, double percentile, int bucketSeconds) throws IOException {
+        double longest = Math.max(RunLog.duration(baseline), RunLog.duration(candidate));
+        this.bucketSeconds = bucketSeconds > 0 ? bucketSeconds : (int) Math.max(1, Math.ceil(longest / TARGET_BUCKETS));
+        this.baseline = RunLog.read(baseline, this.bucketSeconds);
+        this.candidate = RunLog.read(candidate, this.bucketSeconds);
+        this.percentile = percentile;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path[] files = new Path[2];
+        int positional = 0;
+        double percentile = 99;
+        int bucketSeconds = 0;
+        Path svg = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--percentile" -> percentile = Double.parseDouble(args[++i]);
+                    case "--bucket" -> bucketSeconds = Integer.parseInt(args[++i]);
+                    case "--svg" -> svg = Path.of(args[++i]);
+                    default -> files[positional++] = Path.of(args[i]);
+                }
+            }
+        } catch (RuntimeException e) {
+            positional = -1;
+        }
+        if (positional != 2) {
+            System.err.println("Использование: HistogramLogComparator <журнал A> <журнал B> "
+                    + "[--percentile 99] [--bucket <секунд>] [--svg <файл.html>]");
+            System.exit(2);
+        }
+
+        HistogramLogComparator comparator = new HistogramLogComparator(files[0], files[1], percentile, bucketSeconds);
+        comparator.print(System.out);
+        if (svg != null) {
+            Files.writeString(svg, comparator.toHtml(), StandardCharsets.UTF_8);
+            System.out.println("Графики записаны в " + svg.toAbsolutePath());
+        }
+    }
+
+    /**
+     * Печатает сравнение за весь прогон и по времени.
+     */
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "A: %s (%.0f с)%nB: %s (%.0f с)%n%n",
+                baseline.file, baseline.durationSeconds, candidate.file, candidate.durationSeconds);
+
+        out.printf("За весь прогон, мс (изменение B относительно A)%n");
+        out.printf(Locale.ROOT, "%-16s %-8s %12s %12s %9s%n", "action", "", "A", "B", "Δ");
+        for (String action : actions()) {
+            Histogram a = baseline.total(action);
+            Histogram b = candidate.total(action);
+            out.printf(Locale.ROOT, "%-16s %-8s %12d %12d %9s%n", action, "count", a.getTotalCount(), b.getTotalCount(),
+                    delta(a.getTotalCount(), b.getTotalCount()));
+            for (double p : SUMMARY_PERCENTILES) {
+                printRow(out, "", "p" + formatPercentile(p), millis(a, p), millis(b, p));
+            }
+            printRow(out, "", "max", a.getMaxValue() / 1000.0, b.getMaxValue() / 1000.0);
+        }
+
+        for (String action : actions()) {
+            out.printf(Locale.ROOT, "%n%s: p%s по времени, корзина %d с%n", action, formatPercentile(percentile), bucketSeconds);
+            double[] a = series(baseline, action);
+            double[] b = series(candidate, action);
+            out.printf(Locale.ROOT, "%-8s %12s %12s %9s%n", "старт, с", "A", "B", "Δ");
+            for (int i = 0; i < a.length; i++) {
+                out.printf(Locale.ROOT, "%-8d %12s %12s %9s%n", i * bucketSeconds, value(a[i]), value(b[i]),
+                        Double.isNaN(a[i]) || Double.isNaN(b[i]) ? "" : delta(a[i], b[i]));
+            }
+            plot(out, a, b);
+        }
+    }
+
+    /**
+     * HTML-страница с графиками выбранного перцентиля по времени для каждого действия.
+     */
+    public String toHtml() {
+        StringBuilder html = new StringBuilder(LoadReport.HTML_HEAD);
+        html.append("<h2>").append(SvgChart.escape("A: " + baseline.file + " / B: " + candidate.file)).append("</h2>");
+        for (String action : actions()) {
+            double[] a = series(baseline, action);
+            double[] b = series(candidate, action);
+            double[] x = new double[a.length];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = i * bucketSeconds;
+            }
+            html.append(new SvgChart(action + ": p" + formatPercentile(percentile), "секунда прогона", "мс")
+                    .series("A", x, zeroIfMissing(a))
+                    .series("B", x, zeroIfMissing(b))
+                    .render());
+        }
+        return html.append("</body></html>").toString();
+    }
+
+    private TreeSet<String> actions() {
+        TreeSet<String> actions = new TreeSet<>(baseline.totals.keySet());
+        actions.addAll(candidate.totals.keySet());
+        return actions;
+    }
+
+    private double[] series(RunLog run, String action) {
+        int buckets = Math.max(baseline.buckets(), candidate.buckets());
+        double[] values = new double[buckets];
+        Arrays.fill(values, Double.NaN);
+        Map<Integer, Histogram> byBucket = run.buckets.getOrDefault(action, new TreeMap<>());
+        byBucket.forEach((bucket, histogram) -> values[bucket] = millis(histogram, percentile));
+        return values;
+    }
+
+    /**
+     * ASCII-график двух рядов: A — базовый прогон, B — сравниваемый, * — значения совпали в одной клетке.
+     */
+    private static void plot(PrintStream out, double[] a, double[] b) {
+        double max = 0;
+        for (int i = 0; i < a.length; i++) {
+            max = Math.max(max, Double.isNaN(a[i]) ? 0 : a[i]);
+            max = Math.max(max, Double.isNaN(b[i]) ? 0 : b[i]);
+        }
+        if (max == 0) {
+            return;
+        }
+        char[][] grid = new char[PLOT_HEIGHT][a.length];
+        for (char[] row : grid) {
+            Arrays.fill(row, ' ');
+        }
+        mark(grid, a, max, 'A');
+        mark(grid, b, max, 'B');
+        for (int row = 0; row < PLOT_HEIGHT; row++) {
+            double level = max * (PLOT_HEIGHT - row) / PLOT_HEIGHT;
+            out.printf(Locale.ROOT, "%10.2f |%s%n", level, new String(grid[row]));
+        }
+        out.printf("%10s +%s%n", "мс", "-".repeat(a.length));
+    }
+
+    private static void mark(char[][] grid, double[] values, double max, char symbol) {
+        for (int i = 0; i < values.length; i++) {
+            if (Double.isNaN(values[i])) {
+                continue;
+            }
+            int row = PLOT_HEIGHT - 1 - (int) Math.min(PLOT_HEIGHT - 1, Math.round(values[i] / max * (PLOT_HEIGHT - 1)));
+            grid[row][i] = grid[row][i] == ' ' ? symbol : '*';
+        }
+    }
+
+    private static void printRow(PrintStream out, String action, String label, double a, double b) {
+        out.printf(Locale.ROOT, "%-16s %-8s %12.2f %12.2f %9s%n", action, label, a, b, delta(a, b));
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? Double.NaN : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static String delta(double a, double b) {
+        if (a == 0 || Double.isNaN(a) || Double.isNaN(b)) {
+            return "н/д";
+        }
+        return String.format(Locale.ROOT, "%+.1f%%", 100 * (b - a) / a);
+    }
+
+    private static String value(double millis) {
+        return Double.isNaN(millis) ? "-" : String.format(Locale.ROOT, "%.2f", millis);
+    }
+
+    private static String formatPercentile(double percentile) {
+        return percentile == Math.rint(percentile) ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    private static double[] zeroIfMissing(double[] values) {
+        return Arrays.stream(values).map(v -> Double.isNaN(v) ? 0 : v).toArray();
+    }
+
+    /**
+     * Содержимое одного журнала: гистограммы по действиям за весь прогон и по корзинам времени.
+     */
+    private static final class RunLog {
+        private final Path file;
+        private final Map<String, Histogram> totals = new TreeMap<>();
+        private final Map<String, TreeMap<Integer, Histogram>> buckets = new TreeMap<>();
+        private double durationSeconds;
+
+        private RunLog(Path file) {
+            this.file = file;
+        }
+
+        private static RunLog read(Path file, int bucketSeconds) throws FileNotFoundException {
+            RunLog run = new RunLog(file);
+            HistogramLogReader reader = new HistogramLogReader(file.toFile());
+            EncodableHistogram encoded;
+            while ((encoded = reader.nextIntervalHistogram()) != null) {
+                if (!(encoded instanceof Histogram histogram)) {
+                    continue;
+                }
+                String action = histogram.getTag() == null ? "<без тега>" : histogram.getTag();
+                double startSeconds = histogram.getStartTimeStamp() / 1000.0 - reader.getStartTimeSec();
+                double endSeconds = histogram.getEndTimeStamp() / 1000.0 - reader.getStartTimeSec();
+                run.durationSeconds = Math.max(run.durationSeconds, endSeconds);
+                run.totals.computeIfAbsent(action, k -> newHistogram()).add(histogram);
+                int bucket = (int) Math.max(0, startSeconds / bucketSeconds);
+                run.buckets.computeIfAbsent(action, k -> new TreeMap<>())
+                        .computeIfAbsent(bucket, k -> newHistogram()).add(histogram);
+            }
+            return run;
+        }
+
+        private static double duration(Path file) throws FileNotFoundException {
+            HistogramLogReader reader = new HistogramLogReader(file.toFile());
+            double duration = 0;
+            EncodableHistogram encoded;
+            while ((encoded = reader.nextIntervalHistogram()) != null) {
+                duration = Math.max(duration, encoded.getEndTimeStamp() / 1000.0 - reader.getStartTimeSec());
+            }
+            return duration;
+        }
+
+        private Histogram total(String action) {
+            return totals.getOrDefault(action, newHistogram());
+        }
+
+        private int buckets() {
+            return buckets.values().stream()
+                    .mapToInt(byBucket -> byBucket.isEmpty() ? 0 : byBucket.lastKey() + 1)
+                    .max().orElse(0);
+        }
+
+        private static Histogram newHistogram() {
+            // Диапазон значений подстраивается под гистограммы журнала
+            return new Histogram(LoadRecorder.SIGNIFICANT_DIGITS);
+        }
+    }
+}
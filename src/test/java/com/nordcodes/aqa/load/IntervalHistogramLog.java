@@ -0,0 +1,112 @@
+package com.nordcodes.aqa.load;
+
+import org.HdrHistogram.HistogramLogWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Журнал интервальных гистограмм задержек прогона в формате HdrHistogram (.hlog).
+ * Каждую секунду для каждого действия пишется строка с тегом действия, границами интервала
+ * и гистограммой в сжатом виде (deflate + base64), значения — в микросекундах.
+ * Журналы двух прогонов сравниваются офлайн через {@link HistogramLogComparator}.
+ */
+public class IntervalHistogramLog implements IntervalListener {
+
+    private static final Logger log = LoggerFactory.getLogger(IntervalHistogramLog.class);
+
+    private static final String CYRILLIC = "абвгдеёжзийклмнопрстуфхцчшщъыьэюя";
+    private static final String[] LATIN = {"a", "b", "v", "g", "d", "e", "e", "zh", "z", "i", "y", "k", "l", "m", "n", "o",
+            "p", "r", "s", "t", "u", "f", "kh", "ts", "ch", "sh", "shch", "", "y", "", "e", "yu", "ya"};
+    private static final DateTimeFormatter FILE_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path file;
+    private HistogramLogWriter writer;
+
+    /**
+     * @param file файл журнала
+     */
+    public IntervalHistogramLog(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Журнал в каталоге {@code directory} с именем из названия прогона и времени старта.
+     *
+     * @param directory каталог журналов
+     * @param runName   название прогона
+     * @return журнал
+     */
+    public static IntervalHistogramLog inDirectory(Path directory, String runName) {
+        return new IntervalHistogramLog(directory.resolve(
+                fileName(runName) + "-" + LocalDateTime.now().format(FILE_TIMESTAMP) + ".hlog"));
+    }
+
+    /**
+     * Имя файла из названия прогона: кириллица транслитерируется, остальные символы кроме латиницы и цифр
+     * заменяются на «_» — файловая система может не поддерживать UTF-8 в именах.
+     */
+    static String fileName(String runName) {
+        StringBuilder name = new StringBuilder();
+        for (char c : runName.toLowerCase(Locale.ROOT).toCharArray()) {
+            int cyrillic = CYRILLIC.indexOf(c);
+            if (cyrillic >= 0) {
+                name.append(LATIN[cyrillic]);
+            } else if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '.' || c == '-') {
+                name.append(c);
+            } else if (name.length() > 0 && name.charAt(name.length() - 1) != '_') {
+                name.append('_');
+            }
+        }
+        String result = name.toString().replaceAll("_+$", "");
+        return result.isEmpty() ? "load" : result;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void onStart(long runStartEpochMillis) {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            writer = new HistogramLogWriter(file.toFile());
+        } catch (IOException e) {
+            log.warn("Не удалось создать журнал гистограмм {}, журнал не пишется", file, e);
+            return;
+        }
+        writer.outputLogFormatVersion();
+        writer.outputComment("latency unit: microseconds, tag: action");
+        writer.outputStartTime(runStartEpochMillis);
+        writer.setBaseTime(runStartEpochMillis);
+        writer.outputBaseTime(runStartEpochMillis);
+        writer.outputLegend();
+        log.info("Журнал интервальных гистограмм: {}", file.toAbsolutePath());
+    }
+
+    @Override
+    public void onInterval(long startEpochMillis, long endEpochMillis, Map<String, LoadRecorder.Interval> intervals) {
+        if (writer == null) {
+            return;
+        }
+        intervals.values().forEach(interval -> {
+            if (interval.getHistogram().getTotalCount() > 0) {
+                writer.outputIntervalHistogram(interval.getHistogram());
+            }
+        });
+    }
+
+    @Override
+    public void onFinish() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.nordcodes.aqa.load;
+
+import java.util.Map;
+
+/**
+ * Получатель интервальной статистики прогона от {@link IntervalSampler}.
+ * Гистограммы интервала общие для всех получателей и не должны изменяться.
+ */
+interface IntervalListener {
+
+    /**
+     * Вызывается один раз перед первым интервалом.
+     *
+     * @param runStartEpochMillis время старта прогона
+     */
+    void onStart(long runStartEpochMillis);
+
+    /**
+     * Вызывается по окончании каждого интервала, в том числе последнего неполного.
+     *
+     * @param startEpochMillis начало интервала
+     * @param endEpochMillis   конец интервала
+     * @param intervals        статистика по действиям; у гистограмм заполнены тег (действие) и границы интервала
+     */
+    void onInterval(long startEpochMillis, long endEpochMillis, Map<String, LoadRecorder.Interval> intervals);
+
+    /**
+     * Вызывается один раз после последнего интервала.
+     */
+    void onFinish();
+}
@@ -0,0 +1,90 @@
+package com.nordcodes.aqa.load;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Снимает с {@link LoadRecorder} интервальную статистику с фиксированным шагом и раздаёт её получателям
+ * ({@link RollingWindowMetrics}, {@link IntervalHistogramLog}). Единственный потребитель интервалов регистратора:
+ * получатели видят одни и те же интервалы и не отнимают данные друг у друга.
+ */
+final class IntervalSampler {
+
+    private static final Logger log = LoggerFactory.getLogger(IntervalSampler.class);
+
+    private final LoadRecorder recorder;
+    private final long intervalMillis;
+    private final List<IntervalListener> listeners;
+    private ScheduledExecutorService scheduler;
+    private long startNanos;
+    private long startEpochMillis;
+    private long intervalStartEpochMillis;
+
+    IntervalSampler(LoadRecorder recorder, long intervalMillis, List<IntervalListener> listeners) {
+        this.recorder = recorder;
+        this.intervalMillis = intervalMillis;
+        this.listeners = listeners;
+    }
+
+    synchronized void start() {
+        startNanos = System.nanoTime();
+        startEpochMillis = System.currentTimeMillis();
+        intervalStartEpochMillis = startEpochMillis;
+        recorder.takeInterval();
+        for (IntervalListener listener : listeners) {
+            listener.onStart(startEpochMillis);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-interval-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::sample, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    void stop() {
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(intervalMillis * 10, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            sample();
+            for (IntervalListener listener : listeners) {
+                try {
+                    listener.onFinish();
+                } catch (RuntimeException e) {
+                    log.warn("Ошибка получателя интервалов {} при завершении", listener.getClass().getSimpleName(), e);
+                }
+            }
+        }
+    }
+
+    private synchronized void sample() {
+        // Время интервалов считается по монотонным часам от старта, чтобы границы не прыгали при коррекции времени
+        long endEpochMillis = startEpochMillis + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        Map<String, LoadRecorder.Interval> intervals = recorder.takeInterval();
+        intervals.forEach((action, interval) -> {
+            Histogram histogram = interval.getHistogram();
+            histogram.setTag(action);
+            histogram.setStartTimeStamp(intervalStartEpochMillis);
+            histogram.setEndTimeStamp(endEpochMillis);
+        });
+        for (IntervalListener listener : listeners) {
+            try {
+                listener.onInterval(intervalStartEpochMillis, endEpochMillis, intervals);
+            } catch (RuntimeException e) {
+                log.warn("Ошибка получателя интервалов {}", listener.getClass().getSimpleName(), e);
+            }
+        }
+        intervalStartEpochMillis = endEpochMillis;
+    }
+}
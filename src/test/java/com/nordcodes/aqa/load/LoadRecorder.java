@@ -0,0 +1,321 @@
+package com.nordcodes.aqa.load;
+
+import io.restassured.path.json.JsonPath;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static com.nordcodes.aqa.config.TestConfig.HTTP_OK;
+import static com.nordcodes.aqa.config.TestConfig.JSON_KEY_MESSAGE;
+import static com.nordcodes.aqa.config.TestConfig.RESULT_OK;
+
+/**
+ * Потокобезопасный регистратор результатов нагрузочного прогона.
+ * Собирает гистограммы задержек (HdrHistogram) по каждому действию, распределение статус-кодов,
+ * посекундный таймлайн успешных и ошибочных запросов, разбивку ошибок по полю message
+ * и ограниченный список самых медленных запросов. Объём собираемых данных не зависит от числа запросов.
+ */
+public class LoadRecorder {
+
+    /** Статус-код, которым фиксируется запрос, завершившийся исключением (нет HTTP-ответа). */
+    public static final int STATUS_TRANSPORT_ERROR = -1;
+
+    static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+    static final int SIGNIFICANT_DIGITS = 3;
+    static final int SLOWEST_REQUESTS_LIMIT = 20;
+    static final int ERROR_KINDS_LIMIT = 100;
+    static final String OTHER_ERRORS = "<прочие ошибки>";
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, ActionStats> actions = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> taskFailures = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final Map<String, LongAdder> errorKinds = new ConcurrentHashMap<>();
+    private final PriorityQueue<LoadResult.SlowRequest> slowest =
+            new PriorityQueue<>(Comparator.comparingLong(LoadResult.SlowRequest::getLatencyNanos));
+    private volatile long slowestThresholdNanos;
+    private final AtomicLongArray timelineOk;
+    private final AtomicLongArray timelineErrors;
+
+    /**
+     * @param timelineSeconds число посекундных ячеек таймлайна (запросы за его пределами попадают в последнюю ячейку)
+     */
+    public LoadRecorder(int timelineSeconds) {
+        this.timelineOk = new AtomicLongArray(Math.max(1, timelineSeconds));
+        this.timelineErrors = new AtomicLongArray(Math.max(1, timelineSeconds));
+    }
+
+    /**
+     * Выполняет запрос через RestAssured, замеряет задержку и фиксирует результат.
+     * Запрос считается успешным, если статус 200 и тело содержит result: OK.
+     *
+     * @param action название действия (LOGIN, ACTION, LOGOUT и т.д.)
+     * @param call   вызов клиента
+     * @return ответ либо {@code null}, если запрос завершился исключением
+     */
+    public Response send(String action, Supplier<Response> call) {
+        return send(action, null, call);
+    }
+
+    /**
+     * То же, что {@link #send(String, Supplier)}, с уточнением запроса (например, токеном)
+     * для списка самых медленных запросов.
+     *
+     * @param action название действия
+     * @param detail уточнение запроса, может быть {@code null}
+     * @param call   вызов клиента
+     * @return ответ либо {@code null}, если запрос завершился исключением
+     */
+    public Response send(String action, String detail, Supplier<Response> call) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = call.get();
+        } catch (RuntimeException e) {
+            record(action, detail, System.nanoTime() - start, STATUS_TRANSPORT_ERROR, false);
+            recordError(action, STATUS_TRANSPORT_ERROR, e.getClass().getSimpleName());
+            return null;
+        }
+        long latency = System.nanoTime() - start;
+        int statusCode = response.getStatusCode();
+        String body = response.getBody().asString();
+        boolean ok = statusCode == HTTP_OK && body.contains(RESULT_OK);
+        record(action, detail, latency, statusCode, ok);
+        if (!ok) {
+            recordError(action, statusCode, errorMessage(body));
+        }
+        return response;
+    }
+
+    /**
+     * Фиксирует результат одного запроса.
+     *
+     * @param action       название действия
+     * @param latencyNanos задержка в наносекундах
+     * @param statusCode   HTTP-статус ответа или {@link #STATUS_TRANSPORT_ERROR}
+     * @param ok           признак успешного ответа
+     */
+    public void record(String action, long latencyNanos, int statusCode, boolean ok) {
+        record(action, null, latencyNanos, statusCode, ok);
+    }
+
+    /**
+     * Фиксирует результат одного запроса с уточнением для списка самых медленных запросов.
+     *
+     * @param action       название действия
+     * @param detail       уточнение запроса, может быть {@code null}
+     * @param latencyNanos задержка в наносекундах
+     * @param statusCode   HTTP-статус ответа или {@link #STATUS_TRANSPORT_ERROR}
+     * @param ok           признак успешного ответа
+     */
+    public void record(String action, String detail, long latencyNanos, int statusCode, boolean ok) {
+        ActionStats stats = actions.computeIfAbsent(action, k -> new ActionStats());
+        long micros = Math.min(Math.max(1, latencyNanos / 1_000), MAX_LATENCY_MICROS);
+        stats.recorder.recordValue(micros);
+        requests.increment();
+        stats.statuses.computeIfAbsent(statusCode, k -> new LongAdder()).increment();
+        if (!ok) {
+            stats.errors.increment();
+        }
+
+        long now = System.nanoTime();
+        int second = timelineSecond(now);
+        (ok ? timelineOk : timelineErrors).incrementAndGet(second);
+
+        if (latencyNanos > slowestThresholdNanos) {
+            offerSlow(new LoadResult.SlowRequest(action, detail, latencyNanos, statusCode,
+                    TimeUnit.NANOSECONDS.toMillis(now - latencyNanos - startNanos)));
+        }
+    }
+
+    /**
+     * Фиксирует вид ошибки для разбивки ошибок в отчёте.
+     * Число различных видов ограничено, остальные ошибки учитываются вместе.
+     *
+     * @param action     название действия
+     * @param statusCode HTTP-статус ответа или {@link #STATUS_TRANSPORT_ERROR}
+     * @param message    значение поля message ответа или тип исключения
+     */
+    public void recordError(String action, int statusCode, String message) {
+        String kind = action + " " + (statusCode == STATUS_TRANSPORT_ERROR ? "нет ответа" : statusCode) + ": " + message;
+        LongAdder counter = errorKinds.get(kind);
+        if (counter == null) {
+            counter = errorKinds.size() < ERROR_KINDS_LIMIT
+                    ? errorKinds.computeIfAbsent(kind, k -> new LongAdder())
+                    : errorKinds.computeIfAbsent(OTHER_ERRORS, k -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Фиксирует ошибку итерации, не связанную с конкретным запросом.
+     *
+     * @param error исключение, выброшенное задачей
+     */
+    public void recordTaskFailure(Throwable error) {
+        taskFailures.computeIfAbsent(error.getClass().getSimpleName(), k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Возвращает число зафиксированных запросов.
+     */
+    public long requestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * Возвращает число запросов, зафиксированных как ошибочные.
+     */
+    long errorCount() {
+        return actions.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+    }
+
+    /**
+     * Возвращает неизменяемый снимок накопленных результатов.
+     *
+     * @param name        название сценария
+     * @param threads     число рабочих потоков
+     * @param clientUsage  потребление ресурсов клиентом за прогон
+     * @param histogramLog журнал интервальных гистограмм прогона
+     * @param warmUp       итог прогрева перед прогоном или {@code null}, если прогрева не было
+     * @return результат прогона
+     */
+    public LoadResult snapshot(String name, int threads, ClientResourceUsage clientUsage, Path histogramLog,
+                               WarmUpResult warmUp) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        Map<String, LoadResult.ActionSummary> summaries = new TreeMap<>();
+        actions.forEach((action, stats) -> summaries.put(action, stats.summary(action)));
+
+        Map<String, Long> failures = new TreeMap<>();
+        taskFailures.forEach((type, count) -> failures.put(type, count.sum()));
+
+        int seconds = Math.min(timelineOk.length(), timelineSecond(System.nanoTime()) + 1);
+        long[] ok = new long[seconds];
+        long[] errors = new long[seconds];
+        for (int i = 0; i < seconds; i++) {
+            ok[i] = timelineOk.get(i);
+            errors[i] = timelineErrors.get(i);
+        }
+        Map<String, Long> errorBreakdown = new LinkedHashMap<>();
+        errorKinds.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().sum(), a.getValue().sum()))
+                .forEach(e -> errorBreakdown.put(e.getKey(), e.getValue().sum()));
+
+        List<LoadResult.SlowRequest> slowRequests;
+        synchronized (slowest) {
+            slowRequests = new ArrayList<>(slowest);
+        }
+        slowRequests.sort(Comparator.comparingLong(LoadResult.SlowRequest::getLatencyNanos).reversed());
+
+        return new LoadResult(name, threads, elapsedNanos, summaries, failures, ok, errors, clientUsage,
+                errorBreakdown, slowRequests, histogramLog, warmUp);
+    }
+
+    private void offerSlow(LoadResult.SlowRequest request) {
+        synchronized (slowest) {
+            slowest.offer(request);
+            if (slowest.size() > SLOWEST_REQUESTS_LIMIT) {
+                slowest.poll();
+                slowestThresholdNanos = slowest.peek().getLatencyNanos();
+            }
+        }
+    }
+
+    private static String errorMessage(String body) {
+        try {
+            String message = JsonPath.from(body).getString(JSON_KEY_MESSAGE);
+            return message == null ? "<без message>" : message;
+        } catch (RuntimeException e) {
+            return "<тело не JSON>";
+        }
+    }
+
+    /**
+     * Снимает статистику по действиям с предыдущего вызова (для скользящих окон длительных прогонов).
+     * Не влияет на накопительную статистику {@link #snapshot}.
+     *
+     * @return гистограммы задержек и число ошибок за интервал по каждому действию
+     */
+    Map<String, Interval> takeInterval() {
+        Map<String, Interval> intervals = new TreeMap<>();
+        actions.forEach((action, stats) -> intervals.put(action, stats.takeInterval()));
+        return intervals;
+    }
+
+    private int timelineSecond(long nowNanos) {
+        long second = TimeUnit.NANOSECONDS.toSeconds(nowNanos - startNanos);
+        return (int) Math.min(second, timelineOk.length() - 1);
+    }
+
+    /**
+     * Статистика одного действия за интервал: гистограмма задержек в микросекундах и число ошибок.
+     */
+    static final class Interval {
+        private final Histogram histogram;
+        private final long errors;
+
+        private Interval(Histogram histogram, long errors) {
+            this.histogram = histogram;
+            this.errors = errors;
+        }
+
+        Histogram getHistogram() {
+            return histogram;
+        }
+
+        long getErrors() {
+            return errors;
+        }
+    }
+
+    /**
+     * Статистика одного действия. Гистограмма пишется через {@link Recorder} без блокировок
+     * и сливается в накопительную гистограмму и гистограмму текущего интервала при снятии снимка.
+     */
+    private static final class ActionStats {
+        private final Recorder recorder = new Recorder(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram accumulated = new Histogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram interval = new Histogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram recycled;
+        private long intervalErrorsBase;
+        private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+        private final LongAdder errors = new LongAdder();
+
+        private synchronized LoadResult.ActionSummary summary(String action) {
+            drain();
+            Map<Integer, Long> statusCounts = new TreeMap<>();
+            statuses.forEach((status, count) -> statusCounts.put(status, count.sum()));
+            return new LoadResult.ActionSummary(action, accumulated.copy(), errors.sum(), statusCounts);
+        }
+
+        private synchronized Interval takeInterval() {
+            drain();
+            Histogram histogram = interval.copy();
+            interval.reset();
+            long totalErrors = errors.sum();
+            long intervalErrors = totalErrors - intervalErrorsBase;
+            intervalErrorsBase = totalErrors;
+            return new Interval(histogram, intervalErrors);
+        }
+
+        private void drain() {
+            recycled = recorder.getIntervalHistogram(recycled);
+            accumulated.add(recycled);
+            interval.add(recycled);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.nordcodes.aqa.load;
+
+import com.nordcodes.aqa.utils.AllureAttachments;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static com.nordcodes.aqa.config.TestConfig.LOAD_HISTOGRAM_ATTACH_LIMIT_BYTES;
+
+/**
+ * Агрегированный отчёт нагрузочного прогона для Allure.
+ * Вместо шага и двух аттачментов на каждый запрос сценарий получает один HTML-отчёт:
+ * таймлайн пропускной способности, графики перцентилей задержки, разбивку ошибок по message
+ * и список самых медленных запросов. Размер отчёта не зависит от числа запросов.
+ */
+public class LoadReport {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadReport.class);
+
+    private static final double MAX_PERCENTILE = 99.999;
+    private static final int MAX_TIMELINE_POINTS = 1200;
+
+    /** Начало HTML-страницы отчёта со стилями таблиц; общее для отчётов пакета. */
+    static final String HTML_HEAD = "<!DOCTYPE html><html><head><meta charset=\"UTF-8\"><style>"
+            + "body{font-family:sans-serif;font-size:13px}table{border-collapse:collapse;margin:8px 0}"
+            + "td,th{border:1px solid #ccc;padding:3px 8px;text-align:right}th{background:#f3f3f3}"
+            + "td.l{text-align:left}.warn{color:#c62828;font-weight:bold}</style></head><body>";
+    private static final double[] PERCENTILE_TICKS = {0, 1, 2, 3, 4, 5};
+    private static final String[] PERCENTILE_LABELS = {"0%", "90%", "99%", "99.9%", "99.99%", "99.999%"};
+
+    /**
+     * Прикладывает к текущему тесту HTML-отчёт и текстовую сводку прогона.
+     *
+     * @param result результат прогона
+     */
+    public static void attach(LoadResult result) {
+        AllureAttachments.attachHtml("Отчёт нагрузки: " + result.getName(), toHtml(result));
+        AllureAttachments.attachText("Сводка нагрузки: " + result.getName(), result.toReport());
+        attachHistogramLog(result);
+    }
+
+    /**
+     * Прикладывает журнал интервальных гистограмм, если он не слишком велик: журналы из Allure-отчётов
+     * двух прогонов сравниваются через {@link HistogramLogComparator}.
+     */
+    private static void attachHistogramLog(LoadResult result) {
+        Path file = result.getHistogramLog();
+        try {
+            if (file != null && Files.exists(file) && Files.size(file) <= LOAD_HISTOGRAM_ATTACH_LIMIT_BYTES) {
+                AllureAttachments.attachFile("Журнал гистограмм: " + file.getFileName(), "text/plain",
+                        Files.readAllBytes(file), ".hlog");
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось приложить журнал гистограмм {}", file, e);
+        }
+    }
+
+    /**
+     * Формирует HTML-отчёт прогона.
+     *
+     * @param result результат прогона
+     * @return HTML-страница
+     */
+    public static String toHtml(LoadResult result) {
+        StringBuilder html = new StringBuilder(HTML_HEAD);
+
+        html.append("<h2>").append(SvgChart.escape(result.getName())).append("</h2>");
+        html.append(format("<p>Длительность: %.1f с, потоков: %d, запросов: %d, ошибок: %d (%.2f%%), без ответа: %d, "
+                        + "средняя пропускная способность: %.1f rps</p>",
+                result.getElapsedSeconds(), result.getThreads(), result.getTotalRequests(), result.getTotalErrors(),
+                100.0 * result.getTotalErrors() / Math.max(1, result.getTotalRequests()),
+                result.getTransportErrors(), result.getThroughput()));
+        for (String warning : result.getClientUsage().getWarnings()) {
+            html.append("<p class=\"warn\">").append(SvgChart.escape(warning)).append("</p>");
+        }
+        WarmUpResult warmUp = result.getWarmUp();
+        if (warmUp != null) {
+            html.append(format("<p%s>Прогрев перед измерением: %.1f с, запросов: %d, %s</p>",
+                    warmUp.isSteady() ? "" : " class=\"warn\"", warmUp.getDurationSeconds(), warmUp.getRequests(),
+                    warmUp.isSteady() ? "стабилизация достигнута" : "стабилизация не достигнута"));
+        }
+
+        html.append(throughputChart(result));
+
+        html.append("<h3>Задержки по действиям</h3><table><tr><th>action</th><th>count</th><th>errors</th>")
+                .append("<th>p50 мс</th><th>p90 мс</th><th>p99 мс</th><th>p99.9 мс</th><th>max мс</th><th>statuses</th></tr>");
+        for (LoadResult.ActionSummary action : result.getActions().values()) {
+            html.append(format("<tr><td class=\"l\">%s</td><td>%d</td><td>%d</td><td>%.2f</td><td>%.2f</td><td>%.2f</td>"
+                            + "<td>%.2f</td><td>%.2f</td><td class=\"l\">%s</td></tr>",
+                    SvgChart.escape(action.getAction()), action.getCount(), action.getErrors(),
+                    action.percentileMillis(50), action.percentileMillis(90), action.percentileMillis(99),
+                    action.percentileMillis(99.9), action.maxMillis(), action.getStatuses()));
+        }
+        html.append("</table>");
+        html.append(percentileChart(result));
+
+        html.append("<h3>Ошибки по полю message</h3>");
+        if (result.getErrorBreakdown().isEmpty()) {
+            html.append("<p>Ошибок нет</p>");
+        } else {
+            html.append("<table><tr><th>количество</th><th>действие, статус: message</th></tr>");
+            result.getErrorBreakdown().forEach((kind, count) -> html.append(
+                    format("<tr><td>%d</td><td class=\"l\">%s</td></tr>", count, SvgChart.escape(kind))));
+            html.append("</table>");
+        }
+
+        html.append("<h3>Самые медленные запросы</h3><table><tr><th>задержка мс</th><th>старт +мс</th>")
+                .append("<th>action</th><th>status</th><th>детали</th></tr>");
+        for (LoadResult.SlowRequest request : result.getSlowestRequests()) {
+            html.append(format("<tr><td>%.2f</td><td>%d</td><td class=\"l\">%s</td><td>%d</td><td class=\"l\">%s</td></tr>",
+                    request.getLatencyMillis(), request.getStartOffsetMillis(), SvgChart.escape(request.getAction()),
+                    request.getStatusCode(), request.getDetail() == null ? "" : SvgChart.escape(request.getDetail())));
+        }
+        html.append("</table>");
+
+        html.append("<h3>Ресурсы клиента</h3><pre>")
+                .append(SvgChart.escape(result.getClientUsage().toReport()))
+                .append("</pre></body></html>");
+        return html.toString();
+    }
+
+    /**
+     * Таймлайн пропускной способности. Для длительных прогонов секунды усредняются по корзинам,
+     * чтобы размер графика не зависел от длительности.
+     */
+    private static String throughputChart(LoadResult result) {
+        int seconds = result.getTimelineSeconds();
+        int bucket = (seconds + MAX_TIMELINE_POINTS - 1) / MAX_TIMELINE_POINTS;
+        int points = (seconds + bucket - 1) / bucket;
+        double[] x = new double[points];
+        double[] ok = new double[points];
+        double[] errors = new double[points];
+        for (int i = 0; i < seconds; i++) {
+            ok[i / bucket] += result.getOkAt(i);
+            errors[i / bucket] += result.getErrorsAt(i);
+        }
+        for (int p = 0; p < points; p++) {
+            int width = Math.min(bucket, seconds - p * bucket);
+            x[p] = p * bucket;
+            ok[p] /= width;
+            errors[p] /= width;
+        }
+        return new SvgChart("Пропускная способность", "секунда прогона", "запросов/с")
+                .series("ok", x, ok)
+                .series("errors", x, errors)
+                .render();
+    }
+
+    /**
+     * График распределения задержек: ось X в логарифмической шкале «числа девяток» перцентиля.
+     */
+    private static String percentileChart(LoadResult result) {
+        SvgChart chart = new SvgChart("Перцентили задержки", "перцентиль", "мс")
+                .xTicks(PERCENTILE_TICKS, PERCENTILE_LABELS);
+        for (LoadResult.ActionSummary action : result.getActions().values()) {
+            Histogram histogram = action.getHistogram();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            List<double[]> points = new ArrayList<>();
+            for (HistogramIterationValue value : histogram.percentiles(5)) {
+                double percentile = Math.min(value.getPercentileLevelIteratedTo(), MAX_PERCENTILE);
+                points.add(new double[]{-Math.log10(1 - percentile / 100), value.getValueIteratedTo() / 1000.0});
+                if (percentile >= MAX_PERCENTILE) {
+                    break;
+                }
+            }
+            double[] x = new double[points.size()];
+            double[] y = new double[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                x[i] = points.get(i)[0];
+                y[i] = points.get(i)[1];
+            }
+            chart.series(action.getAction(), x, y);
+        }
+        return chart.render();
+    }
+
+    static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+}
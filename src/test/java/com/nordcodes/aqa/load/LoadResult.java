@@ -0,0 +1,354 @@
+package com.nordcodes.aqa.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Неизменяемый результат нагрузочного прогона: сводка по действиям и посекундный таймлайн.
+ */
+public class LoadResult {
+
+    /** Максимум строк таймлайна в текстовом отчёте; более длинные прогоны усредняются по корзинам. */
+    private static final int MAX_TIMELINE_LINES = 600;
+
+    private final String name;
+    private final int threads;
+    private final long elapsedNanos;
+    private final Map<String, ActionSummary> actions;
+    private final Map<String, Long> taskFailures;
+    private final long[] timelineOk;
+    private final long[] timelineErrors;
+    private final ClientResourceUsage clientUsage;
+    private final Map<String, Long> errorBreakdown;
+    private final List<SlowRequest> slowestRequests;
+    private final Path histogramLog;
+    private final WarmUpResult warmUp;
+
+    LoadResult(String name, int threads, long elapsedNanos, Map<String, ActionSummary> actions,
+               Map<String, Long> taskFailures, long[] timelineOk, long[] timelineErrors,
+               ClientResourceUsage clientUsage, Map<String, Long> errorBreakdown, List<SlowRequest> slowestRequests,
+               Path histogramLog, WarmUpResult warmUp) {
+        this.name = name;
+        this.threads = threads;
+        this.elapsedNanos = elapsedNanos;
+        this.actions = Collections.unmodifiableMap(actions);
+        this.taskFailures = Collections.unmodifiableMap(taskFailures);
+        this.timelineOk = timelineOk;
+        this.timelineErrors = timelineErrors;
+        this.clientUsage = clientUsage;
+        this.errorBreakdown = Collections.unmodifiableMap(errorBreakdown);
+        this.slowestRequests = Collections.unmodifiableList(slowestRequests);
+        this.histogramLog = histogramLog;
+        this.warmUp = warmUp;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public double getElapsedSeconds() {
+        return elapsedNanos / 1e9;
+    }
+
+    public Map<String, ActionSummary> getActions() {
+        return actions;
+    }
+
+    public Map<String, Long> getTaskFailures() {
+        return taskFailures;
+    }
+
+    /**
+     * Потребление ресурсов нагрузочным клиентом за прогон.
+     */
+    public ClientResourceUsage getClientUsage() {
+        return clientUsage;
+    }
+
+    /**
+     * Разбивка ошибок по действию, статусу и полю message ответа (по убыванию числа ошибок).
+     */
+    public Map<String, Long> getErrorBreakdown() {
+        return errorBreakdown;
+    }
+
+    /**
+     * Самые медленные запросы прогона (по убыванию задержки).
+     */
+    public List<SlowRequest> getSlowestRequests() {
+        return slowestRequests;
+    }
+
+    /**
+     * Журнал посекундных гистограмм задержек по действиям (формат HdrHistogram .hlog).
+     */
+    public Path getHistogramLog() {
+        return histogramLog;
+    }
+
+    /**
+     * Итог прогрева перед измерением или {@code null}, если прогон шёл без прогрева.
+     */
+    public WarmUpResult getWarmUp() {
+        return warmUp;
+    }
+
+    public long getTotalRequests() {
+        return actions.values().stream().mapToLong(ActionSummary::getCount).sum();
+    }
+
+    public long getTotalErrors() {
+        return actions.values().stream().mapToLong(ActionSummary::getErrors).sum();
+    }
+
+    /**
+     * Возвращает число запросов, завершившихся исключением (без HTTP-ответа).
+     */
+    public long getTransportErrors() {
+        return actions.values().stream().mapToLong(a -> a.getStatusCount(LoadRecorder.STATUS_TRANSPORT_ERROR)).sum();
+    }
+
+    /**
+     * Средняя пропускная способность за весь прогон, запросов в секунду.
+     */
+    public double getThroughput() {
+        return getTotalRequests() / Math.max(getElapsedSeconds(), 1e-9);
+    }
+
+    /**
+     * Число посекундных ячеек таймлайна.
+     */
+    public int getTimelineSeconds() {
+        return timelineOk.length;
+    }
+
+    public long getOkAt(int second) {
+        return timelineOk[second];
+    }
+
+    public long getErrorsAt(int second) {
+        return timelineErrors[second];
+    }
+
+    /**
+     * Доля ошибок в интервале секунд [fromSecond, toSecond).
+     */
+    public double errorRatio(int fromSecond, int toSecond) {
+        long ok = 0;
+        long errors = 0;
+        for (int i = Math.max(0, fromSecond); i < Math.min(toSecond, timelineOk.length); i++) {
+            ok += timelineOk[i];
+            errors += timelineErrors[i];
+        }
+        return ok + errors == 0 ? 0.0 : (double) errors / (ok + errors);
+    }
+
+    /**
+     * Пропускная способность в интервале секунд [fromSecond, toSecond), запросов в секунду.
+     */
+    public double throughput(int fromSecond, int toSecond) {
+        int from = Math.max(0, fromSecond);
+        int to = Math.min(toSecond, timelineOk.length);
+        long total = 0;
+        for (int i = from; i < to; i++) {
+            total += timelineOk[i] + timelineErrors[i];
+        }
+        return to > from ? (double) total / (to - from) : 0.0;
+    }
+
+    /**
+     * Ищет первую секунду, начиная с fromSecond, в которой доля ошибок не превышает порог.
+     *
+     * @return номер секунды или -1, если такой секунды нет
+     */
+    public int firstSecondWithErrorRatioBelow(int fromSecond, double maxErrorRatio) {
+        for (int i = Math.max(0, fromSecond); i < timelineOk.length; i++) {
+            long total = timelineOk[i] + timelineErrors[i];
+            if (total > 0 && (double) timelineErrors[i] / total <= maxErrorRatio) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Формирует текстовый отчёт по прогону.
+     *
+     * @return отчёт для лога и Allure
+     */
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Сценарий: %s%n", name));
+        sb.append(String.format("Длительность: %.1f с, потоков: %d%n", getElapsedSeconds(), threads));
+        sb.append(String.format("Запросов: %d, ошибок: %d (%.2f%%), без ответа: %d, пропускная способность: %.1f rps%n",
+                getTotalRequests(), getTotalErrors(), 100.0 * getTotalErrors() / Math.max(1, getTotalRequests()),
+                getTransportErrors(), getThroughput()));
+        sb.append(String.format("Журнал гистограмм: %s%n%n", histogramLog));
+        if (warmUp != null) {
+            sb.append(String.format("%s%n", warmUp.toReport()));
+        }
+
+        sb.append(String.format("%-16s %10s %10s %10s %10s %10s %10s %10s  %s%n",
+                "action", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses"));
+        for (ActionSummary action : actions.values()) {
+            sb.append(String.format("%-16s %10d %10d %10.2f %10.2f %10.2f %10.2f %10.2f  %s%n",
+                    action.getAction(), action.getCount(), action.getErrors(),
+                    action.percentileMillis(50), action.percentileMillis(90), action.percentileMillis(99),
+                    action.percentileMillis(99.9), action.maxMillis(), action.getStatuses()));
+        }
+
+        sb.append(String.format("%n%s", clientUsage.toReport()));
+
+        if (!errorBreakdown.isEmpty()) {
+            sb.append(String.format("%nОшибки по полю message%n"));
+            errorBreakdown.forEach((kind, count) -> sb.append(String.format("%10d  %s%n", count, kind)));
+        }
+
+        if (!taskFailures.isEmpty()) {
+            sb.append(String.format("%nОшибки итераций: %s%n", taskFailures));
+        }
+
+        if (!slowestRequests.isEmpty()) {
+            sb.append(String.format("%nСамые медленные запросы%n"));
+            slowestRequests.forEach(r -> sb.append(String.format("%10.2f мс  %s%n", r.getLatencyMillis(), r)));
+        }
+
+        int seconds = timelineOk.length;
+        int bucket = Math.max(1, (seconds + MAX_TIMELINE_LINES - 1) / MAX_TIMELINE_LINES);
+        if (bucket == 1) {
+            sb.append(String.format("%nТаймлайн (секунда: ok / errors)%n"));
+            for (int i = 0; i < seconds; i++) {
+                sb.append(String.format("%4d: %8d / %d%n", i, timelineOk[i], timelineErrors[i]));
+            }
+            return sb.toString();
+        }
+        // Длительные прогоны: секунды усредняются по корзинам, как на графике LoadReport
+        sb.append(String.format("%nТаймлайн (начало корзины %d с: ok / errors в среднем за секунду)%n", bucket));
+        for (int start = 0; start < seconds; start += bucket) {
+            int end = Math.min(seconds, start + bucket);
+            long ok = 0;
+            long errors = 0;
+            for (int i = start; i < end; i++) {
+                ok += timelineOk[i];
+                errors += timelineErrors[i];
+            }
+            sb.append(String.format("%6d: %8.1f / %.1f%n", start, (double) ok / (end - start), (double) errors / (end - start)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Один из самых медленных запросов прогона.
+     */
+    public static class SlowRequest {
+
+        private final String action;
+        private final String detail;
+        private final long latencyNanos;
+        private final int statusCode;
+        private final long startOffsetMillis;
+
+        SlowRequest(String action, String detail, long latencyNanos, int statusCode, long startOffsetMillis) {
+            this.action = action;
+            this.detail = detail;
+            this.latencyNanos = latencyNanos;
+            this.statusCode = statusCode;
+            this.startOffsetMillis = startOffsetMillis;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public String getDetail() {
+            return detail;
+        }
+
+        public long getLatencyNanos() {
+            return latencyNanos;
+        }
+
+        public double getLatencyMillis() {
+            return latencyNanos / 1e6;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+
+        /**
+         * Момент отправки запроса относительно начала прогона, мс.
+         */
+        public long getStartOffsetMillis() {
+            return startOffsetMillis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s status=%d, старт +%d мс%s", action, statusCode, startOffsetMillis,
+                    detail == null ? "" : ", " + detail);
+        }
+    }
+
+    /**
+     * Сводка по одному действию.
+     */
+    public static class ActionSummary {
+
+        private final String action;
+        private final Histogram histogram;
+        private final long errors;
+        private final Map<Integer, Long> statuses;
+
+        ActionSummary(String action, Histogram histogram, long errors, Map<Integer, Long> statuses) {
+            this.action = action;
+            this.histogram = histogram;
+            this.errors = errors;
+            this.statuses = Collections.unmodifiableMap(statuses);
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        /**
+         * Гистограмма задержек в микросекундах.
+         */
+        public Histogram getHistogram() {
+            return histogram;
+        }
+
+        public long getCount() {
+            return histogram.getTotalCount();
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public Map<Integer, Long> getStatuses() {
+            return statuses;
+        }
+
+        public long getStatusCount(int statusCode) {
+            return statuses.getOrDefault(statusCode, 0L);
+        }
+
+        public double percentileMillis(double percentile) {
+            return histogram.getValueAtPercentile(percentile) / (double) TimeUnit.MILLISECONDS.toMicros(1);
+        }
+
+        public double maxMillis() {
+            return histogram.getMaxValue() / (double) TimeUnit.MILLISECONDS.toMicros(1);
+        }
+    }
+}
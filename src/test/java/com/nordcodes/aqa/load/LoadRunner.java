@@ -0,0 +1,235 @@
+package com.nordcodes.aqa.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.nordcodes.aqa.config.TestConfig.LOAD_HISTOGRAM_DIR;
+import static com.nordcodes.aqa.config.TestConfig.LOAD_INTERVAL_MILLIS;
+
+/**
+ * Запускает нагрузочный сценарий в фиксированном числе потоков на заданное время.
+ * Каждый поток в цикле выполняет {@link LoadTask}, результаты собирает {@link LoadRecorder}.
+ * Посекундные гистограммы задержек по действиям пишутся в журнал {@link IntervalHistogramLog}.
+ * <p>
+ * С {@link #withWarmUp(WarmUp)} перед измерением идёт прогрев: те же потоки выполняют ту же задачу, пока пропускная
+ * способность и p99 не стабилизируются (JIT-компиляция приложения, пулы соединений, кэши). Затем статистика
+ * начинается заново, и длительность {@code duration} отсчитывается от конца прогрева.
+ */
+public class LoadRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadRunner.class);
+
+    private final int threads;
+    private WarmUp warmUp;
+    private Runnable measurementStartAction;
+    private PhaseLatency phaseLatency;
+
+    /**
+     * @param threads число рабочих потоков (одновременно выполняемых итераций)
+     */
+    public LoadRunner(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Число потоков должно быть больше нуля: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Включает прогрев перед измерением.
+     *
+     * @param warmUp параметры прогрева
+     * @return этот же запускатель
+     */
+    public LoadRunner withWarmUp(WarmUp warmUp) {
+        this.warmUp = warmUp;
+        return this;
+    }
+
+    /**
+     * Задаёт действие, выполняемое в момент начала измерения (после прогрева, если он включён), например
+     * сброс статистики мока, чтобы она, как и результат прогона, не включала трафик прогрева.
+     *
+     * @param action действие; выполняется в потоке, запустившем прогон
+     * @return этот же запускатель
+     */
+    public LoadRunner onMeasurementStart(Runnable action) {
+        this.measurementStartAction = action;
+        return this;
+    }
+
+    /**
+     * Включает сбор гистограмм задержек по фазам измерения (например, для прогонов со сбоем внешнего сервиса).
+     *
+     * @param phaseLatency получатель гистограмм по фазам; заполняется во время прогона
+     * @return этот же запускатель
+     */
+    public LoadRunner withPhaseLatency(PhaseLatency phaseLatency) {
+        this.phaseLatency = phaseLatency;
+        return this;
+    }
+
+    /**
+     * Выполняет сценарий заданное время и возвращает результат.
+     *
+     * @param name     название сценария (для отчёта)
+     * @param duration длительность прогона
+     * @param task     итерация сценария
+     * @return результат прогона
+     */
+    public LoadResult run(String name, Duration duration, LoadTask task) {
+        return run(name, duration, task, null);
+    }
+
+    /**
+     * Выполняет сценарий заданное время, дополнительно собирая метрики по скользящим окнам
+     * (для длительных прогонов).
+     *
+     * @param name     название сценария (для отчёта)
+     * @param duration длительность прогона
+     * @param task     итерация сценария
+     * @param windows  метрики по окнам или {@code null}, если не нужны
+     * @return результат прогона
+     */
+    public LoadResult run(String name, Duration duration, LoadTask task, RollingWindowMetrics windows) {
+        log.info("Старт нагрузки '{}': потоков={}, длительность={}, прогрев={}", name, threads, duration,
+                warmUp == null ? "нет" : warmUp);
+        Phase warmUpPhase = warmUp == null ? null : new Phase(warmUp.getMaxDuration());
+        Phase measurement = new Phase(duration);
+        ClientResourceMonitor monitor = new ClientResourceMonitor();
+
+        // Потоки не перезапускаются между фазами: прогретые потоки, соединения и код клиента переходят в измерение
+        PhaseSwitch phases = new PhaseSwitch(warmUpPhase != null ? warmUpPhase : measurement);
+        List<Thread> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread(() -> {
+                boolean measuring = false;
+                while (!Thread.currentThread().isInterrupted()) {
+                    Phase phase = phases.current;
+                    if (System.nanoTime() >= phase.deadlineNanos) {
+                        if (phase == measurement) {
+                            break;
+                        }
+                        Thread.onSpinWait();
+                        continue;
+                    }
+                    if (!measuring && phase == measurement) {
+                        monitor.workerStarted();
+                        measuring = true;
+                    }
+                    try {
+                        task.execute(phase.recorder);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (Exception e) {
+                        phase.recorder.recordTaskFailure(e);
+                    }
+                }
+                monitor.workerFinished();
+            }, "load-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+
+        WarmUpResult warmUpResult = null;
+        if (warmUpPhase != null) {
+            warmUpPhase.begin();
+            SteadyStateDetector detector = new SteadyStateDetector(warmUp);
+            IntervalSampler warmUpSampler = new IntervalSampler(warmUpPhase.recorder, LOAD_INTERVAL_MILLIS, List.of(detector));
+            warmUpSampler.start();
+            workers.forEach(Thread::start);
+            boolean steady = false;
+            try {
+                steady = detector.awaitSteady();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            warmUpSampler.stop();
+            warmUpResult = new WarmUpResult(warmUp, steady,
+                    (System.nanoTime() - warmUpPhase.startNanos) / 1e9, warmUpPhase.recorder.requestCount(),
+                    warmUpPhase.recorder.errorCount(), detector.getWindows());
+            if (steady) {
+                log.info("Нагрузка '{}': прогрев завершён за {} с", name, String.format("%.1f", warmUpResult.getDurationSeconds()));
+            } else {
+                log.warn("Нагрузка '{}': стабилизация не достигнута за {}, измерение начинается после предельного прогрева",
+                        name, warmUp.getMaxDuration());
+            }
+        }
+
+        // Регистратор измерения создаётся в конце прогрева: отсчёт времени и статистика начинаются заново
+        if (measurementStartAction != null) {
+            measurementStartAction.run();
+        }
+        measurement.begin();
+        LoadRecorder recorder = measurement.recorder;
+        monitor.start();
+        IntervalHistogramLog histogramLog = IntervalHistogramLog.inDirectory(Path.of(LOAD_HISTOGRAM_DIR), name);
+        List<IntervalListener> listeners = new ArrayList<>(List.of(histogramLog));
+        if (windows != null) {
+            listeners.add(windows);
+        }
+        if (phaseLatency != null) {
+            listeners.add(phaseLatency);
+        }
+        IntervalSampler sampler = new IntervalSampler(recorder, LOAD_INTERVAL_MILLIS, listeners);
+        sampler.start();
+        phases.current = measurement;
+        if (warmUpPhase == null) {
+            workers.forEach(Thread::start);
+        }
+
+        try {
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            workers.forEach(Thread::interrupt);
+            Thread.currentThread().interrupt();
+        }
+
+        // Ресурсы снимаются до остановки сборщика интервалов: его поток учитывается как поток клиента
+        ClientResourceUsage clientUsage = monitor.finish(threads, recorder.requestCount());
+        sampler.stop();
+        LoadResult result = recorder.snapshot(name, threads, clientUsage, histogramLog.getFile(), warmUpResult);
+        log.info("Нагрузка '{}' завершена: запросов={}, ошибок={}, rps={}",
+                name, result.getTotalRequests(), result.getTotalErrors(), String.format("%.1f", result.getThroughput()));
+        clientUsage.getWarnings().forEach(warning -> log.warn("Нагрузка '{}': {}", name, warning));
+        return result;
+    }
+
+    /**
+     * Фаза прогона: свой регистратор результатов и срок окончания, отсчитываемые от {@link #begin()}.
+     */
+    private static final class Phase {
+        private final Duration duration;
+        private volatile LoadRecorder recorder;
+        private volatile long startNanos;
+        private volatile long deadlineNanos = Long.MAX_VALUE;
+
+        private Phase(Duration duration) {
+            this.duration = duration;
+        }
+
+        private void begin() {
+            recorder = new LoadRecorder((int) duration.toSeconds() + 1);
+            startNanos = System.nanoTime();
+            deadlineNanos = startNanos + duration.toNanos();
+        }
+    }
+
+    /**
+     * Текущая фаза, общая для рабочих потоков.
+     */
+    private static final class PhaseSwitch {
+        private volatile Phase current;
+
+        private PhaseSwitch(Phase initial) {
+            this.current = initial;
+        }
+    }
+}
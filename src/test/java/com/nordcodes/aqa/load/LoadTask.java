@@ -0,0 +1,18 @@
+package com.nordcodes.aqa.load;
+
+/**
+ * Одна итерация нагрузочного сценария.
+ * Вызывается рабочими потоками {@link LoadRunner} в цикле до окончания прогона.
+ * Каждый запрос итерации должен фиксироваться через переданный {@link LoadRecorder}.
+ */
+@FunctionalInterface
+public interface LoadTask {
+
+    /**
+     * Выполняет одну итерацию сценария.
+     *
+     * @param recorder регистратор результатов запросов
+     * @throws Exception любая ошибка итерации (учитывается как ошибка задачи, прогон продолжается)
+     */
+    void execute(LoadRecorder recorder) throws Exception;
+}
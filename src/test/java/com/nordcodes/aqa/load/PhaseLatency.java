@@ -0,0 +1,86 @@
+package com.nordcodes.aqa.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Гистограммы задержек по фазам прогона (например, «до сбоя», «сбой», «восстановление»).
+ * Складывает интервальные гистограммы {@link IntervalSampler} в гистограмму той фазы, на которую приходится
+ * середина интервала, поэтому перцентили одной фазы не смешиваются с задержками соседних.
+ * Границы фаз задаются в секундах от начала измерения (после прогрева, если он включён).
+ */
+public class PhaseLatency implements IntervalListener {
+
+    private final int[] boundarySeconds;
+    private final List<Map<String, Histogram>> phases = new ArrayList<>();
+    private long runStartEpochMillis;
+
+    /**
+     * @param boundarySeconds возрастающие границы фаз в секундах; N границ задают N + 1 фазу
+     */
+    public PhaseLatency(int... boundarySeconds) {
+        for (int i = 0; i < boundarySeconds.length; i++) {
+            if (boundarySeconds[i] <= 0 || (i > 0 && boundarySeconds[i] <= boundarySeconds[i - 1])) {
+                throw new IllegalArgumentException("Границы фаз должны быть положительными и возрастать: "
+                        + Arrays.toString(boundarySeconds));
+            }
+        }
+        this.boundarySeconds = boundarySeconds.clone();
+        for (int i = 0; i <= boundarySeconds.length; i++) {
+            phases.add(new HashMap<>());
+        }
+    }
+
+    @Override
+    public synchronized void onStart(long runStartEpochMillis) {
+        this.runStartEpochMillis = runStartEpochMillis;
+    }
+
+    @Override
+    public synchronized void onInterval(long startEpochMillis, long endEpochMillis, Map<String, LoadRecorder.Interval> intervals) {
+        Map<String, Histogram> phase = phases.get(phaseAt((startEpochMillis + endEpochMillis) / 2 - runStartEpochMillis));
+        intervals.forEach((action, interval) -> phase
+                .computeIfAbsent(action, k -> new Histogram(LoadRecorder.MAX_LATENCY_MICROS, LoadRecorder.SIGNIFICANT_DIGITS))
+                .add(interval.getHistogram()));
+    }
+
+    @Override
+    public void onFinish() {
+    }
+
+    /**
+     * Перцентиль задержки действия в фазе, мс; 0, если запросов действия в фазе не было.
+     *
+     * @param phase      номер фазы, начиная с 0
+     * @param action     название действия
+     * @param percentile перцентиль (например, 99)
+     */
+    public synchronized double percentileMillis(int phase, String action, double percentile) {
+        Histogram histogram = phases.get(phase).get(action);
+        return histogram == null ? 0.0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    /**
+     * Число запросов действия в фазе.
+     *
+     * @param phase  номер фазы, начиная с 0
+     * @param action название действия
+     */
+    public synchronized long getCount(int phase, String action) {
+        Histogram histogram = phases.get(phase).get(action);
+        return histogram == null ? 0 : histogram.getTotalCount();
+    }
+
+    private int phaseAt(long offsetMillis) {
+        int phase = 0;
+        while (phase < boundarySeconds.length && offsetMillis >= boundarySeconds[phase] * 1000L) {
+            phase++;
+        }
+        return phase;
+    }
+}
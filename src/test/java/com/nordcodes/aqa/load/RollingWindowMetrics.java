@@ -0,0 +1,252 @@
+package com.nordcodes.aqa.load;
+
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.nordcodes.aqa.config.TestConfig.LOAD_INTERVAL_MILLIS;
+
+/**
+ * Метрики длительного прогона по скользящим окнам фиксированной длины.
+ * Копит интервальные гистограммы {@link IntervalSampler} и раз в окно сворачивает их в компактную
+ * сводку {@link Window} (пропускная способность, доля ошибок, перцентили, память клиента), сами гистограммы
+ * не хранятся. Сводки лежат в кольцевом буфере ограниченной ёмкости; первые окна дополнительно сохраняются
+ * как базовая линия для поиска дрейфа и не вытесняются. Память не растёт с длительностью прогона.
+ */
+public class RollingWindowMetrics implements IntervalListener {
+
+    private static final Logger log = LoggerFactory.getLogger(RollingWindowMetrics.class);
+
+    /** Последнее неполное окно учитывается, если оно не короче этой доли окна. */
+    private static final double MIN_PARTIAL_WINDOW = 0.5;
+
+    private final Duration window;
+    private final int capacity;
+    private final int baselineWindows;
+    private final ArrayDeque<Window> windows;
+    private final List<Window> baseline = new ArrayList<>();
+    private long evictedWindows;
+    private final Map<String, Histogram> pending = new TreeMap<>();
+    private long pendingErrors;
+    private long runStartEpochMillis;
+    private long windowStartEpochMillis;
+    private long lastIntervalEndEpochMillis;
+    private int nextIndex;
+
+    /**
+     * @param window          длительность окна
+     * @param capacity        максимальное число хранимых окон (старые вытесняются)
+     * @param baselineWindows число первых окон, сохраняемых как базовая линия
+     */
+    public RollingWindowMetrics(Duration window, int capacity, int baselineWindows) {
+        if (window.isNegative() || window.isZero() || capacity < 1 || baselineWindows < 0) {
+            throw new IllegalArgumentException("Некорректные параметры окон: " + window + ", " + capacity + ", " + baselineWindows);
+        }
+        this.window = window;
+        this.capacity = capacity;
+        this.baselineWindows = baselineWindows;
+        this.windows = new ArrayDeque<>(Math.min(capacity, 1024));
+    }
+
+    @Override
+    public synchronized void onStart(long runStartEpochMillis) {
+        this.runStartEpochMillis = runStartEpochMillis;
+        this.windowStartEpochMillis = runStartEpochMillis;
+    }
+
+    @Override
+    public synchronized void onInterval(long startEpochMillis, long endEpochMillis, Map<String, LoadRecorder.Interval> intervals) {
+        intervals.forEach((action, interval) -> {
+            pending.computeIfAbsent(action, k -> new Histogram(LoadRecorder.MAX_LATENCY_MICROS, LoadRecorder.SIGNIFICANT_DIGITS))
+                    .add(interval.getHistogram());
+            pendingErrors += interval.getErrors();
+        });
+        lastIntervalEndEpochMillis = endEpochMillis;
+        // Границы интервалов плавают на миллисекунды, поэтому окно закрывается с допуском в полинтервала
+        if (endEpochMillis - windowStartEpochMillis >= window.toMillis() - LOAD_INTERVAL_MILLIS / 2) {
+            closeWindow(endEpochMillis);
+        }
+    }
+
+    /**
+     * Закрывает последнее окно, если оно не короче половины окна.
+     */
+    @Override
+    public synchronized void onFinish() {
+        long pendingMillis = lastIntervalEndEpochMillis - windowStartEpochMillis;
+        if (pendingMillis >= window.toMillis() * MIN_PARTIAL_WINDOW) {
+            closeWindow(lastIntervalEndEpochMillis);
+        }
+    }
+
+    /**
+     * Окна в порядке времени (не больше ёмкости буфера).
+     */
+    public synchronized List<Window> getWindows() {
+        return Collections.unmodifiableList(new ArrayList<>(windows));
+    }
+
+    /**
+     * Первые окна прогона, сохранённые как базовая линия.
+     */
+    public synchronized List<Window> getBaseline() {
+        return Collections.unmodifiableList(new ArrayList<>(baseline));
+    }
+
+    /**
+     * Число окон, вытесненных из буфера.
+     */
+    public synchronized long getEvictedWindows() {
+        return evictedWindows;
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    private void closeWindow(long endEpochMillis) {
+        Histogram total = new Histogram(LoadRecorder.MAX_LATENCY_MICROS, LoadRecorder.SIGNIFICANT_DIGITS);
+        Map<String, Double> p99ByAction = new TreeMap<>();
+        for (Map.Entry<String, Histogram> entry : pending.entrySet()) {
+            Histogram histogram = entry.getValue();
+            total.add(histogram);
+            if (histogram.getTotalCount() > 0) {
+                p99ByAction.put(entry.getKey(), histogram.getValueAtPercentile(99) / 1000.0);
+            }
+            histogram.reset();
+        }
+        Window closed = new Window(nextIndex++,
+                (windowStartEpochMillis - runStartEpochMillis) / 1000.0, (endEpochMillis - windowStartEpochMillis) / 1000.0,
+                total, pendingErrors, p99ByAction, clientHeapAfterGc());
+        windowStartEpochMillis = endEpochMillis;
+        pendingErrors = 0;
+
+        if (baseline.size() < baselineWindows) {
+            baseline.add(closed);
+        }
+        if (windows.size() == capacity) {
+            windows.pollFirst();
+            evictedWindows++;
+        }
+        windows.addLast(closed);
+        log.info("Окно #{}: {}", closed.getIndex(), closed);
+    }
+
+    /**
+     * Занятая куча клиента по результатам последних сборок мусора; {@code -1}, если сборок ещё не было.
+     */
+    private static long clientHeapAfterGc() {
+        long used = 0;
+        boolean collected = false;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null) {
+                used += usage.getUsed();
+                collected |= usage.getUsed() > 0;
+            }
+        }
+        return collected ? used : -1;
+    }
+
+    /**
+     * Сводка одного окна прогона.
+     */
+    public static final class Window {
+        private final int index;
+        private final double startSeconds;
+        private final double durationSeconds;
+        private final long requests;
+        private final long errors;
+        private final double p50Millis;
+        private final double p99Millis;
+        private final double maxMillis;
+        private final Map<String, Double> p99ByAction;
+        private final long clientHeapAfterGcBytes;
+
+        private Window(int index, double startSeconds, double durationSeconds, Histogram histogram, long errors,
+                       Map<String, Double> p99ByAction, long clientHeapAfterGcBytes) {
+            this.index = index;
+            this.startSeconds = startSeconds;
+            this.durationSeconds = durationSeconds;
+            this.requests = histogram.getTotalCount();
+            this.errors = errors;
+            this.p50Millis = histogram.getValueAtPercentile(50) / 1000.0;
+            this.p99Millis = histogram.getValueAtPercentile(99) / 1000.0;
+            this.maxMillis = histogram.getMaxValue() / 1000.0;
+            this.p99ByAction = Collections.unmodifiableMap(p99ByAction);
+            this.clientHeapAfterGcBytes = clientHeapAfterGcBytes;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public double getStartSeconds() {
+            return startSeconds;
+        }
+
+        public double getDurationSeconds() {
+            return durationSeconds;
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public long getErrors() {
+            return errors;
+        }
+
+        public double getThroughput() {
+            return durationSeconds > 0 ? requests / durationSeconds : 0;
+        }
+
+        public double getErrorRatio() {
+            return requests > 0 ? (double) errors / requests : 0;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+
+        public Map<String, Double> getP99ByAction() {
+            return p99ByAction;
+        }
+
+        /**
+         * Занятая куча нагрузочного клиента после последних сборок мусора; {@code -1}, если сборок не было.
+         */
+        public long getClientHeapAfterGcBytes() {
+            return clientHeapAfterGcBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "+%.0f с, rps=%.1f, ошибок=%d (%.2f%%), p50=%.2f мс, p99=%.2f мс, max=%.2f мс, куча клиента=%s",
+                    startSeconds, getThroughput(), errors, 100 * getErrorRatio(), p50Millis, p99Millis, maxMillis,
+                    clientHeapAfterGcBytes < 0 ? "н/д" : clientHeapAfterGcBytes / 1024 + " КБ");
+        }
+    }
+}
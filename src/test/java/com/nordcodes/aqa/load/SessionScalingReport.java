@@ -0,0 +1,252 @@
+package com.nordcodes.aqa.load;
+
+import com.nordcodes.aqa.utils.AllureAttachments;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.nordcodes.aqa.config.TestConfig.ACTION_ACTION;
+import static com.nordcodes.aqa.config.TestConfig.ACTION_LOGOUT;
+import static com.nordcodes.aqa.load.LoadReport.format;
+
+/**
+ * Кривые масштабирования хранилища сессий: задержка ACTION и LOGOUT и память приложения в зависимости
+ * от числа активных сессий. Уровни добавляются по возрастанию; прирост кучи на сессию считается между
+ * соседними уровнями, поэтому рост этой величины показывает, где хранилище перестаёт расти линейно.
+ * Ось числа сессий на графиках логарифмическая.
+ */
+public class SessionScalingReport {
+
+    private static final double BYTES_IN_MB = 1024.0 * 1024;
+
+    private final String name;
+    private final AppResourceProbe.Sample baseline;
+    private final List<Level> levels = new ArrayList<>();
+
+    /**
+     * @param name     название прогона
+     * @param baseline память приложения до первого LOGIN
+     */
+    public SessionScalingReport(String name, AppResourceProbe.Sample baseline) {
+        this.name = name;
+        this.baseline = baseline;
+    }
+
+    /**
+     * Добавляет уровень.
+     *
+     * @param sessions         число активных сессий
+     * @param loginThroughput  пропускная способность LOGIN при наполнении до этого уровня, запросов в секунду
+     * @param measurement      замер ACTION и LOGOUT на этом уровне
+     * @param memory           память приложения после GC на этом уровне
+     */
+    public void addLevel(long sessions, double loginThroughput, LoadResult measurement, AppResourceProbe.Sample memory) {
+        long previousSessions = levels.isEmpty() ? 0 : levels.get(levels.size() - 1).sessions;
+        long previousHeap = levels.isEmpty() ? baseline.getHeapUsedBytes() : levels.get(levels.size() - 1).memory.getHeapUsedBytes();
+        double bytesPerSession = sessions > previousSessions
+                ? (double) (memory.getHeapUsedBytes() - previousHeap) / (sessions - previousSessions)
+                : Double.NaN;
+        levels.add(new Level(sessions, loginThroughput, measurement, memory, bytesPerSession));
+    }
+
+    public List<Level> getLevels() {
+        return Collections.unmodifiableList(levels);
+    }
+
+    /**
+     * Первый уровень, на котором p99 ACTION вырос больше чем в {@code maxGrowth} раз относительно первого уровня.
+     *
+     * @param maxGrowth допустимый рост p99
+     * @return число сессий или -1, если хранилище масштабируется на всех уровнях
+     */
+    public long latencyLimit(double maxGrowth) {
+        if (levels.isEmpty()) {
+            return -1;
+        }
+        double base = levels.get(0).actionP99Millis();
+        for (Level level : levels) {
+            if (level.actionP99Millis() > base * maxGrowth) {
+                return level.sessions;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Прикладывает к текущему тесту HTML-отчёт с кривыми, CSV с уровнями и текстовую сводку.
+     */
+    public void attach() {
+        AllureAttachments.attachHtml("Масштабирование сессий: " + name, toHtml());
+        AllureAttachments.attachFile("Масштабирование сессий (CSV): " + name, "text/csv",
+                toCsv().getBytes(StandardCharsets.UTF_8), ".csv");
+        AllureAttachments.attachText("Сводка масштабирования сессий: " + name, toReport());
+    }
+
+    /**
+     * Уровни в CSV: одна строка на уровень, задержки в миллисекундах, память в байтах.
+     */
+    public String toCsv() {
+        StringBuilder csv = new StringBuilder("sessions,login_rps,action_p50_ms,action_p99_ms,action_max_ms,"
+                + "logout_p50_ms,logout_p99_ms,errors,heap_used_bytes,heap_committed_bytes,rss_bytes,heap_bytes_per_session\n");
+        for (Level level : levels) {
+            csv.append(format("%d,%.1f,%.3f,%.3f,%.3f,%.3f,%.3f,%d,%d,%d,%d,%.1f%n", level.sessions, level.loginThroughput,
+                    level.actionP50Millis(), level.actionP99Millis(), level.actionMaxMillis(),
+                    level.logoutP50Millis(), level.logoutP99Millis(), level.measurement.getTotalErrors(),
+                    level.memory.getHeapUsedBytes(), level.memory.getHeapCommittedBytes(), level.memory.getRssBytes(),
+                    level.bytesPerSession));
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Текстовая таблица уровней.
+     */
+    public String toReport() {
+        StringBuilder sb = new StringBuilder(format("Память до LOGIN: %s%n", baseline));
+        sb.append(format("%10s %10s %10s %10s %10s %10s %10s %10s %12s%n", "сессий", "LOGIN rps", "ACTION p50",
+                "ACTION p99", "LOGOUT p50", "LOGOUT p99", "куча МБ", "RSS МБ", "байт/сессию"));
+        for (Level level : levels) {
+            sb.append(format("%10d %10.1f %10.2f %10.2f %10.2f %10.2f %10.1f %10s %12.1f%n", level.sessions,
+                    level.loginThroughput, level.actionP50Millis(), level.actionP99Millis(), level.logoutP50Millis(),
+                    level.logoutP99Millis(), level.memory.getHeapUsedBytes() / BYTES_IN_MB,
+                    level.memory.getRssBytes() < 0 ? "н/д" : format("%.1f", level.memory.getRssBytes() / BYTES_IN_MB),
+                    level.bytesPerSession));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * HTML-отчёт: кривые задержки и памяти от числа сессий и таблица уровней.
+     */
+    public String toHtml() {
+        int n = levels.size();
+        double[] x = new double[n];
+        double[] actionP50 = new double[n];
+        double[] actionP99 = new double[n];
+        double[] logoutP50 = new double[n];
+        double[] logoutP99 = new double[n];
+        double[] heap = new double[n];
+        double[] rss = new double[n];
+        double[] perSession = new double[n];
+        String[] labels = new String[n];
+        for (int i = 0; i < n; i++) {
+            Level level = levels.get(i);
+            x[i] = Math.log10(Math.max(1, level.sessions));
+            labels[i] = Long.toString(level.sessions);
+            actionP50[i] = level.actionP50Millis();
+            actionP99[i] = level.actionP99Millis();
+            logoutP50[i] = level.logoutP50Millis();
+            logoutP99[i] = level.logoutP99Millis();
+            heap[i] = level.memory.getHeapUsedBytes() / BYTES_IN_MB;
+            rss[i] = Math.max(0, level.memory.getRssBytes()) / BYTES_IN_MB;
+            perSession[i] = Double.isNaN(level.bytesPerSession) ? 0 : level.bytesPerSession;
+        }
+
+        StringBuilder html = new StringBuilder(LoadReport.HTML_HEAD);
+        html.append("<h2>").append(SvgChart.escape(name)).append("</h2>");
+        html.append(format("<p>%s</p>", SvgChart.escape("Память до LOGIN: " + baseline)));
+        html.append(new SvgChart("Задержка от числа сессий", "активных сессий (лог. шкала)", "мс")
+                .series("ACTION p50", x, actionP50)
+                .series("ACTION p99", x, actionP99)
+                .series("LOGOUT p50", x, logoutP50)
+                .series("LOGOUT p99", x, logoutP99)
+                .xTicks(x, labels)
+                .render());
+        html.append(new SvgChart("Память приложения от числа сессий", "активных сессий (лог. шкала)", "МБ")
+                .series("куча после GC", x, heap)
+                .series("RSS", x, rss)
+                .xTicks(x, labels)
+                .render());
+        html.append(new SvgChart("Прирост кучи на сессию между уровнями", "активных сессий (лог. шкала)", "байт")
+                .series("байт/сессию", x, perSession)
+                .xTicks(x, labels)
+                .render());
+
+        html.append("<h3>Уровни</h3><table><tr><th>сессий</th><th>LOGIN rps</th><th>ACTION p50 мс</th>")
+                .append("<th>ACTION p99 мс</th><th>LOGOUT p50 мс</th><th>LOGOUT p99 мс</th><th>ошибок</th>")
+                .append("<th>куча, МБ</th><th>RSS, МБ</th><th>байт/сессию</th></tr>");
+        for (Level level : levels) {
+            html.append(format("<tr><td>%d</td><td>%.1f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td>"
+                            + "<td>%d</td><td>%.1f</td><td>%.1f</td><td>%.1f</td></tr>",
+                    level.sessions, level.loginThroughput, level.actionP50Millis(), level.actionP99Millis(),
+                    level.logoutP50Millis(), level.logoutP99Millis(), level.measurement.getTotalErrors(),
+                    level.memory.getHeapUsedBytes() / BYTES_IN_MB, Math.max(0, level.memory.getRssBytes()) / BYTES_IN_MB,
+                    level.bytesPerSession));
+        }
+        html.append("</table></body></html>");
+        return html.toString();
+    }
+
+    /**
+     * Замер на одном уровне числа сессий.
+     */
+    public static final class Level {
+        private final long sessions;
+        private final double loginThroughput;
+        private final LoadResult measurement;
+        private final AppResourceProbe.Sample memory;
+        private final double bytesPerSession;
+
+        Level(long sessions, double loginThroughput, LoadResult measurement, AppResourceProbe.Sample memory,
+              double bytesPerSession) {
+            this.sessions = sessions;
+            this.loginThroughput = loginThroughput;
+            this.measurement = measurement;
+            this.memory = memory;
+            this.bytesPerSession = bytesPerSession;
+        }
+
+        public long getSessions() {
+            return sessions;
+        }
+
+        public double getLoginThroughput() {
+            return loginThroughput;
+        }
+
+        public LoadResult getMeasurement() {
+            return measurement;
+        }
+
+        public AppResourceProbe.Sample getMemory() {
+            return memory;
+        }
+
+        /**
+         * Прирост кучи на одну сессию относительно предыдущего уровня, байт.
+         */
+        public double getBytesPerSession() {
+            return bytesPerSession;
+        }
+
+        public double actionP50Millis() {
+            return percentile(action(), 50);
+        }
+
+        public double actionP99Millis() {
+            return percentile(action(), 99);
+        }
+
+        public double actionMaxMillis() {
+            return action() == null ? 0 : action().maxMillis();
+        }
+
+        public double logoutP50Millis() {
+            return percentile(measurement.getActions().get(ACTION_LOGOUT), 50);
+        }
+
+        public double logoutP99Millis() {
+            return percentile(measurement.getActions().get(ACTION_LOGOUT), 99);
+        }
+
+        private LoadResult.ActionSummary action() {
+            return measurement.getActions().get(ACTION_ACTION);
+        }
+
+        private static double percentile(LoadResult.ActionSummary summary, double percentile) {
+            return summary == null ? 0 : summary.percentileMillis(percentile);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.nordcodes.aqa.load;
+
+import com.nordcodes.aqa.utils.AllureAttachments;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.nordcodes.aqa.load.LoadReport.format;
+
+/**
+ * Отчёт длительного (soak) прогона для Allure: графики метрик по окнам, результаты проверок дрейфа
+ * и таблица окон. Дополняет общий {@link LoadReport}; размер отчёта ограничен ёмкостью буфера окон.
+ */
+public class SoakReport {
+
+    /**
+     * Прикладывает к текущему тесту HTML-отчёт по окнам и текстовую сводку проверок дрейфа.
+     *
+     * @param name    название прогона
+     * @param metrics метрики по окнам
+     * @param checks  результаты проверок дрейфа
+     */
+    public static void attach(String name, RollingWindowMetrics metrics, List<DriftDetector.DriftCheck> checks) {
+        AllureAttachments.attachHtml("Окна длительного прогона: " + name, toHtml(name, metrics, checks));
+        StringBuilder summary = new StringBuilder();
+        checks.forEach(check -> summary.append(check).append(System.lineSeparator()));
+        AllureAttachments.attachText("Дрейф метрик: " + name, summary.toString());
+    }
+
+    /**
+     * Формирует HTML-отчёт по окнам.
+     */
+    public static String toHtml(String name, RollingWindowMetrics metrics, List<DriftDetector.DriftCheck> checks) {
+        List<RollingWindowMetrics.Window> windows = metrics.getWindows();
+        StringBuilder html = new StringBuilder(LoadReport.HTML_HEAD);
+        html.append("<h2>").append(SvgChart.escape(name)).append("</h2>");
+        html.append(format("<p>Окно: %d с, окон в отчёте: %d, вытеснено из буфера: %d</p>",
+                metrics.getWindow().toSeconds(), windows.size(), metrics.getEvictedWindows()));
+
+        html.append("<h3>Дрейф метрик</h3>");
+        for (DriftDetector.DriftCheck check : checks) {
+            html.append(check.isDrifting() ? "<p class=\"warn\">" : "<p>").append(SvgChart.escape(check.toString())).append("</p>");
+        }
+
+        int n = windows.size();
+        double[] x = new double[n];
+        double[] throughput = new double[n];
+        double[] p50 = new double[n];
+        double[] p99 = new double[n];
+        double[] heap = new double[n];
+        Map<String, double[]> p99ByAction = new TreeMap<>();
+        for (int i = 0; i < n; i++) {
+            RollingWindowMetrics.Window window = windows.get(i);
+            x[i] = window.getStartSeconds() / 60;
+            throughput[i] = window.getThroughput();
+            p50[i] = window.getP50Millis();
+            p99[i] = window.getP99Millis();
+            heap[i] = Math.max(0, window.getClientHeapAfterGcBytes()) / (1024.0 * 1024);
+            int index = i;
+            window.getP99ByAction().forEach((action, value) ->
+                    p99ByAction.computeIfAbsent(action, k -> new double[n])[index] = value);
+        }
+        html.append(new SvgChart("Пропускная способность по окнам", "минута прогона", "запросов/с")
+                .series("rps", x, throughput).render());
+        SvgChart latency = new SvgChart("Задержка по окнам", "минута прогона", "мс")
+                .series("p50", x, p50)
+                .series("p99", x, p99);
+        p99ByAction.forEach((action, values) -> latency.series("p99 " + action, x, values));
+        html.append(latency.render());
+        html.append(new SvgChart("Куча нагрузочного клиента после GC", "минута прогона", "МБ")
+                .series("heap", x, heap).render());
+
+        html.append("<h3>Окна</h3><table><tr><th>#</th><th>старт, с</th><th>запросов</th><th>rps</th>")
+                .append("<th>ошибок</th><th>p50 мс</th><th>p99 мс</th><th>max мс</th><th>куча клиента, КБ</th></tr>");
+        for (RollingWindowMetrics.Window window : windows) {
+            html.append(format("<tr><td>%d</td><td>%.0f</td><td>%d</td><td>%.1f</td><td>%d</td><td>%.2f</td>"
+                            + "<td>%.2f</td><td>%.2f</td><td>%d</td></tr>",
+                    window.getIndex(), window.getStartSeconds(), window.getRequests(), window.getThroughput(),
+                    window.getErrors(), window.getP50Millis(), window.getP99Millis(), window.getMaxMillis(),
+                    window.getClientHeapAfterGcBytes() / 1024));
+        }
+        html.append("</table></body></html>");
+        return html.toString();
+    }
+}
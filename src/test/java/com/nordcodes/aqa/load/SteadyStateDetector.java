@@ -0,0 +1,105 @@
+package com.nordcodes.aqa.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.nordcodes.aqa.config.TestConfig.LOAD_INTERVAL_MILLIS;
+
+/**
+ * Определяет окончание прогрева по интервалам {@link IntervalSampler}: собирает окна по {@link WarmUp#getWindow()},
+ * после каждого окна считает коэффициенты вариации пропускной способности и p99 (по всем действиям вместе)
+ * в последних {@link WarmUp#getStableWindows()} окнах и сообщает о стабилизации, когда оба не выше допусков.
+ */
+final class SteadyStateDetector implements IntervalListener {
+
+    private final WarmUp warmUp;
+    private final CountDownLatch steady = new CountDownLatch(1);
+    private final Histogram pending = new Histogram(LoadRecorder.MAX_LATENCY_MICROS, LoadRecorder.SIGNIFICANT_DIGITS);
+    private final Deque<double[]> recent = new ArrayDeque<>();
+    private final List<WarmUpResult.Window> windows = new ArrayList<>();
+    private long windowStartEpochMillis;
+
+    SteadyStateDetector(WarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    public synchronized void onStart(long runStartEpochMillis) {
+        windowStartEpochMillis = runStartEpochMillis;
+    }
+
+    @Override
+    public synchronized void onInterval(long startEpochMillis, long endEpochMillis, Map<String, LoadRecorder.Interval> intervals) {
+        intervals.values().forEach(interval -> pending.add(interval.getHistogram()));
+        // Границы интервалов плавают на миллисекунды, поэтому окно закрывается с допуском в полинтервала
+        if (endEpochMillis - windowStartEpochMillis >= warmUp.getWindow().toMillis() - LOAD_INTERVAL_MILLIS / 2) {
+            closeWindow(endEpochMillis);
+        }
+    }
+
+    @Override
+    public void onFinish() {
+    }
+
+    /**
+     * Ждёт стабилизации не дольше {@link WarmUp#getMaxDuration()}.
+     *
+     * @return true, если стабилизация достигнута
+     */
+    boolean awaitSteady() throws InterruptedException {
+        return steady.await(warmUp.getMaxDuration().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    synchronized List<WarmUpResult.Window> getWindows() {
+        return new ArrayList<>(windows);
+    }
+
+    private void closeWindow(long endEpochMillis) {
+        double seconds = (endEpochMillis - windowStartEpochMillis) / 1000.0;
+        double throughput = pending.getTotalCount() / seconds;
+        double p99Millis = pending.getTotalCount() == 0 ? 0 : pending.getValueAtPercentile(99) / 1000.0;
+        pending.reset();
+        windowStartEpochMillis = endEpochMillis;
+
+        recent.addLast(new double[]{throughput, p99Millis});
+        if (recent.size() > warmUp.getStableWindows()) {
+            recent.removeFirst();
+        }
+        double throughputCv = Double.NaN;
+        double p99Cv = Double.NaN;
+        if (recent.size() == warmUp.getStableWindows()) {
+            throughputCv = coefficientOfVariation(0);
+            p99Cv = coefficientOfVariation(1);
+        }
+        windows.add(new WarmUpResult.Window(windows.size(), throughput, p99Millis, throughputCv, p99Cv));
+        if (throughputCv <= warmUp.getThroughputTolerance() && p99Cv <= warmUp.getP99Tolerance()) {
+            steady.countDown();
+        }
+    }
+
+    /**
+     * Коэффициент вариации величины в последних окнах; окно без запросов делает его бесконечным.
+     */
+    private double coefficientOfVariation(int metric) {
+        double sum = 0;
+        for (double[] window : recent) {
+            sum += window[metric];
+        }
+        double mean = sum / recent.size();
+        if (mean == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double squares = 0;
+        for (double[] window : recent) {
+            squares += (window[metric] - mean) * (window[metric] - mean);
+        }
+        return Math.sqrt(squares / (recent.size() - 1)) / mean;
+    }
+}
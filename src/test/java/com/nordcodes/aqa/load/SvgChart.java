@@ -0,0 +1,149 @@
+package com.nordcodes.aqa.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Простейший построитель линейных графиков в SVG для HTML-отчётов нагрузки.
+ * Не требует внешних библиотек и скриптов, поэтому отчёт открывается прямо во вкладке аттачмента Allure.
+ */
+final class SvgChart {
+
+    private static final int WIDTH = 760;
+    private static final int HEIGHT = 300;
+    private static final int LEFT = 70;
+    private static final int RIGHT = 20;
+    private static final int TOP = 30;
+    private static final int BOTTOM = 50;
+    private static final String[] COLORS = {"#2e7d32", "#c62828", "#1565c0", "#ef6c00", "#6a1b9a", "#00838f", "#5d4037"};
+
+    private final String title;
+    private final String xLabel;
+    private final String yLabel;
+    private final List<Series> series = new ArrayList<>();
+    private double[] xTicks;
+    private String[] xTickLabels;
+
+    SvgChart(String title, String xLabel, String yLabel) {
+        this.title = title;
+        this.xLabel = xLabel;
+        this.yLabel = yLabel;
+    }
+
+    /**
+     * Добавляет линию на график.
+     */
+    SvgChart series(String name, double[] x, double[] y) {
+        series.add(new Series(name, COLORS[series.size() % COLORS.length], x, y));
+        return this;
+    }
+
+    /**
+     * Задаёт собственные деления оси X (например, для шкалы перцентилей).
+     */
+    SvgChart xTicks(double[] ticks, String[] labels) {
+        this.xTicks = ticks;
+        this.xTickLabels = labels;
+        return this;
+    }
+
+    String render() {
+        double minX = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = 0;
+        for (Series s : series) {
+            for (int i = 0; i < s.x.length; i++) {
+                minX = Math.min(minX, s.x[i]);
+                maxX = Math.max(maxX, s.x[i]);
+                maxY = Math.max(maxY, s.y[i]);
+            }
+        }
+        if (xTicks != null) {
+            minX = Math.min(minX, xTicks[0]);
+            maxX = Math.max(maxX, xTicks[xTicks.length - 1]);
+        }
+        if (minX == Double.MAX_VALUE || maxX <= minX) {
+            minX = 0;
+            maxX = Math.max(1, maxX);
+        }
+        maxY = maxY <= 0 ? 1 : maxY * 1.1;
+
+        int plotWidth = WIDTH - LEFT - RIGHT;
+        int plotHeight = HEIGHT - TOP - BOTTOM;
+        StringBuilder svg = new StringBuilder();
+        svg.append(format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" font-family=\"sans-serif\" font-size=\"11\">",
+                WIDTH, HEIGHT));
+        svg.append(format("<text x=\"%d\" y=\"18\" font-size=\"13\" font-weight=\"bold\">%s</text>", LEFT, escape(title)));
+        svg.append(format("<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"none\" stroke=\"#999\"/>",
+                LEFT, TOP, plotWidth, plotHeight));
+
+        for (int i = 0; i <= 5; i++) {
+            double value = maxY * i / 5;
+            double y = TOP + plotHeight - plotHeight * i / 5.0;
+            svg.append(format("<line x1=\"%d\" y1=\"%.1f\" x2=\"%d\" y2=\"%.1f\" stroke=\"#eee\"/>", LEFT, y, LEFT + plotWidth, y));
+            svg.append(format("<text x=\"%d\" y=\"%.1f\" text-anchor=\"end\">%s</text>", LEFT - 5, y + 4, number(value)));
+        }
+
+        double[] ticks = xTicks;
+        String[] labels = xTickLabels;
+        if (ticks == null) {
+            ticks = new double[6];
+            labels = new String[6];
+            for (int i = 0; i <= 5; i++) {
+                ticks[i] = minX + (maxX - minX) * i / 5;
+                labels[i] = number(ticks[i]);
+            }
+        }
+        for (int i = 0; i < ticks.length; i++) {
+            double x = LEFT + plotWidth * (ticks[i] - minX) / (maxX - minX);
+            svg.append(format("<line x1=\"%.1f\" y1=\"%d\" x2=\"%.1f\" y2=\"%d\" stroke=\"#eee\"/>", x, TOP, x, TOP + plotHeight));
+            svg.append(format("<text x=\"%.1f\" y=\"%d\" text-anchor=\"middle\">%s</text>", x, TOP + plotHeight + 15, escape(labels[i])));
+        }
+        svg.append(format("<text x=\"%d\" y=\"%d\" text-anchor=\"middle\">%s</text>",
+                LEFT + plotWidth / 2, HEIGHT - 10, escape(xLabel)));
+        svg.append(format("<text x=\"12\" y=\"%d\" transform=\"rotate(-90 12 %d)\" text-anchor=\"middle\">%s</text>",
+                TOP + plotHeight / 2, TOP + plotHeight / 2, escape(yLabel)));
+
+        int legendX = LEFT + 10;
+        for (Series s : series) {
+            StringBuilder points = new StringBuilder();
+            for (int i = 0; i < s.x.length; i++) {
+                double x = LEFT + plotWidth * (s.x[i] - minX) / (maxX - minX);
+                double y = TOP + plotHeight - plotHeight * s.y[i] / maxY;
+                points.append(format("%.1f,%.1f ", x, y));
+            }
+            svg.append(format("<polyline fill=\"none\" stroke=\"%s\" stroke-width=\"1.5\" points=\"%s\"/>", s.color, points));
+            svg.append(format("<rect x=\"%d\" y=\"%d\" width=\"10\" height=\"10\" fill=\"%s\"/>", legendX, TOP + 6, s.color));
+            svg.append(format("<text x=\"%d\" y=\"%d\">%s</text>", legendX + 14, TOP + 15, escape(s.name)));
+            legendX += 24 + s.name.length() * 7;
+        }
+        return svg.append("</svg>").toString();
+    }
+
+    static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String number(double value) {
+        return Math.abs(value) >= 100 || value == Math.rint(value) ? format("%.0f", value) : format("%.2f", value);
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+
+    private static final class Series {
+        private final String name;
+        private final String color;
+        private final double[] x;
+        private final double[] y;
+
+        private Series(String name, String color, double[] x, double[] y) {
+            this.name = name;
+            this.color = color;
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
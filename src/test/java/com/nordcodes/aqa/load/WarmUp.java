@@ -0,0 +1,99 @@
+package com.nordcodes.aqa.load;
+
+import java.time.Duration;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Параметры фазы прогрева перед измерением ({@link LoadRunner#withWarmUp(WarmUp)}).
+ * Нагрузка подаётся, пока пропускная способность и p99 в последних {@code stableWindows} окнах не станут
+ * стабильными: коэффициент вариации (стандартное отклонение / среднее) каждой величины не выше допуска.
+ * Если стабилизации нет за {@code maxDuration}, измерение начинается всё равно, а прогрев помечается как незавершённый.
+ */
+public final class WarmUp {
+
+    private final Duration window;
+    private final int stableWindows;
+    private final double throughputTolerance;
+    private final double p99Tolerance;
+    private final Duration maxDuration;
+
+    private WarmUp(Duration window, int stableWindows, double throughputTolerance, double p99Tolerance, Duration maxDuration) {
+        if (window.toMillis() < LOAD_INTERVAL_MILLIS) {
+            throw new IllegalArgumentException("Окно прогрева не может быть короче интервала статистики: " + window);
+        }
+        if (stableWindows < 2) {
+            throw new IllegalArgumentException("Для оценки стабильности нужно не меньше двух окон: " + stableWindows);
+        }
+        if (throughputTolerance <= 0 || p99Tolerance <= 0) {
+            throw new IllegalArgumentException("Допуски коэффициента вариации должны быть больше нуля");
+        }
+        this.window = window;
+        this.stableWindows = stableWindows;
+        this.throughputTolerance = throughputTolerance;
+        this.p99Tolerance = p99Tolerance;
+        this.maxDuration = maxDuration;
+    }
+
+    /**
+     * Создаёт параметры прогрева.
+     *
+     * @param window              длительность окна, по которому считаются пропускная способность и p99
+     * @param stableWindows       число последних окон, которые должны быть стабильны
+     * @param throughputTolerance допустимый коэффициент вариации пропускной способности
+     * @param p99Tolerance        допустимый коэффициент вариации p99
+     * @param maxDuration         предельная длительность прогрева
+     * @return параметры прогрева
+     */
+    public static WarmUp of(Duration window, int stableWindows, double throughputTolerance, double p99Tolerance,
+                            Duration maxDuration) {
+        return new WarmUp(window, stableWindows, throughputTolerance, p99Tolerance, maxDuration);
+    }
+
+    /**
+     * Параметры прогрева по умолчанию из {@code TestConfig}.
+     *
+     * @return параметры прогрева
+     */
+    public static WarmUp defaults() {
+        return of(Duration.ofSeconds(WARMUP_WINDOW_SECONDS), WARMUP_STABLE_WINDOWS, WARMUP_THROUGHPUT_TOLERANCE,
+                WARMUP_P99_TOLERANCE, Duration.ofSeconds(WARMUP_MAX_SECONDS));
+    }
+
+    /**
+     * Те же параметры с другой предельной длительностью прогрева: для серий коротких прогонов,
+     * где прогрев до {@code WARMUP_MAX_SECONDS} многократно превысил бы само измерение.
+     *
+     * @param maxDuration предельная длительность прогрева
+     * @return новые параметры прогрева
+     */
+    public WarmUp withMaxDuration(Duration maxDuration) {
+        return new WarmUp(window, stableWindows, throughputTolerance, p99Tolerance, maxDuration);
+    }
+
+    public Duration getWindow() {
+        return window;
+    }
+
+    public int getStableWindows() {
+        return stableWindows;
+    }
+
+    public double getThroughputTolerance() {
+        return throughputTolerance;
+    }
+
+    public double getP99Tolerance() {
+        return p99Tolerance;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("WarmUp{window=%s, stableWindows=%d, throughputCV<=%.2f, p99CV<=%.2f, max=%s}",
+                window, stableWindows, throughputTolerance, p99Tolerance, maxDuration);
+    }
+}
@@ -0,0 +1,116 @@
+package com.nordcodes.aqa.load;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Итог фазы прогрева: сколько она длилась, сколько запросов ушло на прогрев
+ * и как менялись пропускная способность и p99 по окнам до стабилизации.
+ * Запросы прогрева в результат измерения не входят.
+ */
+public class WarmUpResult {
+
+    private final WarmUp warmUp;
+    private final boolean steady;
+    private final double durationSeconds;
+    private final long requests;
+    private final long errors;
+    private final List<Window> windows;
+
+    WarmUpResult(WarmUp warmUp, boolean steady, double durationSeconds, long requests, long errors, List<Window> windows) {
+        this.warmUp = warmUp;
+        this.steady = steady;
+        this.durationSeconds = durationSeconds;
+        this.requests = requests;
+        this.errors = errors;
+        this.windows = Collections.unmodifiableList(windows);
+    }
+
+    /**
+     * Стабилизация достигнута до предельной длительности прогрева.
+     */
+    public boolean isSteady() {
+        return steady;
+    }
+
+    public double getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public long getRequests() {
+        return requests;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public List<Window> getWindows() {
+        return windows;
+    }
+
+    /**
+     * Текстовый отчёт о прогреве.
+     */
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Прогрев: %.1f с, запросов: %d, ошибок: %d, %s%n", durationSeconds, requests, errors,
+                steady ? "стабилизация достигнута" : "стабилизация НЕ достигнута за " + warmUp.getMaxDuration()));
+        sb.append(String.format("Критерий: %s%n", warmUp));
+        sb.append(String.format("%6s %10s %10s %12s %10s%n", "окно", "rps", "p99 мс", "CV rps", "CV p99"));
+        for (Window window : windows) {
+            sb.append(String.format("%6d %10.1f %10.2f %12s %10s%n", window.index, window.throughput, window.p99Millis,
+                    cv(window.throughputCv), cv(window.p99Cv)));
+        }
+        return sb.toString();
+    }
+
+    private static String cv(double value) {
+        return Double.isNaN(value) ? "-" : String.format("%.3f", value);
+    }
+
+    /**
+     * Окно прогрева и коэффициенты вариации по последним окнам на момент его закрытия.
+     */
+    public static final class Window {
+        private final int index;
+        private final double throughput;
+        private final double p99Millis;
+        private final double throughputCv;
+        private final double p99Cv;
+
+        Window(int index, double throughput, double p99Millis, double throughputCv, double p99Cv) {
+            this.index = index;
+            this.throughput = throughput;
+            this.p99Millis = p99Millis;
+            this.throughputCv = throughputCv;
+            this.p99Cv = p99Cv;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public double getThroughput() {
+            return throughput;
+        }
+
+        public double getP99Millis() {
+            return p99Millis;
+        }
+
+        /**
+         * Коэффициент вариации пропускной способности по последним окнам или NaN, пока окон недостаточно.
+         */
+        public double getThroughputCv() {
+            return throughputCv;
+        }
+
+        /**
+         * Коэффициент вариации p99 по последним окнам или NaN, пока окон недостаточно.
+         */
+        public double getP99Cv() {
+            return p99Cv;
+        }
+    }
+}
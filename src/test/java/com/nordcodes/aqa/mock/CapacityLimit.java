@@ -0,0 +1,62 @@
+package com.nordcodes.aqa.mock;
+
+/**
+ * Ограничение пропускной способности эндпоинта внешнего сервиса.
+ * Не более {@code maxConcurrent} запросов обрабатываются одновременно, ещё до {@code queueDepth}
+ * ожидают в очереди, остальные отклоняются. Каждый запрос занимает слот на {@code serviceTimeMillis}.
+ */
+public final class CapacityLimit {
+
+    private final int maxConcurrent;
+    private final int queueDepth;
+    private final int serviceTimeMillis;
+
+    private CapacityLimit(int maxConcurrent, int queueDepth, int serviceTimeMillis) {
+        if (maxConcurrent <= 0) {
+            throw new IllegalArgumentException("Число одновременных запросов должно быть больше нуля: " + maxConcurrent);
+        }
+        if (queueDepth < 0 || serviceTimeMillis < 0) {
+            throw new IllegalArgumentException("Глубина очереди и время обслуживания не могут быть отрицательными");
+        }
+        this.maxConcurrent = maxConcurrent;
+        this.queueDepth = queueDepth;
+        this.serviceTimeMillis = serviceTimeMillis;
+    }
+
+    /**
+     * Создаёт ограничение пропускной способности.
+     *
+     * @param maxConcurrent     максимум одновременно обрабатываемых запросов
+     * @param queueDepth        максимум запросов, ожидающих свободного слота
+     * @param serviceTimeMillis время обработки одного запроса, мс
+     * @return ограничение
+     */
+    public static CapacityLimit of(int maxConcurrent, int queueDepth, int serviceTimeMillis) {
+        return new CapacityLimit(maxConcurrent, queueDepth, serviceTimeMillis);
+    }
+
+    public int getMaxConcurrent() {
+        return maxConcurrent;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public int getServiceTimeMillis() {
+        return serviceTimeMillis;
+    }
+
+    /**
+     * Теоретическая максимальная пропускная способность эндпоинта, запросов в секунду.
+     */
+    public double maxThroughput() {
+        return serviceTimeMillis == 0 ? Double.POSITIVE_INFINITY : maxConcurrent * 1000.0 / serviceTimeMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CapacityLimit{maxConcurrent=%d, queueDepth=%d, serviceTime=%d ms}",
+                maxConcurrent, queueDepth, serviceTimeMillis);
+    }
+}
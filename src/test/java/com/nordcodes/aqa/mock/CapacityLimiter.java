@@ -0,0 +1,215 @@
+package com.nordcodes.aqa.mock;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.nordcodes.aqa.config.TestConfig.HTTP_SERVICE_UNAVAILABLE;
+import static com.nordcodes.aqa.config.TestConfig.WIREMOCK_CONTAINER_THREADS;
+import static com.nordcodes.aqa.config.TestConfig.WIREMOCK_RESERVED_THREADS;
+
+/**
+ * Расширение WireMock, эмулирующее внешний сервис с ограниченной пропускной способностью.
+ * Запрос занимает один из {@link CapacityLimit#getMaxConcurrent()} слотов на время обслуживания,
+ * при отсутствии свободного слота ждёт в очереди (FIFO), при переполненной очереди получает 503.
+ * Поток Jetty удерживается на всё время ожидания, поэтому WireMock должен быть запущен
+ * с достаточным числом потоков (см. {@code WireMockConfig}).
+ */
+public class CapacityLimiter implements ResponseDefinitionTransformerV2 {
+
+    public static final String NAME = "capacity";
+
+    private static final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    /**
+     * Устанавливает ограничение для эндпоинта. Запросы, уже стоящие в очереди, дорабатывают по старому ограничению.
+     * Слоты и очередь всех ограниченных эндпоинтов вместе должны помещаться в пул потоков WireMock за вычетом
+     * {@code WIREMOCK_RESERVED_THREADS}: иначе лишние запросы ждут в очереди Jetty и вместо 503 получают
+     * задержку, а переполнение очереди не наступает никогда.
+     *
+     * @param path  путь эндпоинта (например, /auth)
+     * @param limit ограничение пропускной способности
+     * @throws IllegalArgumentException если ограничениям не хватает потоков WireMock
+     */
+    public static synchronized void setLimit(String path, CapacityLimit limit) {
+        int threads = limit.getMaxConcurrent() + limit.getQueueDepth();
+        for (Map.Entry<String, Bulkhead> entry : bulkheads.entrySet()) {
+            if (!entry.getKey().equals(path)) {
+                threads += entry.getValue().limit.getMaxConcurrent() + entry.getValue().limit.getQueueDepth();
+            }
+        }
+        int available = WIREMOCK_CONTAINER_THREADS - WIREMOCK_RESERVED_THREADS;
+        if (threads > available) {
+            throw new IllegalArgumentException(String.format(
+                    "Слоты и очереди ограниченных эндпоинтов занимают %d потоков WireMock, доступно %d: %s для %s",
+                    threads, available, limit, path));
+        }
+        bulkheads.put(path, new Bulkhead(limit));
+    }
+
+    /**
+     * Снимает все ограничения.
+     */
+    public static synchronized void clearLimits() {
+        bulkheads.clear();
+    }
+
+    /**
+     * Возвращает текстовую статистику ограничителя эндпоинта.
+     *
+     * @param path путь эндпоинта
+     * @return статистика или сообщение об отсутствии ограничения
+     */
+    public static String stats(String path) {
+        Bulkhead bulkhead = bulkheads.get(path);
+        return bulkhead == null ? path + ": ограничение не задано" : path + ": " + bulkhead.stats();
+    }
+
+    /**
+     * Сбрасывает статистику ограничителя эндпоинта (обслуженные и отклонённые запросы, максимум очереди,
+     * время ожидания). Ограничение и запросы в обработке сохраняются.
+     *
+     * @param path путь эндпоинта
+     */
+    public static void resetStats(String path) {
+        Bulkhead bulkhead = bulkheads.get(path);
+        if (bulkhead != null) {
+            bulkhead.resetStats();
+        }
+    }
+
+    /**
+     * Возвращает число запросов к эндпоинту, отклонённых из-за переполнения очереди.
+     */
+    public static long rejectedCount(String path) {
+        Bulkhead bulkhead = bulkheads.get(path);
+        return bulkhead == null ? 0 : bulkhead.rejected.sum();
+    }
+
+    /**
+     * Возвращает максимальную наблюдавшуюся длину очереди эндпоинта.
+     */
+    public static int maxQueueLength(String path) {
+        Bulkhead bulkhead = bulkheads.get(path);
+        return bulkhead == null ? 0 : bulkhead.maxQueued.get();
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        ResponseDefinition original = serveEvent.getResponseDefinition();
+        Bulkhead bulkhead = bulkheads.get(serveEvent.getRequest().getUrl());
+        if (bulkhead == null) {
+            return original;
+        }
+        try {
+            if (!bulkhead.enter()) {
+                return ResponseDefinitionBuilder.like(original).but()
+                        .withStatus(HTTP_SERVICE_UNAVAILABLE)
+                        .build();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return original;
+        }
+        try {
+            Thread.sleep(bulkhead.limit.getServiceTimeMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            bulkhead.leave();
+        }
+        return original;
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Состояние ограничителя одного эндпоинта.
+     */
+    private static final class Bulkhead {
+        private final CapacityLimit limit;
+        private final Semaphore slots;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger maxQueued = new AtomicInteger();
+        private final LongAdder served = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final Recorder queueWaitMicros = new Recorder(TimeUnit.MINUTES.toMicros(1), 3);
+        private final Histogram queueWaitTotal = new Histogram(TimeUnit.MINUTES.toMicros(1), 3);
+
+        private Bulkhead(CapacityLimit limit) {
+            this.limit = limit;
+            this.slots = new Semaphore(limit.getMaxConcurrent(), true);
+        }
+
+        /**
+         * Занимает слот, при необходимости ожидая в очереди.
+         *
+         * @return false, если очередь переполнена и запрос отклонён
+         */
+        private boolean enter() throws InterruptedException {
+            // tryAcquire с таймаутом соблюдает очерёдность справедливого семафора
+            if (slots.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+                queueWaitMicros.recordValue(0);
+                return true;
+            }
+            int length = queued.incrementAndGet();
+            if (length > limit.getQueueDepth()) {
+                queued.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            maxQueued.accumulateAndGet(length, Math::max);
+            long start = System.nanoTime();
+            try {
+                slots.acquire();
+            } finally {
+                queued.decrementAndGet();
+            }
+            queueWaitMicros.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start),
+                    TimeUnit.MINUTES.toMicros(1)));
+            return true;
+        }
+
+        private void leave() {
+            served.increment();
+            slots.release();
+        }
+
+        private synchronized void resetStats() {
+            served.reset();
+            rejected.reset();
+            maxQueued.set(queued.get());
+            queueWaitMicros.reset();
+            queueWaitTotal.reset();
+        }
+
+        private synchronized String stats() {
+            queueWaitTotal.add(queueWaitMicros.getIntervalHistogram());
+            return String.format("%s, обслужено=%d, отклонено=%d, в обработке=%d, в очереди=%d (макс. %d), "
+                            + "ожидание в очереди p50=%.1f мс p99=%.1f мс max=%.1f мс",
+                    limit, served.sum(), rejected.sum(),
+                    limit.getMaxConcurrent() - slots.availablePermits(), queued.get(), maxQueued.get(),
+                    queueWaitTotal.getValueAtPercentile(50) / 1000.0,
+                    queueWaitTotal.getValueAtPercentile(99) / 1000.0,
+                    queueWaitTotal.getMaxValue() / 1000.0);
+        }
+    }
+}
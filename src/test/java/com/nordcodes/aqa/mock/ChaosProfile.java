@@ -0,0 +1,104 @@
+package com.nordcodes.aqa.mock;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Профиль хаоса для эндпоинта внешнего сервиса.
+ * Задаёт веса исходов ответа: 200, 400, 500, сброс соединения и пустой ответ.
+ * Веса относительные: профиль (8, 1, 1, 0, 0) даёт 80% ответов 200, по 10% ответов 400 и 500.
+ * Экземпляры неизменяемые, поэтому профиль можно безопасно подменять во время нагрузки.
+ */
+public final class ChaosProfile {
+
+    /**
+     * Возможные исходы ответа внешнего сервиса.
+     */
+    public enum Outcome {
+        OK,
+        BAD_REQUEST,
+        SERVER_ERROR,
+        CONNECTION_RESET,
+        EMPTY_RESPONSE
+    }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final int[] weights;
+    private final int totalWeight;
+
+    private ChaosProfile(int[] weights) {
+        int total = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вес исхода не может быть отрицательным: " + weight);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("Сумма весов профиля хаоса должна быть больше нуля");
+        }
+        this.weights = weights;
+        this.totalWeight = total;
+    }
+
+    /**
+     * Создаёт профиль с заданными весами исходов.
+     *
+     * @param ok              вес ответа 200
+     * @param badRequest      вес ответа 400
+     * @param serverError     вес ответа 500
+     * @param connectionReset вес сброса соединения
+     * @param emptyResponse   вес пустого ответа (соединение закрывается без данных)
+     * @return профиль хаоса
+     */
+    public static ChaosProfile of(int ok, int badRequest, int serverError, int connectionReset, int emptyResponse) {
+        return new ChaosProfile(new int[]{ok, badRequest, serverError, connectionReset, emptyResponse});
+    }
+
+    /**
+     * Профиль «здорового» сервиса: все ответы 200.
+     *
+     * @return профиль без ошибок
+     */
+    public static ChaosProfile healthy() {
+        return of(1, 0, 0, 0, 0);
+    }
+
+    /**
+     * Выбирает случайный исход с учётом весов.
+     *
+     * @return исход ответа
+     */
+    public Outcome nextOutcome() {
+        int point = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (int i = 0; i < weights.length; i++) {
+            point -= weights[i];
+            if (point < 0) {
+                return OUTCOMES[i];
+            }
+        }
+        return Outcome.OK;
+    }
+
+    /**
+     * Возвращает долю исхода в профиле.
+     *
+     * @param outcome исход
+     * @return доля от 0 до 1
+     */
+    public double ratio(Outcome outcome) {
+        return (double) weights[outcome.ordinal()] / totalWeight;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ChaosProfile{");
+        for (int i = 0; i < OUTCOMES.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(OUTCOMES[i]).append('=').append(String.format("%.0f%%", ratio(OUTCOMES[i]) * 100));
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.nordcodes.aqa.mock;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.Fault;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Расширение WireMock, подменяющее ответ стаба согласно профилю хаоса эндпоинта.
+ * Профили хранятся отдельно от стабов, поэтому их можно менять во время нагрузки
+ * без перерегистрации стабов. Применяется только к стабам, явно подключившим трансформер.
+ */
+public class ChaosTransformer implements ResponseDefinitionTransformerV2 {
+
+    public static final String NAME = "chaos";
+
+    private static final Map<String, ChaosProfile> profiles = new ConcurrentHashMap<>();
+
+    /**
+     * Устанавливает профиль хаоса для эндпоинта. Вступает в силу со следующего запроса.
+     *
+     * @param path    путь эндпоинта (например, /auth)
+     * @param profile профиль хаоса
+     */
+    public static void setProfile(String path, ChaosProfile profile) {
+        profiles.put(path, profile);
+    }
+
+    /**
+     * Удаляет все профили хаоса: стабы с трансформером отвечают как «здоровый» сервис.
+     */
+    public static void clearProfiles() {
+        profiles.clear();
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        ResponseDefinition original = serveEvent.getResponseDefinition();
+        ChaosProfile profile = profiles.get(serveEvent.getRequest().getUrl());
+        if (profile == null) {
+            return original;
+        }
+
+        ResponseDefinitionBuilder response = ResponseDefinitionBuilder.like(original).but();
+        switch (profile.nextOutcome()) {
+            case BAD_REQUEST:
+                return response.withStatus(HTTP_BAD_REQUEST).build();
+            case SERVER_ERROR:
+                return response.withStatus(HTTP_INTERNAL_ERROR).build();
+            case CONNECTION_RESET:
+                return response.withFault(Fault.CONNECTION_RESET_BY_PEER).build();
+            case EMPTY_RESPONSE:
+                return response.withFault(Fault.EMPTY_RESPONSE).build();
+            default:
+                return response.withStatus(HTTP_OK).build();
+        }
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+}
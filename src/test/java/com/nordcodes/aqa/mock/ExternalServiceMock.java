@@ -4,6 +4,8 @@ import com.github.tomakehurst.wiremock.client.WireMock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Arrays;
+
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static com.nordcodes.aqa.config.TestConfig.*;
 
@@ -53,12 +55,112 @@ public class ExternalServiceMock {
                         .withBody("{}")));
     }
 
+    /**
+     * Настраивает стаб для /auth в режиме хаоса: исход каждого ответа выбирается по профилю.
+     * Профиль можно менять во время нагрузки через {@link #updateChaosProfile(String, ChaosProfile)}.
+     */
+    public static void stubAuthChaos(ChaosProfile profile) {
+        stubChaos(MOCK_AUTH_PATH, profile);
+    }
+
+    /**
+     * Настраивает стаб для /doAction в режиме хаоса.
+     */
+    public static void stubDoActionChaos(ChaosProfile profile) {
+        stubChaos(MOCK_DO_ACTION_PATH, profile);
+    }
+
+    /**
+     * Меняет профиль хаоса эндпоинта без перерегистрации стаба (можно вызывать во время нагрузки).
+     */
+    public static void updateChaosProfile(String path, ChaosProfile profile) {
+        log.info("Смена профиля хаоса: {} -> {}", path, profile);
+        ChaosTransformer.setProfile(path, profile);
+    }
+
+    private static void stubChaos(String path, ChaosProfile profile) {
+        log.info("Настройка стаба в режиме хаоса: {} -> {}", path, profile);
+        ChaosTransformer.setProfile(path, profile);
+        stubFor(post(urlEqualTo(path))
+                .willReturn(aResponse()
+                        .withStatus(HTTP_OK)
+                        .withHeader(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON)
+                        .withBody("{}")
+                        .withTransformers(ChaosTransformer.NAME)));
+    }
+
+    /**
+     * Настраивает стаб для /auth с ограниченной пропускной способностью:
+     * лишние запросы ждут в очереди, при переполнении очереди возвращается 503.
+     */
+    public static void stubAuthWithCapacity(CapacityLimit limit) {
+        stubWithCapacity(MOCK_AUTH_PATH, limit);
+    }
+
+    /**
+     * Настраивает стаб для /doAction с ограниченной пропускной способностью.
+     */
+    public static void stubDoActionWithCapacity(CapacityLimit limit) {
+        stubWithCapacity(MOCK_DO_ACTION_PATH, limit);
+    }
+
+    /**
+     * Меняет ограничение пропускной способности эндпоинта без перерегистрации стаба.
+     */
+    public static void updateCapacityLimit(String path, CapacityLimit limit) {
+        log.info("Смена ограничения пропускной способности: {} -> {}", path, limit);
+        CapacityLimiter.setLimit(path, limit);
+    }
+
+    private static void stubWithCapacity(String path, CapacityLimit limit) {
+        log.info("Настройка стаба с ограничением пропускной способности: {} -> {}", path, limit);
+        CapacityLimiter.setLimit(path, limit);
+        stubFor(post(urlEqualTo(path))
+                .willReturn(aResponse()
+                        .withStatus(HTTP_OK)
+                        .withHeader(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON)
+                        .withBody("{}")
+                        .withTransformers(CapacityLimiter.NAME)));
+    }
+
+    /**
+     * Настраивает стаб для /auth, статус ответа которого определяется символом токена (см. {@link TokenKeyedTransformer}).
+     *
+     * @param keyIndex позиция символа токена, выбирающего статус
+     * @param statuses статусы для HEX-значений символа 0..F
+     */
+    public static void stubAuthByToken(int keyIndex, int[] statuses) {
+        stubByToken(MOCK_AUTH_PATH, keyIndex, statuses);
+    }
+
+    /**
+     * Настраивает стаб для /doAction, статус ответа которого определяется символом токена.
+     */
+    public static void stubDoActionByToken(int keyIndex, int[] statuses) {
+        stubByToken(MOCK_DO_ACTION_PATH, keyIndex, statuses);
+    }
+
+    private static void stubByToken(String path, int keyIndex, int[] statuses) {
+        log.info("Настройка стаба со статусом по токену: {} -> символ {}, статусы {}", path, keyIndex, Arrays.toString(statuses));
+        TokenKeyedTransformer.setStatuses(path, keyIndex, statuses);
+        stubFor(post(urlEqualTo(path))
+                .willReturn(aResponse()
+                        .withStatus(HTTP_OK)
+                        .withHeader(HEADER_CONTENT_TYPE, CONTENT_TYPE_JSON)
+                        .withBody("{}")
+                        .withTransformers(TokenKeyedTransformer.NAME)));
+    }
+
     /**
      * Удаляет все стабы WireMock (очистка перед тестом).
      */
     public static void resetStubs() {
         log.info("Сброс всех стабов WireMock");
         WireMock.reset();
+        ChaosTransformer.clearProfiles();
+        CapacityLimiter.clearLimits();
+        TokenKeyedTransformer.clearStatuses();
+        OutboundTokenVerifier.disable();
     }
 
     /**
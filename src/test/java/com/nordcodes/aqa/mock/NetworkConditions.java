@@ -0,0 +1,137 @@
+package com.nordcodes.aqa.mock;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Параметры эмулируемой сети между приложением и внешним сервисом для {@link NetworkProxy}.
+ * Задержка и джиттер добавляются к каждому блоку данных в каждом направлении, пропускная способность
+ * ограничивается на соединение и направление, «медленное чтение» дробит данные на мелкие сегменты с паузами,
+ * обрыв рвёт соединение (RST) с заданной вероятностью на каждом пересылаемом блоке.
+ * Экземпляры неизменяемые, поэтому условия можно безопасно подменять во время нагрузки.
+ */
+public final class NetworkConditions {
+
+    private static final NetworkConditions PERFECT = new NetworkConditions(0, 0, 0, 0, 0, 0);
+
+    private final int latencyMillis;
+    private final int jitterMillis;
+    private final long bytesPerSecond;
+    private final int segmentBytes;
+    private final int segmentPauseMillis;
+    private final double dropProbability;
+
+    private NetworkConditions(int latencyMillis, int jitterMillis, long bytesPerSecond,
+                              int segmentBytes, int segmentPauseMillis, double dropProbability) {
+        if (latencyMillis < 0 || jitterMillis < 0 || bytesPerSecond < 0 || segmentBytes < 0 || segmentPauseMillis < 0) {
+            throw new IllegalArgumentException("Параметры сети не могут быть отрицательными");
+        }
+        if (dropProbability < 0 || dropProbability > 1) {
+            throw new IllegalArgumentException("Вероятность обрыва должна быть от 0 до 1: " + dropProbability);
+        }
+        this.latencyMillis = latencyMillis;
+        this.jitterMillis = jitterMillis;
+        this.bytesPerSecond = bytesPerSecond;
+        this.segmentBytes = segmentBytes;
+        this.segmentPauseMillis = segmentPauseMillis;
+        this.dropProbability = dropProbability;
+    }
+
+    /**
+     * Сеть без искажений: данные пересылаются без задержек и ограничений.
+     *
+     * @return условия идеальной сети
+     */
+    public static NetworkConditions perfect() {
+        return PERFECT;
+    }
+
+    /**
+     * Задержка в одном направлении и её разброс.
+     *
+     * @param latencyMillis задержка, мс
+     * @param jitterMillis  случайная добавка к задержке от 0 до {@code jitterMillis}, мс
+     * @return новые условия
+     */
+    public NetworkConditions withLatency(int latencyMillis, int jitterMillis) {
+        return new NetworkConditions(latencyMillis, jitterMillis, bytesPerSecond, segmentBytes, segmentPauseMillis, dropProbability);
+    }
+
+    /**
+     * Пропускная способность соединения в каждом направлении.
+     *
+     * @param bytesPerSecond байт в секунду; 0 — без ограничения
+     * @return новые условия
+     */
+    public NetworkConditions withBandwidth(long bytesPerSecond) {
+        return new NetworkConditions(latencyMillis, jitterMillis, bytesPerSecond, segmentBytes, segmentPauseMillis, dropProbability);
+    }
+
+    /**
+     * Медленное чтение: данные доставляются сегментами по {@code segmentBytes} с паузой между ними,
+     * так что HTTP-ответ приходит по частям.
+     *
+     * @param segmentBytes       размер сегмента, байт; 0 — без дробления
+     * @param segmentPauseMillis пауза между сегментами, мс
+     * @return новые условия
+     */
+    public NetworkConditions withSlowReads(int segmentBytes, int segmentPauseMillis) {
+        return new NetworkConditions(latencyMillis, jitterMillis, bytesPerSecond, segmentBytes, segmentPauseMillis, dropProbability);
+    }
+
+    /**
+     * Обрывы соединений.
+     *
+     * @param dropProbability вероятность оборвать соединение на очередном блоке данных, от 0 до 1
+     * @return новые условия
+     */
+    public NetworkConditions withDrops(double dropProbability) {
+        return new NetworkConditions(latencyMillis, jitterMillis, bytesPerSecond, segmentBytes, segmentPauseMillis, dropProbability);
+    }
+
+    public int getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public int getJitterMillis() {
+        return jitterMillis;
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public int getSegmentBytes() {
+        return segmentBytes;
+    }
+
+    public int getSegmentPauseMillis() {
+        return segmentPauseMillis;
+    }
+
+    public double getDropProbability() {
+        return dropProbability;
+    }
+
+    /**
+     * Задержка очередного блока с учётом джиттера, мс.
+     */
+    long nextDelayMillis() {
+        return jitterMillis == 0 ? latencyMillis : latencyMillis + ThreadLocalRandom.current().nextInt(jitterMillis + 1);
+    }
+
+    /**
+     * Решает, оборвать ли соединение на очередном блоке.
+     */
+    boolean nextDrop() {
+        return dropProbability > 0 && ThreadLocalRandom.current().nextDouble() < dropProbability;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT,
+                "NetworkConditions{latency=%d ms, jitter=%d ms, bandwidth=%s, slowReads=%s, drop=%.3f}",
+                latencyMillis, jitterMillis, bytesPerSecond == 0 ? "unlimited" : bytesPerSecond + " B/s",
+                segmentBytes == 0 ? "off" : segmentBytes + " B / " + segmentPauseMillis + " ms", dropProbability);
+    }
+}
@@ -0,0 +1,330 @@
+package com.nordcodes.aqa.mock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * TCP-прокси внутри JVM тестов, эмулирующий сеть между приложением и внешним сервисом.
+ * Приложение запускается с {@code -Dmock}, указывающим на прокси ({@code NETWORK_PROXY_MOCK_URL}), прокси пересылает
+ * соединения в WireMock и искажает их по текущим {@link NetworkConditions}: задержка, джиттер,
+ * ограничение пропускной способности, доставка ответа мелкими сегментами и обрывы (RST).
+ * <p>
+ * Каждое направление каждого соединения — линия задержки: поток чтения ставит прочитанный блок в очередь
+ * со сроком доставки, поток записи доставляет блоки не раньше срока и в исходном порядке. Условия читаются
+ * на каждом блоке, поэтому {@link #setConditions(NetworkConditions)} действует и на уже открытые соединения
+ * пула HTTP-клиента приложения. Root-права и tc/netem не нужны.
+ */
+public class NetworkProxy implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(NetworkProxy.class);
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final byte[] END_OF_STREAM = new byte[0];
+
+    private final ServerSocket server;
+    private final InetSocketAddress target;
+    private final ExecutorService executor;
+    private final Set<Link> links = ConcurrentHashMap.newKeySet();
+    private volatile NetworkConditions conditions;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder bytesToService = new LongAdder();
+    private final LongAdder bytesToApp = new LongAdder();
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    /**
+     * Запускает прокси на {@code NETWORK_PROXY_PORT} к WireMock.
+     *
+     * @param conditions начальные условия сети
+     */
+    public NetworkProxy(NetworkConditions conditions) throws IOException {
+        this(NETWORK_PROXY_PORT, "localhost", WIREMOCK_PORT, conditions);
+    }
+
+    /**
+     * Запускает прокси.
+     *
+     * @param listenPort порт, на котором прокси принимает соединения
+     * @param targetHost хост, куда пересылаются соединения
+     * @param targetPort порт, куда пересылаются соединения
+     * @param conditions начальные условия сети
+     */
+    public NetworkProxy(int listenPort, String targetHost, int targetPort, NetworkConditions conditions) throws IOException {
+        this.conditions = conditions;
+        this.target = new InetSocketAddress(targetHost, targetPort);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "network-proxy-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = new ServerSocket();
+        server.setReuseAddress(true);
+        server.bind(new InetSocketAddress("localhost", listenPort));
+        executor.execute(this::acceptLoop);
+        log.info("Сетевой прокси запущен: localhost:{} -> {}, {}", listenPort, target, conditions);
+    }
+
+    /**
+     * Подменяет условия сети. Действует со следующего пересылаемого блока, в том числе на открытых соединениях.
+     *
+     * @param conditions новые условия сети
+     */
+    public void setConditions(NetworkConditions conditions) {
+        log.info("Сетевой прокси: {}", conditions);
+        this.conditions = conditions;
+    }
+
+    public NetworkConditions getConditions() {
+        return conditions;
+    }
+
+    /**
+     * Обрывает все открытые соединения (RST), как при перезапуске балансировщика или потере маршрута.
+     *
+     * @return число оборванных соединений
+     */
+    public int dropAllConnections() {
+        int count = 0;
+        for (Link link : links) {
+            if (link.drop()) {
+                count++;
+            }
+        }
+        log.info("Сетевой прокси: оборвано соединений: {}", count);
+        return count;
+    }
+
+    public long getAcceptedConnections() {
+        return accepted.sum();
+    }
+
+    public long getDroppedConnections() {
+        return dropped.sum();
+    }
+
+    /**
+     * Текстовая статистика прокси.
+     */
+    public String stats() {
+        return String.format("соединений принято=%d, открыто=%d, оборвано=%d, байт к сервису=%d, байт к приложению=%d, %s",
+                accepted.sum(), links.size(), dropped.sum(), bytesToService.sum(), bytesToApp.sum(), conditions);
+    }
+
+    @Override
+    public void close() {
+        try {
+            server.close();
+        } catch (IOException e) {
+            log.debug("Ошибка при закрытии порта прокси", e);
+        }
+        links.forEach(Link::close);
+        executor.shutdownNow();
+        log.info("Сетевой прокси остановлен: {}", stats());
+    }
+
+    private void acceptLoop() {
+        while (!server.isClosed()) {
+            Socket app;
+            try {
+                app = server.accept();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    log.warn("Сетевой прокси: ошибка приёма соединения", e);
+                }
+                return;
+            }
+            accepted.increment();
+            Socket service = new Socket();
+            try {
+                app.setTcpNoDelay(true);
+                service.setTcpNoDelay(true);
+                service.connect(target, (int) TimeUnit.SECONDS.toMillis(NETWORK_PROXY_CONNECT_TIMEOUT_SECONDS));
+            } catch (IOException e) {
+                log.warn("Сетевой прокси: не удалось подключиться к {}", target, e);
+                closeQuietly(app);
+                closeQuietly(service);
+                continue;
+            }
+            Link link = new Link(app, service);
+            links.add(link);
+            link.start();
+        }
+    }
+
+    /**
+     * Проксируемое соединение: пара сокетов и две линии задержки.
+     */
+    private final class Link {
+        private final Socket app;
+        private final Socket service;
+        private final BlockingQueue<Chunk> toService = new LinkedBlockingQueue<>();
+        private final BlockingQueue<Chunk> toApp = new LinkedBlockingQueue<>();
+        private final AtomicInteger openDirections = new AtomicInteger(2);
+        private volatile boolean closed;
+
+        private Link(Socket app, Socket service) {
+            this.app = app;
+            this.service = service;
+        }
+
+        private void start() {
+            executor.execute(() -> read(app, toService));
+            executor.execute(() -> write(toService, service, bytesToService));
+            executor.execute(() -> read(service, toApp));
+            executor.execute(() -> write(toApp, app, bytesToApp));
+        }
+
+        private void read(Socket from, BlockingQueue<Chunk> queue) {
+            long lastDeadline = 0;
+            try {
+                InputStream in = from.getInputStream();
+                byte[] buffer = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = in.read(buffer)) >= 0) {
+                    // Сроки доставки не убывают: джиттер не должен переставлять байты одного TCP-потока
+                    lastDeadline = Math.max(lastDeadline, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(conditions.nextDelayMillis()));
+                    queue.add(new Chunk(Arrays.copyOf(buffer, read), lastDeadline));
+                }
+                queue.add(new Chunk(END_OF_STREAM, lastDeadline));
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private void write(BlockingQueue<Chunk> queue, Socket to, LongAdder counter) {
+            long nextSendNanos = 0;
+            try {
+                OutputStream out = to.getOutputStream();
+                while (!closed) {
+                    Chunk chunk = queue.take();
+                    sleepUntil(chunk.deadlineNanos);
+                    if (chunk.data == END_OF_STREAM) {
+                        to.shutdownOutput();
+                        if (openDirections.decrementAndGet() == 0) {
+                            close();
+                        }
+                        return;
+                    }
+                    NetworkConditions current = conditions;
+                    if (current.nextDrop()) {
+                        drop();
+                        return;
+                    }
+                    int segment = current.getSegmentBytes() > 0 ? current.getSegmentBytes() : chunk.data.length;
+                    for (int offset = 0; offset < chunk.data.length; offset += segment) {
+                        int length = Math.min(segment, chunk.data.length - offset);
+                        if (offset > 0 && current.getSegmentPauseMillis() > 0) {
+                            sleepUntil(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(current.getSegmentPauseMillis()));
+                        }
+                        if (current.getBytesPerSecond() > 0) {
+                            nextSendNanos = Math.max(nextSendNanos, System.nanoTime());
+                            sleepUntil(nextSendNanos);
+                            nextSendNanos += length * TimeUnit.SECONDS.toNanos(1) / current.getBytesPerSecond();
+                        }
+                        out.write(chunk.data, offset, length);
+                        out.flush();
+                        counter.add(length);
+                    }
+                }
+            } catch (IOException e) {
+                close();
+            } catch (InterruptedException e) {
+                close();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Обрывает соединение с обеих сторон: SO_LINGER=0 отправляет RST вместо штатного FIN.
+         *
+         * @return true, если соединение было открыто
+         */
+        private boolean drop() {
+            if (closed) {
+                return false;
+            }
+            try {
+                app.setSoLinger(true, 0);
+                service.setSoLinger(true, 0);
+            } catch (SocketException e) {
+                log.debug("Не удалось включить SO_LINGER перед обрывом", e);
+            }
+            if (!closeOnce()) {
+                return false;
+            }
+            dropped.increment();
+            return true;
+        }
+
+        private void close() {
+            closeOnce();
+        }
+
+        private synchronized boolean closeOnce() {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            closeQuietly(app);
+            closeQuietly(service);
+            // Будит потоки записи, ожидающие очередной блок
+            toService.add(new Chunk(END_OF_STREAM, 0));
+            toApp.add(new Chunk(END_OF_STREAM, 0));
+            links.remove(this);
+            return true;
+        }
+    }
+
+    /**
+     * Блок данных и момент (System.nanoTime), не раньше которого его можно доставить.
+     */
+    private static final class Chunk {
+        private final byte[] data;
+        private final long deadlineNanos;
+
+        private Chunk(byte[] data, long deadlineNanos) {
+            this.data = data;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+
+    private static void sleepUntil(long deadlineNanos) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("Ошибка при закрытии сокета прокси", e);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package com.nordcodes.aqa.mock;
+
+import com.github.tomakehurst.wiremock.extension.Parameters;
+import com.github.tomakehurst.wiremock.extension.ServeEventListener;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Потоковая проверка исходящих запросов приложения к внешнему сервису без журнала WireMock.
+ * <p>
+ * Нагрузочный клиент сообщает об успешных LOGIN и LOGOUT ({@link #confirmed(String, byte[])}), а расширение
+ * WireMock видит токены запросов к /auth и /doAction в момент их поступления. По итогам прогона
+ * {@link #verify()} проверяет, что каждый успешно залогиненный токен дошёл до /auth ровно один раз
+ * и ни один ACTION после завершённого LOGOUT не дошёл до /doAction.
+ * <p>
+ * Токены хранятся упакованными в 128 бит в {@link TokenStateTable}: 32 HEX-символа упаковываются точно,
+ * токены из других символов (A-Z0-9 по ТЗ) — 128-битным хешем с пренебрежимо малой вероятностью коллизии.
+ * Расширение регистрируется глобально и ничего не делает, пока проверка не запущена через {@link #enable(long)}.
+ */
+public class OutboundTokenVerifier implements ServeEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboundTokenVerifier.class);
+
+    public static final String NAME = "outbound-token-verifier";
+
+    /** Число вызовов /auth: два младших бита, насыщение на 3. */
+    static final int AUTH_COUNT_MASK = 0b11;
+    static final int LOGIN_CONFIRMED = 1 << 2;
+    static final int LOGOUT_CONFIRMED = 1 << 3;
+    static final int ACTION_AFTER_LOGOUT = 1 << 4;
+
+    private static final int SAMPLE_LIMIT = 10;
+
+    private static volatile TokenStateTable table;
+    private static final LongAdder authRequests = new LongAdder();
+    private static final LongAdder doActionRequests = new LongAdder();
+    private static final LongAdder hashedRequests = new LongAdder();
+    private static final LongAdder unparsedRequests = new LongAdder();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Запросы фиксируются при поступлении, до сопоставления со стабом: время поступления ACTION
+     * сравнивается с моментом, когда клиент получил ответ на LOGOUT.
+     */
+    @Override
+    public void beforeMatch(ServeEvent serveEvent, Parameters parameters) {
+        TokenStateTable current = table;
+        if (current == null) {
+            return;
+        }
+        String url = serveEvent.getRequest().getUrl();
+        boolean auth = url.startsWith(MOCK_AUTH_PATH);
+        if (!auth && !url.startsWith(MOCK_DO_ACTION_PATH)) {
+            return;
+        }
+        (auth ? authRequests : doActionRequests).increment();
+        String body = serveEvent.getRequest().getBodyAsString();
+        int start = tokenStart(body);
+        if (start < 0) {
+            unparsedRequests.increment();
+            return;
+        }
+        byte[] token = new byte[TOKEN_LENGTH];
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            token[i] = (byte) body.charAt(start + i);
+        }
+        if (!isHex(token)) {
+            hashedRequests.increment();
+        }
+        long high = packHigh(token);
+        long low = packLow(token);
+        if (auth) {
+            current.update(high, low, 0, AUTH_COUNT_MASK);
+        } else if ((current.get(high, low) & LOGOUT_CONFIRMED) != 0) {
+            current.update(high, low, ACTION_AFTER_LOGOUT, 0);
+        }
+    }
+
+    /**
+     * Запускает проверку с пустой таблицей токенов.
+     *
+     * @param expectedTokens ожидаемое число сессий (для начального размера таблицы)
+     */
+    public static void enable(long expectedTokens) {
+        authRequests.reset();
+        doActionRequests.reset();
+        hashedRequests.reset();
+        unparsedRequests.reset();
+        table = new TokenStateTable(expectedTokens);
+        log.info("Проверка исходящих запросов запущена, ожидается до {} токенов", expectedTokens);
+    }
+
+    /**
+     * Останавливает проверку и освобождает таблицу.
+     */
+    public static void disable() {
+        table = null;
+    }
+
+    /**
+     * Фиксирует успешный ответ приложения (200, result OK) на LOGIN или LOGOUT.
+     * Для остальных действий и при остановленной проверке ничего не делает.
+     *
+     * @param action действие запроса
+     * @param token  токен в ASCII (32 байта)
+     */
+    public static void confirmed(String action, byte[] token) {
+        TokenStateTable current = table;
+        if (current == null) {
+            return;
+        }
+        int flag = ACTION_LOGIN.equals(action) ? LOGIN_CONFIRMED : ACTION_LOGOUT.equals(action) ? LOGOUT_CONFIRMED : 0;
+        if (flag != 0) {
+            current.update(packHigh(token), packLow(token), flag, 0);
+        }
+    }
+
+    /**
+     * Сверяет наблюдённые исходящие запросы с подтверждёнными LOGIN и LOGOUT.
+     *
+     * @return результат проверки
+     * @throws IllegalStateException если проверка не запущена
+     */
+    public static Verification verify() {
+        TokenStateTable current = table;
+        if (current == null) {
+            throw new IllegalStateException("Проверка исходящих запросов не запущена. Вызовите сначала enable()");
+        }
+        Verification result = new Verification(current.size(), current.memoryBytes(), authRequests.sum(),
+                doActionRequests.sum(), hashedRequests.sum(), unparsedRequests.sum());
+        current.forEach(result::visit);
+        log.info("Проверка исходящих запросов: {}", result.summary());
+        return result;
+    }
+
+    /**
+     * Позиция первого токена в теле запроса: первая последовательность ровно из 32 букв и цифр.
+     * Формат тела запроса приложения к внешнему сервису (форма или JSON) не важен.
+     */
+    static int tokenStart(String body) {
+        int run = 0;
+        for (int i = 0; i <= body.length(); i++) {
+            char c = i < body.length() ? body.charAt(i) : ' ';
+            if ((c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')) {
+                run++;
+            } else {
+                if (run == TOKEN_LENGTH) {
+                    return i - TOKEN_LENGTH;
+                }
+                run = 0;
+            }
+        }
+        return -1;
+    }
+
+    private static long packHigh(byte[] token) {
+        return isHex(token) ? pack(token, 0) : hash(token, 0xCBF29CE484222325L);
+    }
+
+    private static long packLow(byte[] token) {
+        return isHex(token) ? pack(token, TOKEN_LENGTH / 2) : hash(token, 0x84222325CBF29CE4L);
+    }
+
+    private static boolean isHex(byte[] token) {
+        for (byte b : token) {
+            if (Character.digit(b, 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long pack(byte[] token, int from) {
+        long value = 0;
+        for (int i = from; i < from + TOKEN_LENGTH / 2; i++) {
+            value = value << 4 | Character.digit(token[i], 16);
+        }
+        return value;
+    }
+
+    private static long hash(byte[] token, long seed) {
+        long h = seed;
+        for (byte b : token) {
+            h = (h ^ b) * 0x100000001B3L;
+            h ^= h >>> 29;
+        }
+        h *= 0xFF51AFD7ED558CCDL;
+        return h ^ (h >>> 33);
+    }
+
+    private static String unpack(long high, long low) {
+        return String.format("%016X%016X", high, low);
+    }
+
+    /**
+     * Результат проверки исходящих запросов.
+     */
+    public static final class Verification {
+        private final long tokens;
+        private final long memoryBytes;
+        private final long authRequests;
+        private final long doActionRequests;
+        private final long hashedRequests;
+        private final long unparsedRequests;
+        private long confirmedLogins;
+        private long missingAuth;
+        private long duplicateAuth;
+        private long unconfirmedAuth;
+        private long actionsAfterLogout;
+        private final List<String> samples = new ArrayList<>();
+
+        private Verification(long tokens, long memoryBytes, long authRequests, long doActionRequests,
+                             long hashedRequests, long unparsedRequests) {
+            this.tokens = tokens;
+            this.memoryBytes = memoryBytes;
+            this.authRequests = authRequests;
+            this.doActionRequests = doActionRequests;
+            this.hashedRequests = hashedRequests;
+            this.unparsedRequests = unparsedRequests;
+        }
+
+        private void visit(long high, long low, int state) {
+            int authCount = state & AUTH_COUNT_MASK;
+            if ((state & LOGIN_CONFIRMED) != 0) {
+                confirmedLogins++;
+                if (authCount == 0) {
+                    missingAuth++;
+                    sample("LOGIN без вызова /auth", high, low);
+                }
+            } else if (authCount > 0) {
+                unconfirmedAuth++;
+            }
+            if (authCount > 1) {
+                duplicateAuth++;
+                sample("/auth вызван " + (authCount == AUTH_COUNT_MASK ? "3+" : authCount) + " раза", high, low);
+            }
+            if ((state & ACTION_AFTER_LOGOUT) != 0) {
+                actionsAfterLogout++;
+                sample("/doAction после LOGOUT", high, low);
+            }
+        }
+
+        private void sample(String violation, long high, long low) {
+            if (samples.size() < SAMPLE_LIMIT) {
+                samples.add(violation + ": " + (hashedRequests > 0 ? "хеш " : "") + unpack(high, low));
+            }
+        }
+
+        /**
+         * Проверка пройдена: нет LOGIN без /auth, повторных /auth и /doAction после LOGOUT.
+         */
+        public boolean isSuccessful() {
+            return missingAuth == 0 && duplicateAuth == 0 && actionsAfterLogout == 0;
+        }
+
+        /**
+         * Все запросы к /auth с момента {@link #enable(long)}, включая запросы без распознанного токена.
+         */
+        public long getAuthRequests() {
+            return authRequests;
+        }
+
+        /**
+         * Все запросы к /doAction с момента {@link #enable(long)}, включая запросы без распознанного токена.
+         */
+        public long getDoActionRequests() {
+            return doActionRequests;
+        }
+
+        public long getConfirmedLogins() {
+            return confirmedLogins;
+        }
+
+        public long getMissingAuth() {
+            return missingAuth;
+        }
+
+        public long getDuplicateAuth() {
+            return duplicateAuth;
+        }
+
+        /**
+         * Токены, дошедшие до /auth без успешного LOGIN (например, внешний сервис ответил ошибкой). Не нарушение.
+         */
+        public long getUnconfirmedAuth() {
+            return unconfirmedAuth;
+        }
+
+        public long getActionsAfterLogout() {
+            return actionsAfterLogout;
+        }
+
+        public List<String> getSamples() {
+            return samples;
+        }
+
+        public String summary() {
+            return String.format("токенов=%d, успешных LOGIN=%d, LOGIN без /auth=%d, повторных /auth=%d, "
+                            + "/doAction после LOGOUT=%d, /auth без успешного LOGIN=%d",
+                    tokens, confirmedLogins, missingAuth, duplicateAuth, actionsAfterLogout, unconfirmedAuth);
+        }
+
+        /**
+         * Текстовый отчёт для лога и Allure.
+         */
+        public String toReport() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Проверка исходящих запросов: %s%n", isSuccessful() ? "пройдена" : "НАРУШЕНИЯ"));
+            sb.append(String.format("%s%n", summary()));
+            sb.append(String.format("Запросов к внешнему сервису: /auth=%d, /doAction=%d%n", authRequests, doActionRequests));
+            sb.append(String.format("Память таблицы токенов: %d КБ; запросов с токеном, упакованным хешем: %d; запросов без токена: %d%n",
+                    memoryBytes / 1024, hashedRequests, unparsedRequests));
+            samples.forEach(sample -> sb.append(String.format("  %s%n", sample)));
+            return sb.toString();
+        }
+    }
+}
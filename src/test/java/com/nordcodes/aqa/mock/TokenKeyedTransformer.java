@@ -0,0 +1,104 @@
+package com.nordcodes.aqa.mock;
+
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.extension.ResponseDefinitionTransformerV2;
+import com.github.tomakehurst.wiremock.http.ResponseDefinition;
+import com.github.tomakehurst.wiremock.stubbing.ServeEvent;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static com.nordcodes.aqa.config.TestConfig.TOKEN_LENGTH;
+
+/**
+ * Расширение WireMock, выбирающее статус ответа по токену в теле запроса: HEX-символ токена в заданной позиции
+ * (ключ) определяет статус по таблице из 16 значений. Ответ внешнего сервиса для каждого токена детерминирован,
+ * поэтому модель протокола знает его заранее ({@link #statusFor(String, CharSequence)}), а последовательность
+ * запросов с токеном воспроизводится на другом токене с тем же ключом.
+ * Применяется только к стабам, явно подключившим трансформер; запросы без HEX-ключа получают ответ стаба как есть.
+ */
+public class TokenKeyedTransformer implements ResponseDefinitionTransformerV2 {
+
+    public static final String NAME = "token-keyed";
+
+    private static final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    /**
+     * Задаёт таблицу статусов эндпоинта. Вступает в силу со следующего запроса.
+     *
+     * @param path     путь эндпоинта (например, /auth)
+     * @param keyIndex позиция символа токена, выбирающего статус (0..31)
+     * @param statuses статусы для HEX-значений ключа 0..F (16 значений)
+     */
+    public static void setStatuses(String path, int keyIndex, int[] statuses) {
+        if (keyIndex < 0 || keyIndex >= TOKEN_LENGTH || statuses.length != 16) {
+            throw new IllegalArgumentException("Нужна позиция ключа 0.." + (TOKEN_LENGTH - 1) + " и 16 статусов: "
+                    + keyIndex + ", " + Arrays.toString(statuses));
+        }
+        tables.put(path, new Table(keyIndex, statuses.clone()));
+    }
+
+    /**
+     * Удаляет все таблицы.
+     */
+    public static void clearStatuses() {
+        tables.clear();
+    }
+
+    /**
+     * Статус, которым эндпоинт ответит на запрос с токеном.
+     *
+     * @param path  путь эндпоинта
+     * @param token токен
+     * @return статус или -1, если для эндпоинта нет таблицы или ключ токена не HEX-символ
+     */
+    public static int statusFor(String path, CharSequence token) {
+        Table table = tables.get(path);
+        if (table == null) {
+            return -1;
+        }
+        int key = Character.digit(token.charAt(table.keyIndex), 16);
+        return key < 0 ? -1 : table.statuses[key];
+    }
+
+    /**
+     * Позиции символов токена, от которых зависят ответы эндпоинтов с таблицами. Токены, совпадающие
+     * в этих позициях, получают одинаковые ответы.
+     */
+    public static int[] keyIndexes() {
+        return tables.values().stream().mapToInt(table -> table.keyIndex).distinct().sorted().toArray();
+    }
+
+    @Override
+    public ResponseDefinition transform(ServeEvent serveEvent) {
+        ResponseDefinition original = serveEvent.getResponseDefinition();
+        String body = serveEvent.getRequest().getBodyAsString();
+        int start = OutboundTokenVerifier.tokenStart(body);
+        if (start < 0) {
+            return original;
+        }
+        int status = statusFor(serveEvent.getRequest().getUrl(), body.subSequence(start, start + TOKEN_LENGTH));
+        return status < 0 ? original : ResponseDefinitionBuilder.like(original).but().withStatus(status).build();
+    }
+
+    @Override
+    public boolean applyGlobally() {
+        return false;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    private static final class Table {
+        private final int keyIndex;
+        private final int[] statuses;
+
+        private Table(int keyIndex, int[] statuses) {
+            this.keyIndex = keyIndex;
+            this.statuses = statuses;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.nordcodes.aqa.mock;
+
+/**
+ * Компактная потокобезопасная таблица состояний токенов для {@link OutboundTokenVerifier}.
+ * <p>
+ * Токен хранится упакованным в два {@code long} (128 бит), состояние — в одном байте. Таблица разбита на
+ * полосы (stripes) с открытой адресацией и линейным пробированием в примитивных массивах: 17 байт на ячейку
+ * (23–45 байт на токен в зависимости от заполнения) и никаких объектов на запись, что позволяет проверять десятки миллионов сессий.
+ * Нулевой байт состояния означает пустую ячейку, поэтому любое сохранённое состояние ненулевое.
+ */
+final class TokenStateTable {
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+    private static final double MAX_LOAD = 0.75;
+    private static final int MIN_STRIPE_CAPACITY = 1024;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * @param expectedTokens ожидаемое число токенов (таблица растёт и сверх него)
+     */
+    TokenStateTable(long expectedTokens) {
+        long perStripe = (long) (expectedTokens / STRIPES / MAX_LOAD) + 1;
+        int capacity = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(MIN_STRIPE_CAPACITY, perStripe)) - 1) << 1;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(capacity);
+        }
+    }
+
+    /**
+     * Возвращает состояние токена или 0, если токена нет.
+     */
+    int get(long high, long low) {
+        long hash = hash(high, low);
+        Stripe stripe = stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+        synchronized (stripe) {
+            int slot = stripe.find(high, low, hash);
+            return slot < 0 ? 0 : stripe.states[slot];
+        }
+    }
+
+    /**
+     * Добавляет токену флаги состояния и, при {@code countMask != 0}, увеличивает счётчик в битах маски
+     * (с насыщением). Токен добавляется, если его не было.
+     *
+     * @param flags     флаги для установки
+     * @param countMask маска битов счётчика (младшие биты подряд) или 0
+     * @return новое состояние
+     */
+    int update(long high, long low, int flags, int countMask) {
+        long hash = hash(high, low);
+        Stripe stripe = stripes[(int) (hash >>> (64 - STRIPE_BITS))];
+        synchronized (stripe) {
+            int slot = stripe.findOrInsert(high, low, hash);
+            int state = stripe.states[slot] & 0xFF;
+            if (countMask != 0 && (state & countMask) != countMask) {
+                state++;
+            }
+            state |= flags;
+            stripe.states[slot] = (byte) state;
+            return state;
+        }
+    }
+
+    /**
+     * Обходит все токены. Полосы блокируются по очереди, поэтому обход рассчитан на завершённый прогон.
+     */
+    void forEach(Visitor visitor) {
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (int slot = 0; slot < stripe.states.length; slot++) {
+                    if (stripe.states[slot] != 0) {
+                        visitor.visit(stripe.keys[2 * slot], stripe.keys[2 * slot + 1], stripe.states[slot] & 0xFF);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Число токенов в таблице.
+     */
+    long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Объём массивов таблицы в байтах.
+     */
+    long memoryBytes() {
+        long bytes = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                bytes += stripe.states.length * (2L * Long.BYTES + 1);
+            }
+        }
+        return bytes;
+    }
+
+    interface Visitor {
+        void visit(long high, long low, int state);
+    }
+
+    private static long hash(long high, long low) {
+        long h = high * 0x9E3779B97F4A7C15L ^ Long.rotateLeft(low, 29);
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    private static final class Stripe {
+        private long[] keys;
+        private byte[] states;
+        private int mask;
+        private int size;
+
+        private Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[2 * capacity];
+            states = new byte[capacity];
+            mask = capacity - 1;
+            size = 0;
+        }
+
+        private int find(long high, long low, long hash) {
+            for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+                if (states[slot] == 0) {
+                    return -1;
+                }
+                if (keys[2 * slot] == high && keys[2 * slot + 1] == low) {
+                    return slot;
+                }
+            }
+        }
+
+        private int findOrInsert(long high, long low, long hash) {
+            if (size + 1 > states.length * MAX_LOAD) {
+                grow();
+            }
+            int slot = (int) hash & mask;
+            while (states[slot] != 0) {
+                if (keys[2 * slot] == high && keys[2 * slot + 1] == low) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[2 * slot] = high;
+            keys[2 * slot + 1] = low;
+            size++;
+            // Ячейка считается занятой после записи состояния вызывающим кодом; до этого её держит блокировка полосы
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            byte[] oldStates = states;
+            allocate(oldStates.length * 2);
+            for (int old = 0; old < oldStates.length; old++) {
+                if (oldStates[old] != 0) {
+                    long high = oldKeys[2 * old];
+                    long low = oldKeys[2 * old + 1];
+                    int slot = (int) hash(high, low) & mask;
+                    while (states[slot] != 0) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[2 * slot] = high;
+                    keys[2 * slot + 1] = low;
+                    states[slot] = oldStates[old];
+                    size++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.nordcodes.aqa.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог прогона {@link ModelFuzzer}: сколько переходов автомата проверено, какие переходы покрыты
+ * и какие последовательности разошлись с моделью (исходные и сокращённые до минимального воспроизведения).
+ */
+public class FuzzResult {
+
+    private final long seed;
+    private final int threads;
+    private final double elapsedSeconds;
+    private final long transitions;
+    private final long tokens;
+    private final long transportErrors;
+    private final Map<String, Long> coverage;
+    private final List<Failure> failures;
+
+    FuzzResult(long seed, int threads, double elapsedSeconds, long transitions, long tokens, long transportErrors,
+               Map<String, Long> coverage, List<Failure> failures) {
+        this.seed = seed;
+        this.threads = threads;
+        this.elapsedSeconds = elapsedSeconds;
+        this.transitions = transitions;
+        this.tokens = tokens;
+        this.transportErrors = transportErrors;
+        this.coverage = Collections.unmodifiableMap(coverage);
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getTransitions() {
+        return transitions;
+    }
+
+    public long getTokens() {
+        return tokens;
+    }
+
+    public long getTransportErrors() {
+        return transportErrors;
+    }
+
+    /**
+     * Число проверенных переходов по видам: состояние до запроса, действие и ответ внешнего сервиса.
+     */
+    public Map<String, Long> getCoverage() {
+        return coverage;
+    }
+
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Переходов в секунду.
+     */
+    public double getThroughput() {
+        return transitions / Math.max(elapsedSeconds, 1e-9);
+    }
+
+    /**
+     * Текстовый отчёт о прогоне.
+     */
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Seed: %d, потоков: %d, время: %.1f с%n", seed, threads, elapsedSeconds));
+        sb.append(String.format("Переходов: %d (%.0f/с), токенов: %d, ошибок транспорта: %d%n",
+                transitions, getThroughput(), tokens, transportErrors));
+        sb.append(String.format("%nПокрытие переходов:%n"));
+        coverage.forEach((transition, count) -> sb.append(String.format("  %-48s %12d%n", transition, count)));
+        sb.append(String.format("%nРасхождений с моделью: %d%n", failures.size()));
+        for (Failure failure : failures) {
+            sb.append(String.format("%n%s%n", failure));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Последовательность запросов с одним токеном, ответ на последний из которых разошёлся с моделью.
+     */
+    public static final class Failure {
+        private final String token;
+        private final String sequence;
+        private final String mismatch;
+        private final String shrunkToken;
+        private final String shrunkSequence;
+        private final String shrunkMismatch;
+
+        Failure(String token, String sequence, String mismatch, String shrunkToken, String shrunkSequence, String shrunkMismatch) {
+            this.token = token;
+            this.sequence = sequence;
+            this.mismatch = mismatch;
+            this.shrunkToken = shrunkToken;
+            this.shrunkSequence = shrunkSequence;
+            this.shrunkMismatch = shrunkMismatch;
+        }
+
+        public String getSequence() {
+            return sequence;
+        }
+
+        public String getMismatch() {
+            return mismatch;
+        }
+
+        /**
+         * Сокращённая последовательность или {@code null}, если расхождение не воспроизвелось на новом токене
+         * (или сокращение не выполнялось).
+         */
+        public String getShrunkSequence() {
+            return shrunkSequence;
+        }
+
+        public String getShrunkMismatch() {
+            return shrunkMismatch;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Токен %s: %s%n  последовательность: %s%n", token, mismatch, sequence));
+            if (shrunkSequence != null) {
+                sb.append(String.format("  минимальное воспроизведение (токен %s): %s%n  %s", shrunkToken, shrunkSequence, shrunkMismatch));
+            } else {
+                sb.append(String.format("  %s", shrunkMismatch));
+            }
+            return sb.toString();
+        }
+    }
+}
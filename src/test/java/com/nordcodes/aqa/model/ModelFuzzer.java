@@ -0,0 +1,362 @@
+package com.nordcodes.aqa.model;
+
+import com.nordcodes.aqa.client.PreparedResponse;
+import com.nordcodes.aqa.client.PreparedTransport;
+import com.nordcodes.aqa.client.RequestTemplate;
+import com.nordcodes.aqa.mock.TokenKeyedTransformer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Параллельное модельное тестирование протокола LOGIN/ACTION/LOGOUT.
+ * <p>
+ * Каждый поток владеет своим набором HEX-токенов и для каждого ведёт эталонное состояние {@link ProtocolModel}:
+ * выбирает случайный токен и случайное действие, отправляет запрос и сравнивает ответ с моделью. Наборы
+ * токенов потоков не пересекаются, поэтому запросы с одним токеном идут строго последовательно и модель
+ * однозначна без синхронизации. Ответы внешнего сервиса задаются {@link TokenKeyedTransformer} и зависят
+ * только от токена. Токен выводится из оборота после {@code maxSequenceLength} действий, ошибки транспорта
+ * или расхождения с моделью; на его место приходит новый.
+ * <p>
+ * Разошедшиеся последовательности после прогона сокращаются {@link SequenceShrinker} до минимального
+ * воспроизведения. Токены и последовательности потока выводятся из {@code seed}: генераторы потоков и генератор
+ * сокращения отщепляются от одного корневого генератора и не повторяют друг друга. Кроме того, в позиции
+ * {@link #markerIndex(int[])} токены потоков никогда не содержат {@link #REPLAY_MARKER}, а токены проигрываний
+ * содержат всегда, поэтому проигрывание не может попасть на токен с живой сессией из прогона.
+ */
+public class ModelFuzzer {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelFuzzer.class);
+
+    /** Веса действий при случайном выборе: LOGIN, ACTION, LOGOUT. */
+    private static final int[] ACTION_WEIGHTS = {30, 50, 20};
+    private static final int MAX_FAILURES = 20;
+    private static final int MAX_SHRUNK_FAILURES = 5;
+    private static final int MAX_SHRINK_REPLAYS = 400;
+    private static final String[] STATES = {"без сессии", "с сессией"};
+    /** Символ токена в позиции {@link #markerIndex(int[])}, зарезервированный за проигрываниями сокращения. */
+    static final char REPLAY_MARKER = 'F';
+
+    private final PreparedTransport transport;
+    private final int threads;
+    private final int tokensPerThread;
+    private final int maxSequenceLength;
+    private final long seed;
+    private final RequestTemplate[] templates = new RequestTemplate[ProtocolModel.ACTIONS.length];
+
+    /**
+     * @param transport         транспорт запросов (потокобезопасный)
+     * @param threads           число потоков
+     * @param tokensPerThread   число одновременно используемых токенов в потоке
+     * @param maxSequenceLength число действий, после которого токен заменяется новым
+     * @param seed              начальное значение генераторов потоков
+     */
+    public ModelFuzzer(PreparedTransport transport, int threads, int tokensPerThread, int maxSequenceLength, long seed) {
+        this.transport = transport;
+        this.threads = threads;
+        this.tokensPerThread = tokensPerThread;
+        this.maxSequenceLength = maxSequenceLength;
+        this.seed = seed;
+        for (int i = 0; i < templates.length; i++) {
+            templates[i] = RequestTemplate.of(ProtocolModel.ACTIONS[i]);
+        }
+    }
+
+    /**
+     * Выполняет прогон, пока не истечёт время, не будет проверено {@code maxTransitions} переходов
+     * или не наберётся предельное число расхождений, и сокращает первые расхождения.
+     *
+     * @param duration       предельная длительность прогона
+     * @param maxTransitions предельное число переходов
+     * @return итог прогона
+     */
+    public FuzzResult run(Duration duration, long maxTransitions) throws InterruptedException {
+        Stats stats = new Stats();
+        List<RawFailure> failures = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        int[] keyIndexes = TokenKeyedTransformer.keyIndexes();
+        int marker = markerIndex(keyIndexes);
+        SplittableRandom[] randoms = randoms(seed, threads);
+        AtomicInteger threadIndex = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "model-fuzzer-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        log.info("Модельное тестирование: {} потоков по {} токенов, seed={}", threads, tokensPerThread, seed);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                Worker worker = new Worker(randoms[t], marker, stats, failures, deadline, maxTransitions);
+                futures.add(pool.submit(() -> {
+                    worker.run();
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Поток модельного тестирования завершился ошибкой", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+        log.info("Модельное тестирование: {} переходов за {} с, расхождений: {}",
+                stats.transitions.sum(), String.format("%.1f", elapsedSeconds), failures.size());
+
+        SequenceShrinker shrinker = new SequenceShrinker(transport, templates, randoms[threads], keyIndexes, marker,
+                MAX_SHRINK_REPLAYS);
+        List<FuzzResult.Failure> reported = new ArrayList<>();
+        for (RawFailure failure : failures) {
+            if (reported.size() >= MAX_SHRUNK_FAILURES) {
+                reported.add(new FuzzResult.Failure(failure.token, sequenceToString(failure.sequence), failure.mismatch,
+                        null, null, "сокращение не выполнялось"));
+                continue;
+            }
+            SequenceShrinker.Replay shrunk = shrinker.shrink(failure.token, failure.sequence);
+            log.info("Сокращение последовательности из {} действий: {} проигрываний", failure.sequence.length, shrinker.getReplays());
+            reported.add(shrunk == null
+                    ? new FuzzResult.Failure(failure.token, sequenceToString(failure.sequence), failure.mismatch,
+                    null, null, "расхождение не воспроизвелось на новом токене")
+                    : new FuzzResult.Failure(failure.token, sequenceToString(failure.sequence), failure.mismatch,
+                    shrunk.token, sequenceToString(shrunk.sequence), shrunk.mismatch));
+        }
+        return new FuzzResult(seed, threads, elapsedSeconds, stats.transitions.sum(), stats.tokens.sum(),
+                stats.transportErrors.sum(), stats.coverage(), reported);
+    }
+
+    /**
+     * Генераторы прогона: по одному на поток и последний для {@link SequenceShrinker}. Все отщепляются
+     * от одного корневого генератора, поэтому их последовательности не совпадают ни при каком {@code seed}.
+     *
+     * @param seed    начальное значение прогона
+     * @param threads число потоков
+     * @return {@code threads + 1} генераторов
+     */
+    static SplittableRandom[] randoms(long seed, int threads) {
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] randoms = new SplittableRandom[threads + 1];
+        for (int i = 0; i < randoms.length; i++) {
+            randoms[i] = root.split();
+        }
+        return randoms;
+    }
+
+    /**
+     * Позиция маркера проигрываний: первая позиция токена, не являющаяся ключом {@link TokenKeyedTransformer}.
+     *
+     * @param keyIndexes позиции ключей
+     * @return позиция маркера
+     */
+    static int markerIndex(int[] keyIndexes) {
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            if (Arrays.binarySearch(keyIndexes, i) < 0) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("Все позиции токена заняты ключами: " + Arrays.toString(keyIndexes));
+    }
+
+    /**
+     * Новый токен потока: случайные HEX-символы, в позиции маркера — любой, кроме {@link #REPLAY_MARKER}.
+     *
+     * @param random генератор потока
+     * @param marker позиция маркера
+     * @return токен
+     */
+    static String fuzzerToken(SplittableRandom random, int marker) {
+        char[] token = new char[TOKEN_LENGTH];
+        for (int c = 0; c < TOKEN_LENGTH; c++) {
+            token[c] = hexDigit(random.nextInt(16));
+        }
+        token[marker] = hexDigit(random.nextInt(Character.digit(REPLAY_MARKER, 16)));
+        return new String(token);
+    }
+
+    static char hexDigit(int value) {
+        return Character.toUpperCase(Character.forDigit(value, 16));
+    }
+
+    /**
+     * Описание расхождения ответа с моделью.
+     */
+    static String describe(int step, byte action, boolean loggedIn, ProtocolModel.Expectation expected, int status, String result) {
+        return String.format("шаг %d %s (%s): ожидалось %s, получено %s", step + 1, ProtocolModel.ACTIONS[action],
+                STATES[loggedIn ? 1 : 0], expected, status < 0 ? "нет ответа: " + result : "status=" + status + ", result=" + result);
+    }
+
+    private static String sequenceToString(byte[] sequence) {
+        StringBuilder sb = new StringBuilder();
+        for (byte action : sequence) {
+            sb.append(sb.length() == 0 ? "" : " ").append(ProtocolModel.ACTIONS[action]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Поток тестирования со своим набором токенов.
+     */
+    private final class Worker {
+        private final SplittableRandom random;
+        private final int marker;
+        private final Stats stats;
+        private final List<RawFailure> failures;
+        private final long deadline;
+        private final long maxTransitions;
+        private final String[] tokens = new String[tokensPerThread];
+        private final byte[][] tokenBytes = new byte[tokensPerThread][];
+        private final boolean[] loggedIn = new boolean[tokensPerThread];
+        private final byte[][] history = new byte[tokensPerThread][maxSequenceLength];
+        private final int[] lengths = new int[tokensPerThread];
+
+        private Worker(SplittableRandom random, int marker, Stats stats, List<RawFailure> failures, long deadline,
+                       long maxTransitions) {
+            this.random = random;
+            this.marker = marker;
+            this.stats = stats;
+            this.failures = failures;
+            this.deadline = deadline;
+            this.maxTransitions = maxTransitions;
+            for (int i = 0; i < tokensPerThread; i++) {
+                replace(i);
+            }
+        }
+
+        private void run() {
+            while (System.nanoTime() < deadline && stats.transitions.sum() < maxTransitions && !enoughFailures()) {
+                // Проверка счётчиков дорога для каждого перехода, поэтому между проверками выполняется пачка
+                for (int batch = 0; batch < 64; batch++) {
+                    step(random.nextInt(tokensPerThread));
+                }
+            }
+        }
+
+        private void step(int i) {
+            byte action = nextAction();
+            boolean before = loggedIn[i];
+            ProtocolModel.Expectation expected = ProtocolModel.expect(before, action, tokens[i]);
+            history[i][lengths[i]++] = action;
+            PreparedResponse response;
+            try {
+                response = transport.execute(templates[action], tokenBytes[i]);
+            } catch (IOException e) {
+                // Без ответа состояние сессии неизвестно: токен выводится из оборота
+                stats.transportErrors.increment();
+                replace(i);
+                return;
+            }
+            stats.transitions.increment();
+            stats.cover(before, action, upstreamStatus(action, tokens[i]));
+            if (!expected.matches(response.getStatusCode(), response.getResult())) {
+                synchronized (failures) {
+                    if (failures.size() < MAX_FAILURES) {
+                        failures.add(new RawFailure(tokens[i], Arrays.copyOf(history[i], lengths[i]),
+                                describe(lengths[i] - 1, action, before, expected, response.getStatusCode(), response.getResult())));
+                    }
+                }
+                replace(i);
+                return;
+            }
+            loggedIn[i] = expected.loggedInAfter();
+            if (lengths[i] == maxSequenceLength) {
+                replace(i);
+            }
+        }
+
+        private boolean enoughFailures() {
+            synchronized (failures) {
+                return failures.size() >= MAX_FAILURES;
+            }
+        }
+
+        private byte nextAction() {
+            int roll = random.nextInt(100);
+            byte action = 0;
+            while (roll >= ACTION_WEIGHTS[action]) {
+                roll -= ACTION_WEIGHTS[action];
+                action++;
+            }
+            return action;
+        }
+
+        private void replace(int i) {
+            tokens[i] = fuzzerToken(random, marker);
+            tokenBytes[i] = tokens[i].getBytes(StandardCharsets.US_ASCII);
+            loggedIn[i] = false;
+            lengths[i] = 0;
+            stats.tokens.increment();
+        }
+    }
+
+    /**
+     * Статус внешнего сервиса, участвующий в переходе, или 0, если приложение к нему не обращается.
+     */
+    private static int upstreamStatus(byte action, String token) {
+        if (action == ProtocolModel.LOGIN) {
+            return TokenKeyedTransformer.statusFor(MOCK_AUTH_PATH, token);
+        }
+        return action == ProtocolModel.ACTION ? TokenKeyedTransformer.statusFor(MOCK_DO_ACTION_PATH, token) : 0;
+    }
+
+    /**
+     * Общие счётчики потоков.
+     */
+    private static final class Stats {
+        private final LongAdder transitions = new LongAdder();
+        private final LongAdder tokens = new LongAdder();
+        private final LongAdder transportErrors = new LongAdder();
+        private final Map<Integer, LongAdder> coverage = new ConcurrentHashMap<>();
+
+        private void cover(boolean loggedIn, byte action, int upstreamStatus) {
+            // Внешний сервис вызывается только при LOGIN без сессии и ACTION с сессией
+            boolean upstreamCalled = action == ProtocolModel.LOGIN ? !loggedIn : action == ProtocolModel.ACTION && loggedIn;
+            int key = (loggedIn ? 1 : 0) << 16 | action << 12 | (upstreamCalled ? upstreamStatus & 0xFFF : 0);
+            coverage.computeIfAbsent(key, k -> new LongAdder()).increment();
+        }
+
+        private Map<String, Long> coverage() {
+            Map<String, Long> result = new TreeMap<>();
+            coverage.forEach((key, count) -> {
+                int upstreamStatus = key & 0xFFF;
+                result.put(ProtocolModel.ACTIONS[key >> 12 & 0xF] + " " + STATES[key >> 16]
+                        + (upstreamStatus != 0 ? ", внешний сервис " + upstreamStatus : ""), count.sum());
+            });
+            return result;
+        }
+    }
+
+    /**
+     * Расхождение до сокращения.
+     */
+    private static final class RawFailure {
+        private final String token;
+        private final byte[] sequence;
+        private final String mismatch;
+
+        private RawFailure(String token, byte[] sequence, String mismatch) {
+            this.token = token;
+            this.sequence = sequence;
+            this.mismatch = mismatch;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.nordcodes.aqa.model;
+
+import com.nordcodes.aqa.mock.TokenKeyedTransformer;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Эталонный автомат протокола LOGIN/ACTION/LOGOUT для одного HEX-токена (фактическое поведение приложения,
+ * см. {@code AppEndpointHexE2ETest}). Состояние токена — есть ли активная сессия; ответ внешнего сервиса
+ * задаётся {@link TokenKeyedTransformer} и для токена известен заранее.
+ * <ul>
+ *     <li>LOGIN без сессии: /auth отвечает 200 — OK и сессия открыта, иначе ERROR;</li>
+ *     <li>LOGIN при активной сессии: 409 и ERROR без обращения к /auth;</li>
+ *     <li>ACTION при активной сессии: /doAction отвечает 200 — OK, иначе ERROR, сессия сохраняется;</li>
+ *     <li>ACTION без сессии: ERROR без обращения к /doAction;</li>
+ *     <li>LOGOUT при активной сессии: OK и сессия закрыта, без сессии — ERROR.</li>
+ * </ul>
+ */
+public final class ProtocolModel {
+
+    /** Действия протокола; индекс действия используется в компактной записи последовательностей. */
+    static final String[] ACTIONS = {ACTION_LOGIN, ACTION_ACTION, ACTION_LOGOUT};
+    static final byte LOGIN = 0;
+    static final byte ACTION = 1;
+    static final byte LOGOUT = 2;
+
+    private ProtocolModel() {
+    }
+
+    /**
+     * Ожидаемый ответ приложения и следующее состояние токена.
+     *
+     * @param loggedIn есть ли активная сессия
+     * @param action   индекс действия ({@link #LOGIN}, {@link #ACTION}, {@link #LOGOUT})
+     * @param token    токен (для ответа внешнего сервиса)
+     * @return ожидание
+     */
+    static Expectation expect(boolean loggedIn, byte action, CharSequence token) {
+        switch (action) {
+            case LOGIN:
+                if (loggedIn) {
+                    return new Expectation(RESULT_ERROR, HTTP_CONFLICT, true);
+                }
+                boolean authorized = TokenKeyedTransformer.statusFor(MOCK_AUTH_PATH, token) == HTTP_OK;
+                return authorized ? new Expectation(RESULT_OK, HTTP_OK, true) : new Expectation(RESULT_ERROR, 0, false);
+            case ACTION:
+                if (!loggedIn) {
+                    return new Expectation(RESULT_ERROR, 0, false);
+                }
+                boolean done = TokenKeyedTransformer.statusFor(MOCK_DO_ACTION_PATH, token) == HTTP_OK;
+                return done ? new Expectation(RESULT_OK, HTTP_OK, true) : new Expectation(RESULT_ERROR, 0, true);
+            case LOGOUT:
+                return loggedIn ? new Expectation(RESULT_OK, HTTP_OK, false) : new Expectation(RESULT_ERROR, 0, false);
+            default:
+                throw new IllegalArgumentException("Неизвестное действие: " + action);
+        }
+    }
+
+    /**
+     * Ожидаемый ответ на запрос и состояние токена после него.
+     */
+    static final class Expectation {
+        private final String result;
+        private final int status;
+        private final boolean loggedInAfter;
+
+        /**
+         * @param status ожидаемый статус или 0, если для ERROR статус не фиксирован
+         */
+        Expectation(String result, int status, boolean loggedInAfter) {
+            this.result = result;
+            this.status = status;
+            this.loggedInAfter = loggedInAfter;
+        }
+
+        boolean loggedInAfter() {
+            return loggedInAfter;
+        }
+
+        /**
+         * Совпадает ли ответ с ожиданием: для ERROR без фиксированного статуса проверяется только result,
+         * как и в E2E-тестах.
+         */
+        boolean matches(int actualStatus, String actualResult) {
+            return result.equals(actualResult) && (status == 0 || actualStatus == status);
+        }
+
+        @Override
+        public String toString() {
+            return "result=" + result + (status != 0 ? ", status=" + status : "");
+        }
+    }
+}
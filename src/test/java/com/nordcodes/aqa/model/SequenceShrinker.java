@@ -0,0 +1,137 @@
+package com.nordcodes.aqa.model;
+
+import com.nordcodes.aqa.client.PreparedResponse;
+import com.nordcodes.aqa.client.PreparedTransport;
+import com.nordcodes.aqa.client.RequestTemplate;
+import com.nordcodes.aqa.mock.TokenKeyedTransformer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Сокращение последовательности, разошедшейся с моделью, до минимального воспроизведения.
+ * Каждая попытка проигрывается последовательно на новом токене, совпадающем с исходным в ключевых позициях
+ * {@link TokenKeyedTransformer}, поэтому внешний сервис отвечает ему так же. Токен проигрывания несёт
+ * {@link ModelFuzzer#REPLAY_MARKER} и не совпадает ни с одним токеном прогона, так что сессия у него всегда новая. Из последовательности удаляются
+ * отрезки убывающей длины (как в delta debugging), пока расхождение сохраняется; после каждого удачного
+ * сокращения хвост за первым расхождением отбрасывается.
+ */
+final class SequenceShrinker {
+
+    private final PreparedTransport transport;
+    private final RequestTemplate[] templates;
+    private final SplittableRandom random;
+    private final int[] keyIndexes;
+    private final int marker;
+    private final int maxReplays;
+    private int replays;
+
+    SequenceShrinker(PreparedTransport transport, RequestTemplate[] templates, SplittableRandom random, int[] keyIndexes,
+                     int marker, int maxReplays) {
+        this.transport = transport;
+        this.templates = templates;
+        this.random = random;
+        this.keyIndexes = keyIndexes;
+        this.marker = marker;
+        this.maxReplays = maxReplays;
+    }
+
+    /**
+     * Сокращает последовательность.
+     *
+     * @param token    исходный токен (для ключевых позиций)
+     * @param sequence действия исходной последовательности
+     * @return сокращённая последовательность или {@code null}, если расхождение не воспроизвелось
+     */
+    Replay shrink(String token, byte[] sequence) {
+        replays = 0;
+        Replay best = replay(token, sequence);
+        if (best.mismatchIndex < 0) {
+            return null;
+        }
+        for (int chunk = best.sequence.length / 2; chunk >= 1; chunk /= 2) {
+            int start = 0;
+            while (start < best.sequence.length && best.sequence.length > 1 && replays < maxReplays) {
+                byte[] candidate = without(best.sequence, start, Math.min(start + chunk, best.sequence.length));
+                Replay attempt = replay(token, candidate);
+                if (attempt.mismatchIndex >= 0) {
+                    best = attempt;
+                } else {
+                    start += chunk;
+                }
+            }
+        }
+        return best;
+    }
+
+    int getReplays() {
+        return replays;
+    }
+
+    /**
+     * Проигрывает последовательность на новом токене до первого расхождения с моделью.
+     */
+    private Replay replay(String original, byte[] sequence) {
+        replays++;
+        String token = replayToken(random, original, keyIndexes, marker);
+        byte[] tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
+        boolean loggedIn = false;
+        for (int i = 0; i < sequence.length; i++) {
+            ProtocolModel.Expectation expected = ProtocolModel.expect(loggedIn, sequence[i], token);
+            String mismatch;
+            try {
+                PreparedResponse response = transport.execute(templates[sequence[i]], tokenBytes);
+                if (expected.matches(response.getStatusCode(), response.getResult())) {
+                    loggedIn = expected.loggedInAfter();
+                    continue;
+                }
+                mismatch = ModelFuzzer.describe(i, sequence[i], loggedIn, expected, response.getStatusCode(), response.getResult());
+            } catch (IOException e) {
+                mismatch = ModelFuzzer.describe(i, sequence[i], loggedIn, expected, -1, e.getClass().getSimpleName());
+            }
+            return new Replay(token, Arrays.copyOf(sequence, i + 1), i, mismatch);
+        }
+        return new Replay(token, sequence, -1, null);
+    }
+
+    /**
+     * Токен проигрывания: ключевые позиции исходного токена, маркер проигрываний, остальное случайно.
+     */
+    static String replayToken(SplittableRandom random, String original, int[] keyIndexes, int marker) {
+        char[] token = new char[original.length()];
+        for (int i = 0; i < token.length; i++) {
+            token[i] = ModelFuzzer.hexDigit(random.nextInt(16));
+        }
+        for (int key : keyIndexes) {
+            token[key] = original.charAt(key);
+        }
+        token[marker] = ModelFuzzer.REPLAY_MARKER;
+        return new String(token);
+    }
+
+    private static byte[] without(byte[] sequence, int from, int to) {
+        byte[] result = new byte[sequence.length - (to - from)];
+        System.arraycopy(sequence, 0, result, 0, from);
+        System.arraycopy(sequence, to, result, from, sequence.length - to);
+        return result;
+    }
+
+    /**
+     * Результат проигрывания: последовательность до первого расхождения включительно.
+     */
+    static final class Replay {
+        final String token;
+        final byte[] sequence;
+        final int mismatchIndex;
+        final String mismatch;
+
+        private Replay(String token, byte[] sequence, int mismatchIndex, String mismatch) {
+            this.token = token;
+            this.sequence = sequence;
+            this.mismatchIndex = mismatchIndex;
+            this.mismatch = mismatch;
+        }
+    }
+}
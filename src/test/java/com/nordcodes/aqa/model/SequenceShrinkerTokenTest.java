@@ -0,0 +1,99 @@
+package com.nordcodes.aqa.model;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static com.nordcodes.aqa.config.TestConfig.TOKEN_LENGTH;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: модельное тестирование протокола")
+@DisplayName("Токены проигрываний SequenceShrinker не пересекаются с токенами прогона ModelFuzzer")
+public class SequenceShrinkerTokenTest {
+
+    private static final int THREADS = 4;
+    private static final int TOKENS_PER_STREAM = 20_000;
+    private static final int[] KEY_INDEXES = {TOKEN_LENGTH - 2, TOKEN_LENGTH - 1};
+
+    @Test
+    @DisplayName("При любом seed ни один токен проигрывания не совпадает с токеном потока")
+    void givenSameSeed_whenReplayTokensGenerated_thenNoneMatchesFuzzerToken() {
+        for (long seed : new long[]{0, 1, -1, 42, Long.MIN_VALUE}) {
+            // given
+            int marker = ModelFuzzer.markerIndex(KEY_INDEXES);
+            SplittableRandom[] randoms = ModelFuzzer.randoms(seed, THREADS);
+            Set<String> fuzzerTokens = new HashSet<>();
+            List<String> originals = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                for (int i = 0; i < TOKENS_PER_STREAM; i++) {
+                    String token = ModelFuzzer.fuzzerToken(randoms[t], marker);
+                    fuzzerTokens.add(token);
+                    if (t == 0) {
+                        originals.add(token);
+                    }
+                }
+            }
+
+            // when
+            List<String> replayTokens = new ArrayList<>();
+            for (String original : originals) {
+                replayTokens.add(SequenceShrinker.replayToken(randoms[THREADS], original, KEY_INDEXES, marker));
+            }
+
+            // then
+            long seedForMessage = seed;
+            assertAll(
+                    () -> assertTrue(fuzzerTokens.stream().noneMatch(token -> token.charAt(marker) == ModelFuzzer.REPLAY_MARKER),
+                            "Токены потоков не должны содержать маркер проигрываний, seed=" + seedForMessage),
+                    () -> assertTrue(replayTokens.stream().allMatch(token -> token.charAt(marker) == ModelFuzzer.REPLAY_MARKER),
+                            "Токены проигрываний должны содержать маркер, seed=" + seedForMessage),
+                    () -> assertTrue(replayTokens.stream().noneMatch(fuzzerTokens::contains),
+                            "Токен проигрывания не должен совпадать с токеном прогона, seed=" + seedForMessage));
+        }
+    }
+
+    @Test
+    @DisplayName("Генератор сокращения не повторяет генератор первого потока")
+    void givenSeed_whenRandomsSplit_thenShrinkerStreamDiffersFromWorkerStreams() {
+        // given
+        SplittableRandom[] randoms = ModelFuzzer.randoms(0, THREADS);
+
+        // when
+        long shrinkerFirst = randoms[THREADS].nextLong();
+        Set<Long> workerFirst = new HashSet<>();
+        for (int t = 0; t < THREADS; t++) {
+            workerFirst.add(randoms[t].nextLong());
+        }
+
+        // then
+        assertEquals(THREADS, workerFirst.size(), "Генераторы потоков должны различаться");
+        assertFalse(workerFirst.contains(shrinkerFirst), "Генератор сокращения не должен совпадать с генератором потока");
+    }
+
+    @Test
+    @DisplayName("Токен проигрывания сохраняет ключевые символы исходного токена, маркер стоит вне ключей")
+    void givenOriginalToken_whenReplayTokenGenerated_thenKeyCharsPreserved() {
+        // given
+        int marker = ModelFuzzer.markerIndex(KEY_INDEXES);
+        String original = ModelFuzzer.fuzzerToken(new SplittableRandom(7), marker);
+
+        // when
+        String replay = SequenceShrinker.replayToken(new SplittableRandom(8), original, KEY_INDEXES, marker);
+
+        // then
+        assertEquals(0, marker, "Маркер занимает первую позицию, не являющуюся ключом");
+        assertEquals(1, ModelFuzzer.markerIndex(new int[]{0, TOKEN_LENGTH - 1}), "Маркер не может совпадать с ключом");
+        assertEquals(TOKEN_LENGTH, replay.length());
+        for (int key : KEY_INDEXES) {
+            assertEquals(original.charAt(key), replay.charAt(key), "Ключевой символ " + key + " должен совпадать");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.nordcodes.aqa.scenario;
+
+/**
+ * Ожидаемый результат шага сценария: HTTP-статус и значение поля result.
+ * Незаданные поля не проверяются.
+ */
+public final class Expectation {
+
+    /** Значение статуса, означающее «статус не проверяется». */
+    public static final int ANY_STATUS = -1;
+
+    private final int status;
+    private final String result;
+
+    Expectation(int status, String result) {
+        this.status = status;
+        this.result = result;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    /**
+     * Проверяет ответ на соответствие ожиданию.
+     *
+     * @param actualStatus статус ответа
+     * @param actualResult значение поля result (может быть {@code null})
+     * @return true, если ответ соответствует ожиданию
+     */
+    public boolean matches(int actualStatus, String actualResult) {
+        return (status == ANY_STATUS || status == actualStatus)
+                && (result == null || result.equals(actualResult));
+    }
+
+    @Override
+    public String toString() {
+        return "status=" + (status == ANY_STATUS ? "*" : String.valueOf(status)) + ", result=" + (result == null ? "*" : result);
+    }
+}
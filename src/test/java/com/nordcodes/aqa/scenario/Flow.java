@@ -0,0 +1,63 @@
+package com.nordcodes.aqa.scenario;
+
+import com.nordcodes.aqa.utils.TokenGenerator;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Пользовательский поток сценария: последовательность шагов, выполняемая с одним новым токеном.
+ */
+public final class Flow {
+
+    /**
+     * Формат токена, генерируемого для каждого выполнения потока.
+     */
+    public enum TokenFormat {
+        /** HEX-токен 0-9A-F, который фактически ожидает приложение. */
+        HEX,
+        /** Токен A-Z0-9 по ТЗ. */
+        SPEC;
+
+        byte[] newToken() {
+            return this == HEX ? TokenGenerator.generateHexTokenBytes() : TokenGenerator.generateValidTokenBytes();
+        }
+    }
+
+    private final String name;
+    private final int weight;
+    private final TokenFormat tokenFormat;
+    private final List<Step> steps;
+
+    Flow(String name, int weight, TokenFormat tokenFormat, List<Step> steps) {
+        this.name = name;
+        this.weight = weight;
+        this.tokenFormat = tokenFormat;
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public TokenFormat getTokenFormat() {
+        return tokenFormat;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Генерирует новый токен в формате потока.
+     *
+     * @return токен в байтах ASCII
+     */
+    public byte[] newToken() {
+        return tokenFormat.newToken();
+    }
+}
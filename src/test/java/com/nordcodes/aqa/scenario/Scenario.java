@@ -0,0 +1,208 @@
+package com.nordcodes.aqa.scenario;
+
+import com.nordcodes.aqa.client.RequestTemplate;
+import io.restassured.path.json.JsonPath;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+
+/**
+ * Декларативный нагрузочный сценарий: набор взвешенных пользовательских потоков.
+ * Описывается JSON-файлом в {@code src/test/resources/scenarios} и компилируется один раз
+ * в неизменяемые шаблоны запросов ({@link RequestTemplate}); одинаковые запросы разных шагов
+ * используют общий шаблон.
+ *
+ * <pre>
+ * {
+ *   "name": "Смешанный трафик",
+ *   "flows": [
+ *     {
+ *       "name": "login-action-logout",
+ *       "weight": 80,
+ *       "token": "hex",
+ *       "steps": [
+ *         {"action": "LOGIN", "expect": {"status": 200, "result": "OK"}, "thinkTimeMs": 5},
+ *         {"action": "ACTION", "expect": {"status": 200, "result": "OK"}},
+ *         {"action": "LOGOUT", "expect": {"status": 200, "result": "OK"}}
+ *       ]
+ *     }
+ *   ]
+ * }
+ * </pre>
+ * Необязательные поля шага: {@code expect} (без него ожидается 200 и OK), {@code thinkTimeMs},
+ * {@code withoutApiKey} (true — запрос без X-Api-Key), {@code contentType} (произвольный Content-Type),
+ * {@code negative} (true — негативный трафик: разрешает action вне LOGIN, ACTION, LOGOUT).
+ * Неизвестные поля сценария, потока, шага и {@code expect} отклоняются, чтобы опечатка не меняла профиль нагрузки.
+ * Поле потока {@code token}: {@code hex} (по умолчанию) или {@code spec} (A-Z0-9 по ТЗ), другие значения отклоняются;
+ * {@code weight} — неотрицательный вес потока (по умолчанию 1).
+ */
+public final class Scenario {
+
+    private static final Set<String> SCENARIO_KEYS = Set.of("name", "flows");
+    private static final Set<String> FLOW_KEYS = Set.of("name", "weight", "token", "steps");
+    private static final Set<String> STEP_KEYS = Set.of("action", "expect", "thinkTimeMs", "withoutApiKey", "contentType", "negative");
+    private static final Set<String> EXPECT_KEYS = Set.of("status", "result");
+    private static final Set<String> ACTIONS = Set.of(ACTION_LOGIN, ACTION_ACTION, ACTION_LOGOUT);
+
+    private final String name;
+    private final List<Flow> flows;
+    private final int[] cumulativeWeights;
+
+    private Scenario(String name, List<Flow> flows) {
+        if (flows.isEmpty()) {
+            throw new IllegalArgumentException("Сценарий '" + name + "' не содержит потоков");
+        }
+        this.name = name;
+        this.flows = Collections.unmodifiableList(flows);
+        this.cumulativeWeights = new int[flows.size()];
+        int total = 0;
+        for (int i = 0; i < flows.size(); i++) {
+            total += flows.get(i).getWeight();
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("Сумма весов потоков сценария '" + name + "' должна быть больше нуля");
+        }
+    }
+
+    /**
+     * Загружает и компилирует сценарий из ресурсов теста.
+     *
+     * @param resource путь к ресурсу (например, scenarios/mixed-traffic.json)
+     * @return скомпилированный сценарий
+     */
+    public static Scenario load(String resource) {
+        try (InputStream in = Scenario.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Файл сценария не найден: " + resource);
+            }
+            return compile(JsonPath.from(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new IllegalStateException("Не удалось прочитать сценарий " + resource, e);
+        }
+    }
+
+    private static Scenario compile(JsonPath json) {
+        String name = json.getString("name");
+        checkKeys(json.getMap("$"), SCENARIO_KEYS, "сценария '" + name + "'");
+        Map<String, RequestTemplate> templates = new HashMap<>();
+        List<Flow> flows = new ArrayList<>();
+        List<Map<String, Object>> flowDefinitions = json.getList("flows");
+        if (flowDefinitions == null) {
+            throw new IllegalArgumentException("В сценарии '" + name + "' нет раздела flows");
+        }
+        for (Map<String, Object> flow : flowDefinitions) {
+            String flowName = String.valueOf(flow.get("name"));
+            checkKeys(flow, FLOW_KEYS, "потока '" + flowName + "'");
+            int weight = intValue(flow.get("weight"), 1);
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вес потока '" + flowName + "' не может быть отрицательным: " + weight);
+            }
+            Flow.TokenFormat tokenFormat = tokenFormat(flowName, flow.get("token"));
+
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> stepDefinitions = (List<Map<String, Object>>) flow.get("steps");
+            if (stepDefinitions == null || stepDefinitions.isEmpty()) {
+                throw new IllegalArgumentException("Поток '" + flowName + "' не содержит шагов");
+            }
+            List<Step> steps = new ArrayList<>();
+            for (Map<String, Object> step : stepDefinitions) {
+                steps.add(compileStep(step, templates));
+            }
+            flows.add(new Flow(flowName, weight, tokenFormat, steps));
+        }
+        return new Scenario(name, flows);
+    }
+
+    private static Step compileStep(Map<String, Object> step, Map<String, RequestTemplate> templates) {
+        checkKeys(step, STEP_KEYS, "шага " + step);
+        Object action = step.get("action");
+        if (action == null) {
+            throw new IllegalArgumentException("У шага не задано поле action: " + step);
+        }
+        if (!ACTIONS.contains(String.valueOf(action)) && !Boolean.TRUE.equals(step.get("negative"))) {
+            throw new IllegalArgumentException("Неизвестный action " + action + " (допустимы " + ACTIONS
+                    + "; для негативного трафика укажите \"negative\": true): " + step);
+        }
+        boolean withoutApiKey = Boolean.TRUE.equals(step.get("withoutApiKey"));
+        String contentType = step.containsKey("contentType")
+                ? String.valueOf(step.get("contentType")) : CONTENT_TYPE_FORM_URLENCODED;
+        String key = action + "|" + withoutApiKey + "|" + contentType;
+        RequestTemplate template = templates.computeIfAbsent(key, k -> {
+            Map<String, String> headers = new LinkedHashMap<>();
+            if (!withoutApiKey) {
+                headers.put(HEADER_X_API_KEY, APP_API_KEY);
+            }
+            headers.put(HEADER_CONTENT_TYPE, contentType);
+            headers.put(HEADER_ACCEPT, CONTENT_TYPE_JSON);
+            return RequestTemplate.withHeaders(String.valueOf(action), headers);
+        });
+
+        Expectation expectation = new Expectation(HTTP_OK, RESULT_OK);
+        if (step.get("expect") instanceof Map) {
+            Map<?, ?> expect = (Map<?, ?>) step.get("expect");
+            checkKeys(expect, EXPECT_KEYS, "expect шага " + step);
+            expectation = new Expectation(intValue(expect.get("status"), Expectation.ANY_STATUS),
+                    expect.get("result") == null ? null : String.valueOf(expect.get("result")));
+        }
+        return new Step(template, expectation, intValue(step.get("thinkTimeMs"), 0));
+    }
+
+    private static void checkKeys(Map<?, ?> definition, Set<String> allowed, String owner) {
+        Set<Object> unknown = new HashSet<>(definition.keySet());
+        unknown.removeAll(allowed);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Неизвестные поля " + owner + ": " + unknown + " (допустимы " + allowed + ")");
+        }
+    }
+
+    private static Flow.TokenFormat tokenFormat(String flowName, Object value) {
+        if (value == null || "hex".equalsIgnoreCase(String.valueOf(value))) {
+            return Flow.TokenFormat.HEX;
+        }
+        if ("spec".equalsIgnoreCase(String.valueOf(value))) {
+            return Flow.TokenFormat.SPEC;
+        }
+        throw new IllegalArgumentException("Неизвестный формат токена потока '" + flowName + "': " + value
+                + " (допустимы hex и spec)");
+    }
+
+    private static int intValue(Object value, int defaultValue) {
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Flow> getFlows() {
+        return flows;
+    }
+
+    /**
+     * Выбирает случайный поток с учётом весов.
+     *
+     * @return поток сценария
+     */
+    public Flow nextFlow() {
+        int point = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (point < cumulativeWeights[i]) {
+                return flows.get(i);
+            }
+        }
+        return flows.get(flows.size() - 1);
+    }
+}
@@ -0,0 +1,65 @@
+package com.nordcodes.aqa.scenario;
+
+import com.nordcodes.aqa.client.PreparedResponse;
+import com.nordcodes.aqa.client.PreparedTransport;
+import com.nordcodes.aqa.load.LoadRecorder;
+import com.nordcodes.aqa.load.LoadTask;
+import com.nordcodes.aqa.mock.OutboundTokenVerifier;
+
+import java.io.IOException;
+
+import static com.nordcodes.aqa.config.TestConfig.HTTP_OK;
+import static com.nordcodes.aqa.config.TestConfig.RESULT_OK;
+
+/**
+ * Итерация нагрузки по декларативному сценарию: выбирает взвешенный поток,
+ * генерирует для него новый токен и выполняет шаги по заранее собранным шаблонам запросов.
+ * Запрос считается успешным, если ответ соответствует ожиданию шага; при расхождении поток прерывается.
+ * Запросы отправляются через {@link PreparedTransport}: RestAssured ({@code AppClient}) или NIO с конвейеризацией.
+ * Успешные LOGIN и LOGOUT передаются в {@link OutboundTokenVerifier}, если проверка исходящих запросов запущена.
+ */
+public class ScenarioTask implements LoadTask {
+
+    private final Scenario scenario;
+    private final PreparedTransport transport;
+
+    public ScenarioTask(Scenario scenario, PreparedTransport transport) {
+        this.scenario = scenario;
+        this.transport = transport;
+    }
+
+    @Override
+    public void execute(LoadRecorder recorder) throws InterruptedException {
+        Flow flow = scenario.nextFlow();
+        byte[] token = flow.newToken();
+        for (Step step : flow.getSteps()) {
+            long start = System.nanoTime();
+            PreparedResponse response;
+            try {
+                response = transport.execute(step.getTemplate(), token);
+            } catch (IOException e) {
+                recorder.record(step.getAction(), flow.getName(), System.nanoTime() - start,
+                        LoadRecorder.STATUS_TRANSPORT_ERROR, false);
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                recorder.recordError(step.getAction(), LoadRecorder.STATUS_TRANSPORT_ERROR, cause.getClass().getSimpleName());
+                return;
+            }
+            long latency = System.nanoTime() - start;
+            int status = response.getStatusCode();
+            String result = response.getResult();
+            boolean matched = step.getExpectation().matches(status, result);
+            recorder.record(step.getAction(), flow.getName(), latency, status, matched);
+            if (!matched) {
+                recorder.recordError(step.getAction(), status,
+                        "поток " + flow.getName() + ": ожидалось " + step.getExpectation() + ", получено result=" + result);
+                return;
+            }
+            if (status == HTTP_OK && RESULT_OK.equals(result)) {
+                OutboundTokenVerifier.confirmed(step.getAction(), token);
+            }
+            if (step.getThinkTimeMillis() > 0) {
+                Thread.sleep(step.getThinkTimeMillis());
+            }
+        }
+    }
+}
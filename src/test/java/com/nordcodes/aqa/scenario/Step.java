@@ -0,0 +1,38 @@
+package com.nordcodes.aqa.scenario;
+
+import com.nordcodes.aqa.client.RequestTemplate;
+
+/**
+ * Шаг пользовательского потока: заранее собранный запрос, ожидаемый результат и пауза после шага.
+ */
+public final class Step {
+
+    private final RequestTemplate template;
+    private final Expectation expectation;
+    private final long thinkTimeMillis;
+
+    Step(RequestTemplate template, Expectation expectation, long thinkTimeMillis) {
+        this.template = template;
+        this.expectation = expectation;
+        this.thinkTimeMillis = thinkTimeMillis;
+    }
+
+    public String getAction() {
+        return template.getAction();
+    }
+
+    public RequestTemplate getTemplate() {
+        return template;
+    }
+
+    public Expectation getExpectation() {
+        return expectation;
+    }
+
+    /**
+     * Пауза «на раздумье» после шага, мс (не входит в задержку запроса).
+     */
+    public long getThinkTimeMillis() {
+        return thinkTimeMillis;
+    }
+}
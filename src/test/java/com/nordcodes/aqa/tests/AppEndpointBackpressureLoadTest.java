@@ -0,0 +1,104 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.LoadReport;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.load.LoadRunner;
+import com.nordcodes.aqa.load.LoadTask;
+import com.nordcodes.aqa.load.WarmUp;
+import com.nordcodes.aqa.mock.CapacityLimit;
+import com.nordcodes.aqa.mock.CapacityLimiter;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import com.nordcodes.aqa.utils.JfrProfilingExtension;
+import com.nordcodes.aqa.utils.TokenGenerator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: ограниченная пропускная способность внешнего сервиса")
+@Tag("load")
+@ExtendWith(JfrProfilingExtension.class)
+@DisplayName("Нагрузочные тесты приложения при перегруженном внешнем сервисе")
+public class AppEndpointBackpressureLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointBackpressureLoadTest.class);
+
+    private static final int THREADS = 32;
+    private static final Duration DURATION = Duration.ofSeconds(20);
+    private static final CapacityLimit AUTH_CAPACITY = CapacityLimit.of(4, 16, 50);
+
+    private static AppClient appClient;
+
+    @BeforeAll
+    static void setUpAll() {
+        log.info("Инициализация тестового окружения");
+        WireMockConfig.startWireMock();
+        appClient = new AppClient();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        log.info("Завершение тестового окружения");
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+    }
+
+    /**
+     * Итерация: LOGIN (обращение к перегруженному /auth), при успехе LOGOUT.
+     */
+    private LoadTask loginLogoutFlow() {
+        return recorder -> {
+            String token = TokenGenerator.generateHexToken();
+            Response login = recorder.send(ACTION_LOGIN, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGIN));
+            if (login != null && login.getStatusCode() == HTTP_OK) {
+                recorder.send(ACTION_LOGOUT, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGOUT));
+            }
+        };
+    }
+
+    @Test
+    @Story("Внешний сервис обрабатывает ограниченное число запросов одновременно")
+    @DisplayName("Перегруженный /auth: приложение отвечает на все запросы, успешные LOGIN не превышают ёмкость сервиса")
+    void givenCapacityLimitedAuth_whenLoadExceedsCapacity_thenAppAnswersEveryRequest() {
+        // given
+        ExternalServiceMock.stubAuthWithCapacity(AUTH_CAPACITY);
+
+        // when
+        // Статистика ограничителя, как и результат прогона, охватывает только измерение
+        LoadResult result = new LoadRunner(THREADS).withWarmUp(WarmUp.defaults())
+                .onMeasurementStart(() -> CapacityLimiter.resetStats(MOCK_AUTH_PATH))
+                .run("Перегруженный /auth", DURATION, loginLogoutFlow());
+
+        String mockStats = CapacityLimiter.stats(MOCK_AUTH_PATH);
+        log.info("Статистика мока: {}", mockStats);
+        AllureAttachments.attachText("Статистика ограничителя /auth", mockStats);
+        LoadReport.attach(result);
+
+        // then
+        LoadResult.ActionSummary login = result.getActions().get(ACTION_LOGIN);
+        double successfulLoginRate = (login.getCount() - login.getErrors()) / result.getElapsedSeconds();
+        assertEquals(0, result.getTransportErrors(),
+                "Приложение должно отвечать на каждый запрос, даже если внешний сервис перегружен");
+        assertTrue(successfulLoginRate <= AUTH_CAPACITY.maxThroughput() * 1.1,
+                "Успешных LOGIN в секунду не может быть больше ёмкости /auth: " + successfulLoginRate);
+    }
+}
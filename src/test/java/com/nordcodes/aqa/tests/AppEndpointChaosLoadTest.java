@@ -0,0 +1,146 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.LoadReport;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.load.LoadRunner;
+import com.nordcodes.aqa.load.LoadTask;
+import com.nordcodes.aqa.load.PhaseLatency;
+import com.nordcodes.aqa.load.WarmUp;
+import com.nordcodes.aqa.mock.ChaosProfile;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import com.nordcodes.aqa.utils.JfrProfilingExtension;
+import com.nordcodes.aqa.utils.TokenGenerator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: ошибки внешнего сервиса")
+@Tag("load")
+@ExtendWith(JfrProfilingExtension.class)
+@DisplayName("Нагрузочные тесты приложения при хаосе во внешнем сервисе")
+public class AppEndpointChaosLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointChaosLoadTest.class);
+
+    private static final int THREADS = 8;
+    private static final int HEALTHY_SECONDS = 10;
+    private static final int CHAOS_SECONDS = 20;
+    private static final int RECOVERED_SECONDS = 20;
+    private static final double MAX_HEALTHY_ERROR_RATIO = 0.01;
+    private static final int MAX_RECOVERY_SECONDS = 5;
+
+    private static AppClient appClient;
+
+    @BeforeAll
+    static void setUpAll() {
+        log.info("Инициализация тестового окружения");
+        WireMockConfig.startWireMock();
+        appClient = new AppClient();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        log.info("Завершение тестового окружения");
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+    }
+
+    /**
+     * Итерация пользовательского потока: LOGIN, при успехе ACTION и LOGOUT.
+     */
+    private LoadTask loginActionLogoutFlow() {
+        return recorder -> {
+            String token = TokenGenerator.generateHexToken();
+            Response login = recorder.send(ACTION_LOGIN, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGIN));
+            if (login != null && login.getStatusCode() == HTTP_OK) {
+                recorder.send(ACTION_ACTION, token, () -> appClient.sendRequestUnreported(token, ACTION_ACTION));
+                recorder.send(ACTION_LOGOUT, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGOUT));
+            }
+        };
+    }
+
+    @Test
+    @Story("Внешний сервис отвечает смесью ошибок, затем восстанавливается")
+    @DisplayName("Хаос во внешнем сервисе: приложение отвечает на все запросы и восстанавливается после сбоя")
+    void givenChaosInExternalService_whenLoad_thenAppAnswersAndRecovers() {
+        // given
+        ChaosProfile chaos = ChaosProfile.of(50, 15, 15, 10, 10);
+        ExternalServiceMock.stubAuthChaos(ChaosProfile.healthy());
+        ExternalServiceMock.stubDoActionChaos(ChaosProfile.healthy());
+
+        int chaosEnd = HEALTHY_SECONDS + CHAOS_SECONDS;
+        PhaseLatency latency = new PhaseLatency(HEALTHY_SECONDS, chaosEnd);
+        ScheduledExecutorService switcher = Executors.newSingleThreadScheduledExecutor();
+        // Фазы отсчитываются от начала измерения, как и таймлайн результата: прогрев идёт на здоровом внешнем сервисе
+        Runnable scheduleChaos = () -> {
+            switcher.schedule(() -> {
+                ExternalServiceMock.updateChaosProfile(MOCK_AUTH_PATH, chaos);
+                ExternalServiceMock.updateChaosProfile(MOCK_DO_ACTION_PATH, chaos);
+            }, HEALTHY_SECONDS, TimeUnit.SECONDS);
+            switcher.schedule(() -> {
+                ExternalServiceMock.updateChaosProfile(MOCK_AUTH_PATH, ChaosProfile.healthy());
+                ExternalServiceMock.updateChaosProfile(MOCK_DO_ACTION_PATH, ChaosProfile.healthy());
+            }, chaosEnd, TimeUnit.SECONDS);
+        };
+
+        // when
+        LoadResult result;
+        try {
+            result = new LoadRunner(THREADS).withWarmUp(WarmUp.defaults()).onMeasurementStart(scheduleChaos)
+                    .withPhaseLatency(latency).run("Хаос во внешнем сервисе",
+                    Duration.ofSeconds(HEALTHY_SECONDS + CHAOS_SECONDS + RECOVERED_SECONDS),
+                    loginActionLogoutFlow());
+        } finally {
+            switcher.shutdownNow();
+        }
+
+        int recoveredAt = result.firstSecondWithErrorRatioBelow(chaosEnd + 1, MAX_HEALTHY_ERROR_RATIO);
+        int[][] phaseSeconds = {{1, HEALTHY_SECONDS}, {HEALTHY_SECONDS, chaosEnd}, {chaosEnd, result.getTimelineSeconds()}};
+        String[] phaseNames = {"healthy", "chaos", "recovered"};
+        StringBuilder phases = new StringBuilder(String.format(
+                "Фаза              rps    errors  LOGIN p50  LOGIN p99  ACTION p50  ACTION p99 (мс)%n"));
+        for (int phase = 0; phase < phaseNames.length; phase++) {
+            phases.append(String.format("%-9s %9.1f  %7.2f%%  %9.1f  %9.1f  %10.1f  %10.1f%n", phaseNames[phase],
+                    result.throughput(phaseSeconds[phase][0], phaseSeconds[phase][1]),
+                    100 * result.errorRatio(phaseSeconds[phase][0], phaseSeconds[phase][1]),
+                    latency.percentileMillis(phase, ACTION_LOGIN, 50), latency.percentileMillis(phase, ACTION_LOGIN, 99),
+                    latency.percentileMillis(phase, ACTION_ACTION, 50), latency.percentileMillis(phase, ACTION_ACTION, 99)));
+        }
+        phases.append(String.format("Время восстановления: %s%n",
+                recoveredAt < 0 ? "не восстановилось" : (recoveredAt - chaosEnd) + " с"));
+        log.info("Результаты по фазам:\n{}", phases);
+        AllureAttachments.attachText("Фазы нагрузки", phases.toString());
+        LoadReport.attach(result);
+
+        // then
+        assertEquals(0, result.getTransportErrors(),
+                "Приложение должно отвечать на каждый запрос, даже если внешний сервис сбрасывает соединения");
+        assertTrue(result.errorRatio(1, HEALTHY_SECONDS) <= MAX_HEALTHY_ERROR_RATIO,
+                "До сбоя доля ошибок должна быть не выше " + MAX_HEALTHY_ERROR_RATIO);
+        assertTrue(recoveredAt >= 0 && recoveredAt - chaosEnd <= MAX_RECOVERY_SECONDS,
+                "Приложение должно восстановиться не позднее чем через " + MAX_RECOVERY_SECONDS
+                        + " с после восстановления внешнего сервиса");
+    }
+}
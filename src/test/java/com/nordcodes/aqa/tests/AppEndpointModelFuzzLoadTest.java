@@ -0,0 +1,107 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.NioPipelinedTransport;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.model.FuzzResult;
+import com.nordcodes.aqa.model.ModelFuzzer;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import com.nordcodes.aqa.utils.JfrProfilingExtension;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Модельное тестирование протокола: тысячи HEX-токенов в десятках потоков получают случайные
+ * последовательности LOGIN, ACTION и LOGOUT, каждый ответ сверяется с эталонным автоматом. Ответ внешнего
+ * сервиса зависит от символов токена: последний символ выбирает ответ /auth, предпоследний — /doAction.
+ * Повтор прогона с теми же токенами и последовательностями: {@code -Dfuzz.seed=<seed из отчёта>}.
+ */
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: модельное тестирование протокола")
+@Tag("load")
+@ExtendWith(JfrProfilingExtension.class)
+@DisplayName("Модельное тестирование LOGIN/ACTION/LOGOUT на тысячах токенов параллельно")
+public class AppEndpointModelFuzzLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointModelFuzzLoadTest.class);
+
+    private static final int THREADS = 64;
+    private static final int TOKENS_PER_THREAD = 64;
+    private static final int MAX_SEQUENCE_LENGTH = 32;
+    private static final Duration DURATION = Duration.ofMinutes(2);
+    private static final long MAX_TRANSITIONS = 5_000_000;
+    // Статусы внешнего сервиса по HEX-значению ключевого символа токена 0..F
+    private static final int[] AUTH_STATUSES = {
+            HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK,
+            HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_BAD_REQUEST, HTTP_BAD_REQUEST, HTTP_INTERNAL_ERROR, HTTP_INTERNAL_ERROR};
+    private static final int[] DO_ACTION_STATUSES = {
+            HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK,
+            HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_OK, HTTP_BAD_REQUEST, HTTP_INTERNAL_ERROR, HTTP_SERVICE_UNAVAILABLE};
+    // Виды переходов: LOGIN без сессии на каждый статус /auth (3) и с сессией, ACTION без сессии
+    // и с сессией на каждый статус /doAction (4), LOGOUT в двух состояниях
+    private static final int EXPECTED_TRANSITION_KINDS = 3 + 1 + 1 + 4 + 2;
+
+    private static NioPipelinedTransport transport;
+
+    @BeforeAll
+    static void setUpAll() throws IOException {
+        log.info("Инициализация тестового окружения");
+        WireMockConfig.startWireMockWithoutJournal();
+        transport = new NioPipelinedTransport();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        log.info("Завершение тестового окружения");
+        if (transport != null) {
+            transport.close();
+        }
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+    }
+
+    @Test
+    @Story("Случайные последовательности действий сверяются с эталонным автоматом")
+    @DisplayName("Модельное тестирование: каждый ответ приложения совпадает с эталонным автоматом")
+    void givenRandomActionSequences_whenSentInParallel_thenEveryResponseMatchesModel() throws InterruptedException {
+        // given
+        ExternalServiceMock.stubAuthByToken(TOKEN_LENGTH - 1, AUTH_STATUSES);
+        ExternalServiceMock.stubDoActionByToken(TOKEN_LENGTH - 2, DO_ACTION_STATUSES);
+        String seedProperty = System.getProperty(FUZZ_SEED_PROPERTY);
+        long seed = seedProperty != null ? Long.parseLong(seedProperty) : ThreadLocalRandom.current().nextLong();
+        ModelFuzzer fuzzer = new ModelFuzzer(transport, THREADS, TOKENS_PER_THREAD, MAX_SEQUENCE_LENGTH, seed);
+
+        // when
+        FuzzResult result = fuzzer.run(DURATION, MAX_TRANSITIONS);
+        String report = result.toReport();
+        log.info("Модельное тестирование:\n{}", report);
+        AllureAttachments.attachText("Модельное тестирование", report);
+
+        // then
+        assertAll(
+                () -> assertEquals(0, result.getTransportErrors(), "Приложение должно отвечать на каждый запрос"),
+                () -> assertTrue(result.getFailures().isEmpty(),
+                        "Ответы приложения должны совпадать с моделью (seed=" + seed + "):\n" + report),
+                () -> assertEquals(EXPECTED_TRANSITION_KINDS, result.getCoverage().size(),
+                        "Прогон должен покрыть все переходы автомата:\n" + result.getCoverage()));
+    }
+}
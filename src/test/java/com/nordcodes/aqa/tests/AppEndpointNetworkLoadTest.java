@@ -0,0 +1,173 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.config.AppLauncher;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.LoadReport;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.load.LoadRunner;
+import com.nordcodes.aqa.load.LoadTask;
+import com.nordcodes.aqa.load.RollingWindowMetrics;
+import com.nordcodes.aqa.load.WarmUp;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.mock.NetworkConditions;
+import com.nordcodes.aqa.mock.NetworkProxy;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import com.nordcodes.aqa.utils.TokenGenerator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Нагрузка при искажённой сети между приложением и внешним сервисом. Приложение запускается из тестов
+ * ({@code -Dapp.jar}) с {@code -Dmock}, указывающим на {@link NetworkProxy}; без {@code -Dapp.jar} тесты пропускаются,
+ * так как уже запущенное приложение обращается к WireMock напрямую.
+ */
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: эмуляция сети до внешнего сервиса")
+@Tag("load")
+@DisplayName("Нагрузочные тесты приложения при задержках и обрывах сети до внешнего сервиса")
+public class AppEndpointNetworkLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointNetworkLoadTest.class);
+
+    private static final int THREADS = 16;
+    private static final int PERFECT_SECONDS = 10;
+    private static final int DEGRADED_SECONDS = 10;
+    private static final Duration WINDOW = Duration.ofSeconds(2);
+    private static final NetworkConditions WAN = NetworkConditions.perfect().withLatency(50, 20);
+    private static final NetworkConditions LOSSY = NetworkConditions.perfect()
+            .withLatency(20, 10)
+            .withSlowReads(16, 2)
+            .withDrops(0.05);
+
+    private static AppLauncher app;
+    private static NetworkProxy proxy;
+    private static AppClient appClient;
+
+    @BeforeAll
+    static void setUpAll() throws IOException {
+        assumeTrue(AppLauncher.isConfigured(),
+                "Путь к jar приложения не задан (-Dapp.jar): приложение нужно запустить с -Dmock на сетевой прокси");
+        log.info("Инициализация тестового окружения");
+        WireMockConfig.startWireMock();
+        proxy = new NetworkProxy(NetworkConditions.perfect());
+        app = AppLauncher.start(AppEndpointNetworkLoadTest.class.getSimpleName(), List.of(), NETWORK_PROXY_MOCK_URL);
+        appClient = new AppClient();
+    }
+
+    @AfterAll
+    static void tearDownAll() throws IOException {
+        log.info("Завершение тестового окружения");
+        if (app != null) {
+            app.stop();
+            AllureAttachments.attachFile("Лог приложения", "text/plain", Files.readAllBytes(app.getLogFile()), ".log");
+        }
+        if (proxy != null) {
+            proxy.close();
+        }
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов и условий сети перед тестом");
+        ExternalServiceMock.resetStubs();
+        proxy.setConditions(NetworkConditions.perfect());
+    }
+
+    /**
+     * Итерация: LOGIN (обращение к /auth через прокси), при успехе ACTION (/doAction через прокси) и LOGOUT.
+     */
+    private LoadTask loginActionLogoutFlow() {
+        return recorder -> {
+            String token = TokenGenerator.generateHexToken();
+            Response login = recorder.send(ACTION_LOGIN, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGIN));
+            if (login != null && login.getStatusCode() == HTTP_OK) {
+                recorder.send(ACTION_ACTION, token, () -> appClient.sendRequestUnreported(token, ACTION_ACTION));
+                recorder.send(ACTION_LOGOUT, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGOUT));
+            }
+        };
+    }
+
+    @Test
+    @Story("Задержка сети до внешнего сервиса меняется во время прогона")
+    @DisplayName("Задержка сети: приложение отвечает без ошибок, задержка LOGIN растёт на сетевой RTT")
+    void givenLatencyAddedDuringRun_whenLoad_thenAppAnswersAndLoginLatencyReflectsRtt() {
+        // given
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+        RollingWindowMetrics windows = new RollingWindowMetrics(WINDOW, 64, 1);
+        ScheduledExecutorService switcher = Executors.newSingleThreadScheduledExecutor();
+
+        // when
+        LoadResult result;
+        try {
+            // Прогрев идёт без задержки сети, переключение на WAN отсчитывается от начала измерения, как и окна
+            result = new LoadRunner(THREADS).withWarmUp(WarmUp.defaults())
+                    .onMeasurementStart(() -> switcher.schedule(() -> proxy.setConditions(WAN), PERFECT_SECONDS, TimeUnit.SECONDS))
+                    .run("Задержка сети до внешнего сервиса",
+                            Duration.ofSeconds(PERFECT_SECONDS + DEGRADED_SECONDS), loginActionLogoutFlow(), windows);
+        } finally {
+            switcher.shutdownNow();
+        }
+        AllureAttachments.attachText("Сетевой прокси", proxy.stats());
+        LoadReport.attach(result);
+
+        // then
+        // Запрос к /auth и ответ проходят прокси, каждый с задержкой не меньше latency
+        double minRttMillis = 2.0 * WAN.getLatencyMillis();
+        List<RollingWindowMetrics.Window> degraded = windows.getWindows().stream()
+                .filter(window -> window.getStartSeconds() >= PERFECT_SECONDS + 1)
+                .toList();
+        assertEquals(0, result.getTotalErrors(),
+                "Задержка сети не должна приводить к ошибкам приложения: " + result.getErrorBreakdown());
+        assertFalse(degraded.isEmpty(), "Прогон должен содержать окна после увеличения задержки");
+        assertAll(degraded.stream().map(window -> () -> assertTrue(
+                window.getP99ByAction().getOrDefault(ACTION_LOGIN, 0.0) >= minRttMillis,
+                "p99 LOGIN должен включать сетевой RTT " + minRttMillis + " мс: " + window)));
+    }
+
+    @Test
+    @Story("Обрывы соединений и медленная доставка ответов внешнего сервиса")
+    @DisplayName("Обрывы и медленное чтение: приложение отвечает на каждый запрос")
+    void givenLossyNetwork_whenLoad_thenAppAnswersEveryRequest() {
+        // given
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+
+        // when
+        // Прогрев идёт без потерь: иначе обрывы не дают пропускной способности стабилизироваться
+        LoadResult result = new LoadRunner(THREADS).withWarmUp(WarmUp.defaults())
+                .onMeasurementStart(() -> proxy.setConditions(LOSSY))
+                .run("Обрывы и медленное чтение", Duration.ofSeconds(PERFECT_SECONDS + DEGRADED_SECONDS), loginActionLogoutFlow());
+        String proxyStats = proxy.stats();
+        log.info("Статистика сетевого прокси: {}", proxyStats);
+        AllureAttachments.attachText("Сетевой прокси", proxyStats);
+        LoadReport.attach(result);
+
+        // then
+        assertTrue(proxy.getDroppedConnections() > 0, "Прокси должен был оборвать часть соединений: " + proxyStats);
+        assertEquals(0, result.getTransportErrors(),
+                "Приложение должно отвечать на каждый запрос, даже если соединения с внешним сервисом обрываются");
+    }
+}
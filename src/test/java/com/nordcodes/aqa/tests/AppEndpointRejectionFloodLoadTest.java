@@ -0,0 +1,278 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.client.PreparedResponse;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.LoadRecorder;
+import com.nordcodes.aqa.load.LoadReport;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.load.LoadRunner;
+import com.nordcodes.aqa.load.LoadTask;
+import com.nordcodes.aqa.load.WarmUp;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.mock.OutboundTokenVerifier;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import com.nordcodes.aqa.utils.JfrProfilingExtension;
+import com.nordcodes.aqa.utils.TokenGenerator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: поток невалидных запросов")
+@Tag("load")
+@ExtendWith(JfrProfilingExtension.class)
+@DisplayName("Нагрузочные тесты пути отказа: невалидные токены, заголовки и Content-Type")
+public class AppEndpointRejectionFloodLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointRejectionFloodLoadTest.class);
+
+    private static final int FLOOD_THREADS = 32;
+    private static final int VALID_THREADS = 8;
+    private static final Duration CLASS_DURATION = Duration.ofSeconds(10);
+    private static final Duration DURATION = Duration.ofSeconds(20);
+    // Поток отказов стартует раньше и заканчивается позже валидного трафика, чтобы перекрыть его целиком
+    private static final Duration FLOOD_MARGIN = Duration.ofSeconds(2);
+    private static final double MAX_VALID_SLOWDOWN = 1.5;
+    // Прогрев каждого класса ограничен: пять прогревов по WARMUP_MAX_SECONDS многократно превысили бы измерение
+    private static final WarmUp CLASS_WARM_UP = WarmUp.defaults().withMaxDuration(Duration.ofSeconds(15));
+    private static final long EXPECTED_SESSIONS = 1_000_000;
+
+    private static AppClient appClient;
+
+    /**
+     * Классы невалидных запросов; каждый должен отклоняться приложением без обращения к внешнему сервису.
+     */
+    private enum InvalidInput {
+        SHORT_TOKEN("Токен из 31 символа",
+                () -> appClient.sendRequestUnreported(TokenGenerator.generateInvalidToken(TOKEN_LENGTH - 1), ACTION_LOGIN)),
+        INVALID_CHARS("Токен с недопустимыми символами",
+                () -> appClient.sendRequestUnreported(TokenGenerator.generateTokenWithInvalidChars(), ACTION_LOGIN)),
+        MISSING_API_KEY("Без X-Api-Key",
+                () -> appClient.sendRequestWithoutApiKeyUnreported(TokenGenerator.generateHexToken(), ACTION_LOGIN)),
+        WRONG_CONTENT_TYPE("Content-Type: application/json",
+                () -> appClient.sendRequestWithCustomContentTypeUnreported(TokenGenerator.generateHexToken(), ACTION_LOGIN,
+                        CONTENT_TYPE_JSON)),
+        UNKNOWN_ACTION("Неизвестный action",
+                () -> appClient.sendRequestUnreported(TokenGenerator.generateHexToken(), "INVALID"));
+
+        private final String title;
+        private final Supplier<Response> request;
+
+        InvalidInput(String title, Supplier<Response> request) {
+            this.title = title;
+            this.request = request;
+        }
+    }
+
+    @BeforeAll
+    static void setUpAll() {
+        log.info("Инициализация тестового окружения");
+        // Исходящие запросы проверяет OutboundTokenVerifier, журнал WireMock не нужен
+        WireMockConfig.startWireMockWithoutJournal();
+        appClient = new AppClient();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        log.info("Завершение тестового окружения");
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+    }
+
+    /**
+     * Отправляет невалидный запрос и фиксирует его как успешный, если приложение его отклонило
+     * (статус не 200 или result не OK).
+     */
+    private static void sendRejected(LoadRecorder recorder, InvalidInput input) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = input.request.get();
+        } catch (RuntimeException e) {
+            recorder.record(input.name(), System.nanoTime() - start, LoadRecorder.STATUS_TRANSPORT_ERROR, false);
+            recorder.recordError(input.name(), LoadRecorder.STATUS_TRANSPORT_ERROR, e.getClass().getSimpleName());
+            return;
+        }
+        long latency = System.nanoTime() - start;
+        int status = response.getStatusCode();
+        boolean rejected = status != HTTP_OK || !RESULT_OK.equals(PreparedResponse.resultOf(response.getBody().asString()));
+        recorder.record(input.name(), latency, status, rejected);
+        if (!rejected) {
+            recorder.recordError(input.name(), status, "невалидный запрос принят");
+        }
+    }
+
+    private LoadTask flood(InvalidInput input) {
+        return recorder -> sendRejected(recorder, input);
+    }
+
+    /**
+     * Все классы невалидных запросов вперемешку.
+     */
+    private LoadTask mixedFlood() {
+        InvalidInput[] inputs = InvalidInput.values();
+        return recorder -> sendRejected(recorder, inputs[ThreadLocalRandom.current().nextInt(inputs.length)]);
+    }
+
+    /**
+     * Валидный пользовательский поток: LOGIN, при успехе ACTION и LOGOUT. Успешные LOGIN и LOGOUT
+     * подтверждаются в {@link OutboundTokenVerifier}, если проверка запущена.
+     */
+    private LoadTask loginActionLogoutFlow() {
+        return recorder -> {
+            String token = TokenGenerator.generateHexToken();
+            byte[] tokenBytes = token.getBytes(StandardCharsets.US_ASCII);
+            Response login = recorder.send(ACTION_LOGIN, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGIN));
+            if (succeeded(login)) {
+                OutboundTokenVerifier.confirmed(ACTION_LOGIN, tokenBytes);
+                recorder.send(ACTION_ACTION, token, () -> appClient.sendRequestUnreported(token, ACTION_ACTION));
+                Response logout = recorder.send(ACTION_LOGOUT, token, () -> appClient.sendRequestUnreported(token, ACTION_LOGOUT));
+                if (succeeded(logout)) {
+                    OutboundTokenVerifier.confirmed(ACTION_LOGOUT, tokenBytes);
+                }
+            }
+        };
+    }
+
+    private static boolean succeeded(Response response) {
+        return response != null && response.getStatusCode() == HTTP_OK
+                && RESULT_OK.equals(PreparedResponse.resultOf(response.getBody().asString()));
+    }
+
+    @Test
+    @Story("Каждый класс невалидных запросов отклоняется дёшево и без обращения к внешнему сервису")
+    @DisplayName("Поток невалидных запросов каждого класса: все отклонены, внешний сервис не вызывается")
+    void givenEachInvalidInputClass_whenFlood_thenRejectedWithoutUpstreamCalls() {
+        // given
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+        List<LoadResult> results = new ArrayList<>();
+        List<OutboundTokenVerifier.Verification> verifications = new ArrayList<>();
+
+        // when
+        for (InvalidInput input : InvalidInput.values()) {
+            OutboundTokenVerifier.enable(EXPECTED_SESSIONS);
+            LoadResult result = new LoadRunner(FLOOD_THREADS).withWarmUp(CLASS_WARM_UP)
+                    .run("Отказ: " + input.title, CLASS_DURATION, flood(input));
+            verifications.add(OutboundTokenVerifier.verify());
+            results.add(result);
+            LoadReport.attach(result);
+        }
+        OutboundTokenVerifier.disable();
+
+        StringBuilder table = new StringBuilder(String.format("%-32s %10s %10s %10s %10s %10s %10s%n",
+                "класс", "rps", "p50 мс", "p99 мс", "max мс", "принято", "к сервису"));
+        for (int i = 0; i < results.size(); i++) {
+            LoadResult.ActionSummary summary = results.get(i).getActions().get(InvalidInput.values()[i].name());
+            table.append(String.format("%-32s %10.1f %10.2f %10.2f %10.2f %10d %10d%n", InvalidInput.values()[i].title,
+                    results.get(i).getThroughput(), summary.percentileMillis(50), summary.percentileMillis(99),
+                    summary.maxMillis(), summary.getErrors(), upstreamCalls(verifications.get(i))));
+        }
+        log.info("Путь отказа по классам запросов:\n{}", table);
+        AllureAttachments.attachText("Путь отказа по классам запросов", table.toString());
+
+        // then
+        assertAll(results.stream().map(result -> () -> {
+            assertEquals(0, result.getTransportErrors(), result.getName() + ": приложение должно отвечать на каждый запрос");
+            assertEquals(0, result.getTotalErrors(),
+                    result.getName() + ": каждый невалидный запрос должен быть отклонён: " + result.getErrorBreakdown());
+        }));
+        assertAll(verifications.stream().map(verification -> () -> assertEquals(0, upstreamCalls(verification),
+                "Невалидные запросы не должны доходить до внешнего сервиса:\n" + verification.toReport())));
+    }
+
+    @Test
+    @Story("Поток невалидных запросов не замедляет обслуживание валидного трафика")
+    @DisplayName("Валидный трафик на фоне потока отказов: задержка не растёт, внешний сервис видит только валидные запросы")
+    void givenFloodAlongsideValidTraffic_whenLoad_thenValidTrafficNotSlowedDown() {
+        // given
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+        LoadResult baseline = new LoadRunner(VALID_THREADS).withWarmUp(WarmUp.defaults())
+                .run("Валидный трафик без потока отказов", DURATION, loginActionLogoutFlow());
+
+        // when
+        OutboundTokenVerifier.enable(EXPECTED_SESSIONS);
+        CompletableFuture<LoadResult> floodRun = CompletableFuture.supplyAsync(() -> new LoadRunner(FLOOD_THREADS)
+                .run("Поток отказов на фоне валидного трафика", DURATION.plus(FLOOD_MARGIN.multipliedBy(2)), mixedFlood()));
+        sleep(FLOOD_MARGIN);
+        LoadResult underFlood = new LoadRunner(VALID_THREADS)
+                .run("Валидный трафик на фоне потока отказов", DURATION, loginActionLogoutFlow());
+        LoadResult flood = floodRun.join();
+        OutboundTokenVerifier.Verification verification = OutboundTokenVerifier.verify();
+        OutboundTokenVerifier.disable();
+
+        LoadResult.ActionSummary baselineLogin = baseline.getActions().get(ACTION_LOGIN);
+        LoadResult.ActionSummary floodLogin = underFlood.getActions().get(ACTION_LOGIN);
+        String comparison = String.format(
+                "LOGIN                 p50 мс    p99 мс       rps%n"
+                        + "без потока отказов %8.2f  %8.2f  %8.1f%n"
+                        + "с потоком отказов  %8.2f  %8.2f  %8.1f%n"
+                        + "Поток отказов: %.1f rps, отклонено %d из %d%n"
+                        + "Вызовы внешнего сервиса: /auth=%d (успешных LOGIN=%d), /doAction=%d (ACTION=%d)%n",
+                baselineLogin.percentileMillis(50), baselineLogin.percentileMillis(99), baseline.getThroughput(),
+                floodLogin.percentileMillis(50), floodLogin.percentileMillis(99), underFlood.getThroughput(),
+                flood.getThroughput(), flood.getTotalRequests() - flood.getTotalErrors(), flood.getTotalRequests(),
+                verification.getAuthRequests(), verification.getConfirmedLogins(), verification.getDoActionRequests(),
+                actionCount(underFlood));
+        log.info("Валидный трафик с потоком отказов и без:\n{}", comparison);
+        AllureAttachments.attachText("Валидный трафик с потоком отказов и без", comparison);
+        AllureAttachments.attachText("Проверка исходящих запросов", verification.toReport());
+        LoadReport.attach(baseline);
+        LoadReport.attach(underFlood);
+        LoadReport.attach(flood);
+
+        // then
+        assertEquals(0, flood.getTotalErrors(), "Каждый невалидный запрос должен быть отклонён: " + flood.getErrorBreakdown());
+        assertEquals(0, underFlood.getTotalErrors(),
+                "Валидный трафик на фоне потока отказов должен обслуживаться без ошибок: " + underFlood.getErrorBreakdown());
+        assertTrue(verification.isSuccessful(), verification.toReport());
+        assertEquals(verification.getConfirmedLogins(), verification.getAuthRequests(),
+                "К /auth должен приходить ровно один запрос на каждый успешный LOGIN:\n" + verification.toReport());
+        assertEquals(actionCount(underFlood), verification.getDoActionRequests(),
+                "К /doAction должны приходить только валидные ACTION:\n" + verification.toReport());
+        assertTrue(floodLogin.percentileMillis(50) <= baselineLogin.percentileMillis(50) * MAX_VALID_SLOWDOWN,
+                "p50 LOGIN на фоне потока отказов не должен расти больше чем в " + MAX_VALID_SLOWDOWN + " раза:\n" + comparison);
+    }
+
+    private static long upstreamCalls(OutboundTokenVerifier.Verification verification) {
+        return verification.getAuthRequests() + verification.getDoActionRequests();
+    }
+
+    private static long actionCount(LoadResult result) {
+        LoadResult.ActionSummary action = result.getActions().get(ACTION_ACTION);
+        return action == null ? 0 : action.getCount();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
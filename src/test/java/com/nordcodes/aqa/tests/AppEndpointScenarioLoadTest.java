@@ -0,0 +1,118 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.client.NioPipelinedTransport;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.LoadReport;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.load.LoadRunner;
+import com.nordcodes.aqa.load.WarmUp;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.mock.OutboundTokenVerifier;
+import com.nordcodes.aqa.scenario.Scenario;
+import com.nordcodes.aqa.scenario.ScenarioTask;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import com.nordcodes.aqa.utils.JfrProfilingExtension;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: декларативные сценарии")
+@Tag("load")
+@ExtendWith(JfrProfilingExtension.class)
+@DisplayName("Нагрузочные тесты приложения по декларативным сценариям")
+public class AppEndpointScenarioLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointScenarioLoadTest.class);
+
+    private static final int THREADS = 16;
+    private static final Duration DURATION = Duration.ofSeconds(30);
+    // Потоки только ждут ответов: нагрузку ограничивает число запросов в конвейерах NIO-транспорта
+    private static final int PEAK_THREADS = NIO_CONNECTIONS * NIO_PIPELINE_DEPTH;
+    // Начальный размер таблицы токенов верификатора; таблица растёт и сверх него
+    private static final long EXPECTED_SESSIONS = 1_000_000;
+
+    private static AppClient appClient;
+
+    @BeforeAll
+    static void setUpAll() {
+        log.info("Инициализация тестового окружения");
+        // Исходящие запросы проверяет OutboundTokenVerifier, журнал WireMock не нужен
+        WireMockConfig.startWireMockWithoutJournal();
+        appClient = new AppClient();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        log.info("Завершение тестового окружения");
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+    }
+
+    @Test
+    @Story("Смешанный трафик из взвешенных пользовательских потоков")
+    @DisplayName("Сценарий mixed-traffic: ответы соответствуют ожиданиям шагов, исходящие запросы корректны")
+    void givenMixedTrafficScenario_whenLoad_thenEveryResponseMatchesExpectation() {
+        // given
+        Scenario scenario = Scenario.load("scenarios/mixed-traffic.json");
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+        OutboundTokenVerifier.enable(EXPECTED_SESSIONS);
+
+        // when
+        LoadResult result = new LoadRunner(THREADS).withWarmUp(WarmUp.defaults()).run(scenario.getName(), DURATION,
+                new ScenarioTask(scenario, appClient));
+        OutboundTokenVerifier.Verification verification = OutboundTokenVerifier.verify();
+        LoadReport.attach(result);
+        AllureAttachments.attachText("Проверка исходящих запросов", verification.toReport());
+
+        // then
+        assertEquals(0, result.getTotalErrors(),
+                "Все ответы приложения должны соответствовать ожиданиям шагов сценария: " + result.getErrorBreakdown());
+        assertTrue(verification.isSuccessful(), verification.toReport());
+    }
+
+    @Test
+    @Story("Пиковая нагрузка через NIO-транспорт с конвейеризацией")
+    @DisplayName("Сценарий peak-login-logout через NIO: ответы соответствуют ожиданиям шагов, исходящие запросы корректны")
+    void givenPeakScenario_whenLoadOverPipelinedTransport_thenEveryResponseMatchesExpectation() throws IOException {
+        // given
+        Scenario scenario = Scenario.load("scenarios/peak-login-logout.json");
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+        OutboundTokenVerifier.enable(EXPECTED_SESSIONS);
+
+        // when
+        LoadResult result;
+        try (NioPipelinedTransport transport = new NioPipelinedTransport()) {
+            result = new LoadRunner(PEAK_THREADS).withWarmUp(WarmUp.defaults())
+                    .run(scenario.getName(), DURATION, new ScenarioTask(scenario, transport));
+        }
+        OutboundTokenVerifier.Verification verification = OutboundTokenVerifier.verify();
+        LoadReport.attach(result);
+        AllureAttachments.attachText("Проверка исходящих запросов", verification.toReport());
+
+        // then
+        assertEquals(0, result.getTransportErrors(), "NIO-транспорт не должен терять ответы");
+        assertEquals(0, result.getTotalErrors(),
+                "Все ответы приложения должны соответствовать ожиданиям шагов сценария: " + result.getErrorBreakdown());
+        assertTrue(verification.isSuccessful(), verification.toReport());
+    }
+}
@@ -0,0 +1,406 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.client.PreparedResponse;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.LoadRecorder;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.mock.OutboundTokenVerifier;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import com.nordcodes.aqa.utils.JfrProfilingExtension;
+import com.nordcodes.aqa.utils.TokenGenerator;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Гонки запросов по одному токену. Запросы раунда отправляются из разных потоков одновременно:
+ * потоки ждут на общем {@link CyclicBarrier} и стартуют, когда к нему подошли все, поэтому до приложения
+ * они доходят практически одновременно и конкурируют за состояние одной сессии.
+ */
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: гонки по состоянию сессии")
+@Tag("load")
+@ExtendWith(JfrProfilingExtension.class)
+@DisplayName("Нагрузочные тесты одновременных LOGIN, ACTION и LOGOUT с одним токеном")
+public class AppEndpointSessionRaceLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointSessionRaceLoadTest.class);
+
+    private static final int RACERS = 32;
+    private static final int ROUNDS = 50;
+    private static final int[] GROUP_SIZES = {1, 4};
+    private static final int LOGOUTS_PER_TOKEN = 2;
+    private static final int[] HOT_CONCURRENCY = {1, 4, 16, 64};
+    private static final int HOT_REQUESTS_PER_LEVEL = 1280;
+    private static final long ROUND_TIMEOUT_SECONDS = 30;
+
+    private static AppClient appClient;
+    private static ExecutorService racers;
+
+    /**
+     * Запрос раунда: действие и токен.
+     */
+    private static final class Attempt {
+        private final String action;
+        private final String token;
+
+        private Attempt(String action, String token) {
+            this.action = action;
+            this.token = token;
+        }
+    }
+
+    /**
+     * Ответ на запрос раунда; {@code status} равен {@link LoadRecorder#STATUS_TRANSPORT_ERROR}, если ответа нет.
+     */
+    private static final class Outcome {
+        private final Attempt attempt;
+        private final int status;
+        private final String result;
+
+        private Outcome(Attempt attempt, int status, String result) {
+            this.attempt = attempt;
+            this.status = status;
+            this.result = result;
+        }
+
+        private boolean won() {
+            return status == HTTP_OK && RESULT_OK.equals(result);
+        }
+
+        private boolean serverError() {
+            return status >= HTTP_INTERNAL_ERROR || status == LoadRecorder.STATUS_TRANSPORT_ERROR;
+        }
+
+        @Override
+        public String toString() {
+            return attempt.action + " " + attempt.token + ": status=" + status + ", result=" + result;
+        }
+    }
+
+    @BeforeAll
+    static void setUpAll() {
+        log.info("Инициализация тестового окружения");
+        WireMockConfig.startWireMock();
+        appClient = new AppClient();
+        racers = Executors.newFixedThreadPool(Math.max(RACERS, HOT_CONCURRENCY[HOT_CONCURRENCY.length - 1]));
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        log.info("Завершение тестового окружения");
+        if (racers != null) {
+            racers.shutdownNow();
+        }
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+    }
+
+    /**
+     * Отправляет запросы раунда одновременно: каждый поток ждёт на барьере, пока к нему не подойдут все
+     * остальные и вызывающий поток.
+     *
+     * @param attempts запросы раунда
+     * @param recorder статистика задержек; ошибкой считаются только 5xx и отсутствие ответа
+     * @return ответы в порядке запросов
+     */
+    private static List<Outcome> race(List<Attempt> attempts, LoadRecorder recorder) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(attempts.size() + 1);
+        List<Future<Outcome>> futures = new ArrayList<>(attempts.size());
+        for (Attempt attempt : attempts) {
+            futures.add(racers.submit(() -> {
+                start.await(ROUND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                return send(attempt, recorder);
+            }));
+        }
+        try {
+            start.await(ROUND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (BrokenBarrierException | TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Не все участники раунда дошли до барьера: " + attempts.size(), e);
+        }
+        List<Outcome> outcomes = new ArrayList<>(attempts.size());
+        for (Future<Outcome> future : futures) {
+            try {
+                outcomes.add(future.get(ROUND_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Участник раунда завершился ошибкой", e.getCause());
+            }
+        }
+        return outcomes;
+    }
+
+    private static Outcome send(Attempt attempt, LoadRecorder recorder) {
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = appClient.sendRequestUnreported(attempt.token, attempt.action);
+        } catch (RuntimeException e) {
+            recorder.record(attempt.action, attempt.token, System.nanoTime() - start, LoadRecorder.STATUS_TRANSPORT_ERROR, false);
+            recorder.recordError(attempt.action, LoadRecorder.STATUS_TRANSPORT_ERROR, e.getClass().getSimpleName());
+            return new Outcome(attempt, LoadRecorder.STATUS_TRANSPORT_ERROR, null);
+        }
+        long latency = System.nanoTime() - start;
+        Outcome outcome = new Outcome(attempt, response.getStatusCode(), PreparedResponse.resultOf(response.getBody().asString()));
+        if (outcome.won()) {
+            // Подтверждение в момент получения ответа: /doAction от ACTION, ещё идущих в гонке, после этого — нарушение
+            OutboundTokenVerifier.confirmed(attempt.action, attempt.token.getBytes(StandardCharsets.US_ASCII));
+        }
+        recorder.record(attempt.action, attempt.token, latency, outcome.status, !outcome.serverError());
+        if (outcome.serverError()) {
+            recorder.recordError(attempt.action, outcome.status, "ошибка сервера в гонке");
+        }
+        return outcome;
+    }
+
+    /**
+     * Последовательный успешный LOGIN перед гонкой.
+     */
+    private static String loggedInToken() {
+        String token = TokenGenerator.generateHexToken();
+        Response response = appClient.sendRequestUnreported(token, ACTION_LOGIN);
+        assertEquals(HTTP_OK, response.getStatusCode(), "LOGIN перед гонкой должен быть успешным");
+        OutboundTokenVerifier.confirmed(ACTION_LOGIN, token.getBytes(StandardCharsets.US_ASCII));
+        return token;
+    }
+
+    /**
+     * Запросы раунда по группе токенов вперемешку: i-й запрос относится к токену {@code i % tokens.size()}.
+     */
+    private static List<Attempt> interleave(List<String> tokens, int perToken, int logoutsPerToken) {
+        List<Attempt> attempts = new ArrayList<>(tokens.size() * perToken);
+        for (int i = 0; i < perToken; i++) {
+            String action = i < logoutsPerToken ? ACTION_LOGOUT : ACTION_ACTION;
+            for (String token : tokens) {
+                attempts.add(new Attempt(action, token));
+            }
+        }
+        return attempts;
+    }
+
+    private static Map<String, List<Outcome>> byToken(List<Outcome> outcomes) {
+        Map<String, List<Outcome>> result = new LinkedHashMap<>();
+        outcomes.forEach(outcome -> result.computeIfAbsent(outcome.attempt.token, k -> new ArrayList<>()).add(outcome));
+        return result;
+    }
+
+    private static List<String> sample(List<String> violations) {
+        return violations.subList(0, Math.min(violations.size(), 10));
+    }
+
+    @Test
+    @Story("Одновременный LOGIN с одним токеном")
+    @DisplayName("Одновременные LOGIN с одним токеном: ровно один успешный, остальные 409, /auth вызван один раз")
+    void givenConcurrentLoginsForSameToken_whenRace_thenExactlyOneWins() throws Exception {
+        // given
+        OutboundTokenVerifier.enable((long) ROUNDS * RACERS);
+        LoadRecorder recorder = new LoadRecorder(0);
+        List<String> violations = new ArrayList<>();
+        long serverErrors = 0;
+
+        // when
+        for (int groupSize : GROUP_SIZES) {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<String> tokens = new ArrayList<>();
+                for (int i = 0; i < groupSize; i++) {
+                    tokens.add(TokenGenerator.generateHexToken());
+                }
+                List<Attempt> attempts = new ArrayList<>();
+                for (int i = 0; i < RACERS; i++) {
+                    attempts.add(new Attempt(ACTION_LOGIN, tokens.get(i % groupSize)));
+                }
+                List<Outcome> outcomes = race(attempts, recorder);
+                serverErrors += outcomes.stream().filter(Outcome::serverError).count();
+                for (List<Outcome> perToken : byToken(outcomes).values()) {
+                    List<Outcome> winners = perToken.stream().filter(Outcome::won).toList();
+                    if (winners.size() != 1) {
+                        violations.add("успешных LOGIN " + winners.size() + " из " + perToken.size() + ": " + perToken.get(0).attempt.token);
+                    }
+                    perToken.stream()
+                            .filter(outcome -> !outcome.won() && outcome.status != HTTP_CONFLICT)
+                            .forEach(outcome -> violations.add("проигравший LOGIN без 409: " + outcome));
+                }
+            }
+        }
+        OutboundTokenVerifier.Verification verification = OutboundTokenVerifier.verify();
+        OutboundTokenVerifier.disable();
+        LoadResult result = recorder.snapshot("Гонка LOGIN", RACERS, null, null, null);
+        LoadResult.ActionSummary login = result.getActions().get(ACTION_LOGIN);
+        String report = String.format("Раундов: %d на каждый размер группы %s, участников в раунде: %d%n"
+                        + "LOGIN: p50=%.2f мс, p99=%.2f мс, max=%.2f мс, статусы: %s%n"
+                        + "Нарушений: %d, ошибок сервера: %d%n%s%s",
+                ROUNDS, Arrays.toString(GROUP_SIZES), RACERS, login.percentileMillis(50), login.percentileMillis(99),
+                login.maxMillis(), login.getStatuses(), violations.size(), serverErrors, String.join("\n", sample(violations)),
+                "\n" + verification.toReport());
+        log.info("Гонка LOGIN:\n{}", report);
+        AllureAttachments.attachText("Гонка LOGIN", report);
+
+        // then
+        long finalServerErrors = serverErrors;
+        assertAll(
+                () -> assertEquals(0, finalServerErrors, "Гонка LOGIN не должна приводить к 5xx и обрывам: " + result.getErrorBreakdown()),
+                () -> assertTrue(violations.isEmpty(),
+                        "На каждый токен должен быть ровно один успешный LOGIN, остальные 409:\n" + String.join("\n", sample(violations))),
+                () -> assertTrue(verification.isSuccessful(),
+                        "Каждый токен должен дойти до /auth ровно один раз:\n" + verification.toReport()),
+                () -> assertEquals(0, verification.getUnconfirmedAuth(),
+                        "Проигравшие LOGIN не должны вызывать /auth:\n" + verification.toReport()));
+    }
+
+    @Test
+    @Story("Одновременные ACTION и LOGOUT с одним токеном")
+    @DisplayName("Одновременные ACTION и LOGOUT: один успешный LOGOUT, после него /doAction не вызывается")
+    void givenConcurrentActionsAndLogoutsForSameToken_whenRace_thenNoActionAfterLogout() throws Exception {
+        // given
+        OutboundTokenVerifier.enable((long) ROUNDS * RACERS);
+        LoadRecorder recorder = new LoadRecorder(0);
+        List<String> violations = new ArrayList<>();
+        long serverErrors = 0;
+
+        // when
+        for (int groupSize : GROUP_SIZES) {
+            for (int round = 0; round < ROUNDS; round++) {
+                List<String> tokens = new ArrayList<>();
+                for (int i = 0; i < groupSize; i++) {
+                    tokens.add(loggedInToken());
+                }
+                List<Outcome> outcomes = race(interleave(tokens, RACERS / groupSize, LOGOUTS_PER_TOKEN), recorder);
+                serverErrors += outcomes.stream().filter(Outcome::serverError).count();
+                for (List<Outcome> perToken : byToken(outcomes).values()) {
+                    List<Outcome> logouts = perToken.stream()
+                            .filter(outcome -> ACTION_LOGOUT.equals(outcome.attempt.action) && outcome.won())
+                            .toList();
+                    if (logouts.size() != 1) {
+                        violations.add("успешных LOGOUT " + logouts.size() + ": " + perToken.get(0).attempt.token);
+                    }
+                }
+                // Сессия завершена: ACTION после гонки отклоняется и не доходит до /doAction
+                for (String token : tokens) {
+                    Outcome after = send(new Attempt(ACTION_ACTION, token), recorder);
+                    if (after.won()) {
+                        violations.add("ACTION принят после LOGOUT: " + after);
+                    }
+                }
+            }
+        }
+        OutboundTokenVerifier.Verification verification = OutboundTokenVerifier.verify();
+        OutboundTokenVerifier.disable();
+        LoadResult result = recorder.snapshot("Гонка ACTION и LOGOUT", RACERS, null, null, null);
+        StringBuilder report = new StringBuilder(String.format(
+                "Раундов: %d на каждый размер группы %s, участников в раунде: %d, LOGOUT на токен: %d%n",
+                ROUNDS, Arrays.toString(GROUP_SIZES), RACERS, LOGOUTS_PER_TOKEN));
+        result.getActions().values().forEach(summary -> report.append(String.format(
+                "%-7s p50=%.2f мс, p99=%.2f мс, max=%.2f мс, статусы: %s%n", summary.getAction(),
+                summary.percentileMillis(50), summary.percentileMillis(99), summary.maxMillis(), summary.getStatuses())));
+        report.append(String.format("Нарушений: %d, ошибок сервера: %d%n", violations.size(), serverErrors));
+        sample(violations).forEach(violation -> report.append(String.format("  %s%n", violation)));
+        report.append(verification.toReport());
+        log.info("Гонка ACTION и LOGOUT:\n{}", report);
+        AllureAttachments.attachText("Гонка ACTION и LOGOUT", report.toString());
+
+        // then
+        long finalServerErrors = serverErrors;
+        assertAll(
+                () -> assertEquals(0, finalServerErrors, "Гонка ACTION и LOGOUT не должна приводить к 5xx и обрывам: " + result.getErrorBreakdown()),
+                () -> assertTrue(violations.isEmpty(),
+                        "На каждый токен должен быть ровно один успешный LOGOUT, после него ACTION отклоняется:\n"
+                                + String.join("\n", sample(violations))),
+                () -> assertEquals(0, verification.getActionsAfterLogout(),
+                        "После завершённого LOGOUT приложение не должно вызывать /doAction:\n" + verification.toReport()));
+    }
+
+    @Test
+    @Story("Задержка при конкуренции за одну сессию")
+    @DisplayName("Горячая сессия: задержка ACTION по одному токену против тех же запросов по разным токенам")
+    void givenHotSession_whenConcurrencyGrows_thenLatencyDegradationReported() throws Exception {
+        // given
+        Map<Integer, LoadResult[]> results = new LinkedHashMap<>();
+        List<String> violations = new ArrayList<>();
+        long serverErrors = 0;
+
+        // when
+        for (int level : HOT_CONCURRENCY) {
+            String hot = loggedInToken();
+            List<String> spread = new ArrayList<>();
+            for (int i = 0; i < level; i++) {
+                spread.add(loggedInToken());
+            }
+            LoadRecorder hotRecorder = new LoadRecorder(0);
+            LoadRecorder spreadRecorder = new LoadRecorder(0);
+            for (int round = 0; round < HOT_REQUESTS_PER_LEVEL / level; round++) {
+                List<Attempt> hotAttempts = new ArrayList<>(level);
+                List<Attempt> spreadAttempts = new ArrayList<>(level);
+                for (int i = 0; i < level; i++) {
+                    // Один из участников горячего раунда повторяет LOGIN: он должен получить 409, не прервав сессию
+                    hotAttempts.add(new Attempt(i == 0 && level > 1 ? ACTION_LOGIN : ACTION_ACTION, hot));
+                    spreadAttempts.add(new Attempt(ACTION_ACTION, spread.get(i)));
+                }
+                List<Outcome> outcomes = new ArrayList<>(race(hotAttempts, hotRecorder));
+                outcomes.addAll(race(spreadAttempts, spreadRecorder));
+                serverErrors += outcomes.stream().filter(Outcome::serverError).count();
+                for (Outcome outcome : outcomes) {
+                    boolean expected = ACTION_LOGIN.equals(outcome.attempt.action) ? outcome.status == HTTP_CONFLICT : outcome.won();
+                    if (!expected && violations.size() < 100) {
+                        violations.add("уровень " + level + ": " + outcome);
+                    }
+                }
+            }
+            results.put(level, new LoadResult[]{
+                    hotRecorder.snapshot("Горячая сессия x" + level, level, null, null, null),
+                    spreadRecorder.snapshot("Разные сессии x" + level, level, null, null, null)});
+        }
+
+        StringBuilder table = new StringBuilder(String.format("%10s %14s %14s %14s %14s %10s %10s%n",
+                "потоков", "горячая p50", "горячая p99", "разные p50", "разные p99", "p50 x", "p99 x"));
+        results.forEach((level, pair) -> {
+            LoadResult.ActionSummary hot = pair[0].getActions().get(ACTION_ACTION);
+            LoadResult.ActionSummary spread = pair[1].getActions().get(ACTION_ACTION);
+            table.append(String.format("%10d %14.2f %14.2f %14.2f %14.2f %10.2f %10.2f%n", level,
+                    hot.percentileMillis(50), hot.percentileMillis(99), spread.percentileMillis(50), spread.percentileMillis(99),
+                    hot.percentileMillis(50) / spread.percentileMillis(50), hot.percentileMillis(99) / spread.percentileMillis(99)));
+        });
+        log.info("Задержка ACTION на горячей сессии, мс:\n{}", table);
+        AllureAttachments.attachText("Задержка ACTION на горячей сессии", table.toString());
+
+        // then
+        long finalServerErrors = serverErrors;
+        assertAll(
+                () -> assertEquals(0, finalServerErrors, "Конкуренция за одну сессию не должна приводить к 5xx и обрывам"),
+                () -> assertTrue(violations.isEmpty(),
+                        "ACTION по активной сессии должен быть успешным, повторный LOGIN — 409:\n" + String.join("\n", sample(violations))));
+    }
+}
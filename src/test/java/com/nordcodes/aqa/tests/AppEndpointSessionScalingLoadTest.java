@@ -0,0 +1,257 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.client.NioPipelinedTransport;
+import com.nordcodes.aqa.client.PreparedResponse;
+import com.nordcodes.aqa.client.RequestTemplate;
+import com.nordcodes.aqa.config.AppLauncher;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.AppResourceProbe;
+import com.nordcodes.aqa.load.LoadRecorder;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.load.SessionScalingReport;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.utils.AllureAttachments;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Масштабирование хранилища сессий приложения: LOGIN растущего числа различных HEX-токенов без LOGOUT
+ * (уровни из {@code -Dsession.levels}, по умолчанию 10 000, 100 000 и 1 000 000), и на каждом уровне — задержка
+ * ACTION и LOGOUT и память процесса приложения (куча по JMX, RSS из {@code /proc}). Приложение запускается
+ * из тестов ({@code -Dapp.jar}) с открытым JMX; без {@code -Dapp.jar} тест пропускается.
+ * <p>
+ * Токены не хранятся: токен с номером i получается из соли прогона и биективного перемешивания i,
+ * поэтому любой ранее залогиненный токен восстанавливается по номеру.
+ */
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: масштабирование хранилища сессий")
+@Tag("load")
+@DisplayName("Нагрузочный тест: задержка и память приложения в зависимости от числа активных сессий")
+public class AppEndpointSessionScalingLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointSessionScalingLoadTest.class);
+
+    private static final int FILL_THREADS = 64;
+    private static final int MEASURE_THREADS = 4;
+    private static final int ACTION_SAMPLES = 20_000;
+    private static final int LOGOUT_SAMPLES = 1_000;
+    private static final double MAX_ACTION_P99_GROWTH = 3.0;
+
+    private static final RequestTemplate LOGIN = RequestTemplate.of(ACTION_LOGIN);
+    private static final RequestTemplate ACTION = RequestTemplate.of(ACTION_ACTION);
+    private static final RequestTemplate LOGOUT = RequestTemplate.of(ACTION_LOGOUT);
+
+    private static AppLauncher app;
+    private static AppResourceProbe probe;
+    private static NioPipelinedTransport nio;
+    private static AppClient appClient;
+    private static ExecutorService workers;
+    private static long salt;
+
+    /**
+     * Запрос по номеру токена.
+     */
+    @FunctionalInterface
+    private interface IndexedCall {
+        boolean send(long index) throws IOException;
+    }
+
+    @BeforeAll
+    static void setUpAll() throws IOException {
+        assumeTrue(AppLauncher.isConfigured(),
+                "Путь к jar приложения не задан (-Dapp.jar): память приложения снимается по JMX и из /proc");
+        log.info("Инициализация тестового окружения");
+        WireMockConfig.startWireMockWithoutJournal();
+        app = AppLauncher.start(AppEndpointSessionScalingLoadTest.class.getSimpleName(), AppResourceProbe.jvmArgs());
+        probe = AppResourceProbe.connect(app);
+        nio = new NioPipelinedTransport();
+        appClient = new AppClient();
+        workers = Executors.newFixedThreadPool(FILL_THREADS);
+        salt = ThreadLocalRandom.current().nextLong();
+    }
+
+    @AfterAll
+    static void tearDownAll() throws IOException {
+        log.info("Завершение тестового окружения");
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+        if (nio != null) {
+            nio.close();
+        }
+        if (probe != null) {
+            probe.close();
+        }
+        if (app != null) {
+            app.stop();
+            AllureAttachments.attachFile("Лог приложения", "text/plain", Files.readAllBytes(app.getLogFile()), ".log");
+        }
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+    }
+
+    private static long[] levels() {
+        String value = System.getProperty(SESSION_LEVELS_PROPERTY, SESSION_DEFAULT_LEVELS);
+        long[] levels = Arrays.stream(value.split(",")).map(String::trim).mapToLong(Long::parseLong).sorted().toArray();
+        if (levels.length == 0 || levels[0] <= LOGOUT_SAMPLES) {
+            throw new IllegalArgumentException("Уровни числа сессий должны быть больше " + LOGOUT_SAMPLES + ": " + value);
+        }
+        return levels;
+    }
+
+    /**
+     * Токен с номером {@code index}: 16 HEX-символов соли прогона и 16 HEX-символов перемешанного номера.
+     * Перемешивание (финализатор SplitMix64) биективно, поэтому разные номера дают разные токены.
+     */
+    private static byte[] token(long index) {
+        long z = index + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return String.format("%016X%016X", salt, z).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Выполняет запрос для каждого номера из {@code [from, to)} в {@code threads} потоках.
+     *
+     * @return число неуспешных запросов
+     */
+    private static long forEachIndex(long from, long to, int threads, IndexedCall call) throws Exception {
+        AtomicLong next = new AtomicLong(from);
+        LongAdder failures = new LongAdder();
+        List<Future<?>> futures = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            futures.add(workers.submit(() -> {
+                for (long i = next.getAndIncrement(); i < to; i = next.getAndIncrement()) {
+                    try {
+                        if (!call.send(i)) {
+                            failures.increment();
+                        }
+                    } catch (IOException e) {
+                        failures.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        return failures.sum();
+    }
+
+    private static boolean ok(PreparedResponse response) {
+        return response.getStatusCode() == HTTP_OK && RESULT_OK.equals(response.getResult());
+    }
+
+    /**
+     * Отправляет запрос через RestAssured и фиксирует его задержку.
+     */
+    private static boolean measured(LoadRecorder recorder, RequestTemplate template, long index) {
+        long start = System.nanoTime();
+        PreparedResponse response;
+        try {
+            response = appClient.execute(template, token(index));
+        } catch (IOException e) {
+            recorder.record(template.getAction(), System.nanoTime() - start, LoadRecorder.STATUS_TRANSPORT_ERROR, false);
+            recorder.recordError(template.getAction(), LoadRecorder.STATUS_TRANSPORT_ERROR, e.getClass().getSimpleName());
+            return false;
+        }
+        boolean ok = ok(response);
+        recorder.record(template.getAction(), System.nanoTime() - start, response.getStatusCode(), ok);
+        if (!ok) {
+            recorder.recordError(template.getAction(), response.getStatusCode(), "result=" + response.getResult());
+        }
+        return ok;
+    }
+
+    /**
+     * Замер на уровне {@code sessions}: ACTION по случайным активным сессиям, затем LOGOUT последних
+     * {@link #LOGOUT_SAMPLES} сессий.
+     */
+    private static LoadResult measure(long sessions) throws Exception {
+        LoadRecorder recorder = new LoadRecorder(0);
+        forEachIndex(0, ACTION_SAMPLES, MEASURE_THREADS,
+                sample -> measured(recorder, ACTION, ThreadLocalRandom.current().nextLong(sessions)));
+        forEachIndex(sessions - LOGOUT_SAMPLES, sessions, MEASURE_THREADS, index -> measured(recorder, LOGOUT, index));
+        return recorder.snapshot("Сессий: " + sessions, MEASURE_THREADS, null, null, null);
+    }
+
+    @Test
+    @Story("Рост числа активных сессий")
+    @DisplayName("Растущее число активных сессий: кривые задержки ACTION/LOGOUT и памяти приложения")
+    void givenGrowingNumberOfLiveSessions_whenMeasured_thenLatencyAndMemoryCurvesReported() throws Exception {
+        // given
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+        long[] levels = levels();
+        SessionScalingReport report = new SessionScalingReport("LOGIN без LOGOUT до " + levels[levels.length - 1] + " сессий",
+                probe.sampleAfterGc());
+        List<String> failures = new ArrayList<>();
+
+        // when
+        long filled = 0;
+        for (long level : levels) {
+            long start = System.nanoTime();
+            long loginFailures = forEachIndex(filled, level, FILL_THREADS, index -> ok(nio.execute(LOGIN, token(index))));
+            double loginThroughput = (level - filled) / ((System.nanoTime() - start) / 1e9);
+            filled = level;
+            if (loginFailures > 0) {
+                failures.add(level + " сессий: неуспешных LOGIN при наполнении " + loginFailures);
+            }
+
+            LoadResult measurement = measure(level);
+            // Сессии, завершённые замером LOGOUT, открываются снова, чтобы число активных сессий не изменилось
+            long reloginFailures = forEachIndex(level - LOGOUT_SAMPLES, level, FILL_THREADS,
+                    index -> ok(nio.execute(LOGIN, token(index))));
+            if (reloginFailures > 0) {
+                failures.add(level + " сессий: неуспешных повторных LOGIN после LOGOUT " + reloginFailures);
+            }
+            AppResourceProbe.Sample memory = probe.sampleAfterGc();
+            report.addLevel(level, loginThroughput, measurement, memory);
+            if (measurement.getTotalErrors() > 0) {
+                failures.add(level + " сессий: ошибки замера " + measurement.getErrorBreakdown());
+            }
+            log.info("Сессий: {}, LOGIN {} rps, {}", level, String.format("%.0f", loginThroughput), memory);
+        }
+        long latencyLimit = report.latencyLimit(MAX_ACTION_P99_GROWTH);
+        String summary = report.toReport() + (latencyLimit < 0
+                ? "p99 ACTION не вырос больше чем в " + MAX_ACTION_P99_GROWTH + " раза ни на одном уровне"
+                : "p99 ACTION вырос больше чем в " + MAX_ACTION_P99_GROWTH + " раза на уровне " + latencyLimit + " сессий");
+        log.info("Масштабирование хранилища сессий:\n{}", summary);
+        report.attach();
+
+        // then
+        assertAll(
+                () -> assertEquals(levels.length, report.getLevels().size(), "Замер должен быть на каждом уровне"),
+                () -> assertEquals(List.of(), failures, "LOGIN, ACTION и LOGOUT при любом числе сессий должны быть успешными"));
+    }
+}
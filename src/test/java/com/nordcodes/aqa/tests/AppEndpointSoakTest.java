@@ -0,0 +1,89 @@
+package com.nordcodes.aqa.tests;
+
+import com.nordcodes.aqa.client.AppClient;
+import com.nordcodes.aqa.config.WireMockConfig;
+import com.nordcodes.aqa.load.DriftDetector;
+import com.nordcodes.aqa.load.LoadReport;
+import com.nordcodes.aqa.load.LoadResult;
+import com.nordcodes.aqa.load.LoadRunner;
+import com.nordcodes.aqa.load.RollingWindowMetrics;
+import com.nordcodes.aqa.load.SoakReport;
+import com.nordcodes.aqa.mock.ExternalServiceMock;
+import com.nordcodes.aqa.scenario.Scenario;
+import com.nordcodes.aqa.scenario.ScenarioTask;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import org.junit.jupiter.api.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.nordcodes.aqa.config.TestConfig.*;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@Epic("Тестирование Spring Boot приложения")
+@Feature("Нагрузка: длительный прогон")
+@Tag("soak")
+@DisplayName("Длительный (soak) прогон приложения смешанным трафиком")
+public class AppEndpointSoakTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AppEndpointSoakTest.class);
+
+    private static final int THREADS = 8;
+
+    private static AppClient appClient;
+
+    @BeforeAll
+    static void setUpAll() {
+        log.info("Инициализация тестового окружения");
+        // Журнал запросов WireMock за часы прогона занял бы всю память клиента
+        WireMockConfig.startWireMockWithoutJournal();
+        appClient = new AppClient();
+    }
+
+    @AfterAll
+    static void tearDownAll() {
+        log.info("Завершение тестового окружения");
+        WireMockConfig.stopWireMock();
+    }
+
+    @BeforeEach
+    void setUp() {
+        log.info("Сброс стабов перед тестом");
+        ExternalServiceMock.resetStubs();
+    }
+
+    @Test
+    @Story("Стабильность задержки и пропускной способности на длительной дистанции")
+    @DisplayName("Смешанный трафик в течение часов: нет ошибок и дрейфа p99 и пропускной способности")
+    void givenMixedTraffic_whenSoak_thenNoErrorsAndNoDrift() {
+        // given
+        Duration duration = Duration.parse(System.getProperty(SOAK_DURATION_PROPERTY, SOAK_DEFAULT_DURATION));
+        Duration window = Duration.parse(System.getProperty(SOAK_WINDOW_PROPERTY, SOAK_DEFAULT_WINDOW));
+        Scenario scenario = Scenario.load("scenarios/mixed-traffic.json");
+        ExternalServiceMock.stubAuth(HTTP_OK);
+        ExternalServiceMock.stubDoAction(HTTP_OK);
+        RollingWindowMetrics windows = new RollingWindowMetrics(window, SOAK_WINDOW_CAPACITY,
+                SOAK_WARMUP_WINDOWS + SOAK_COMPARED_WINDOWS);
+
+        // when
+        // Без прогрева LoadRunner: его роль играют первые SOAK_WARMUP_WINDOWS окон, которые DriftDetector
+        // не сравнивает, а SoakReport показывает, как приложение выходит на режим с момента старта
+        LoadResult result = new LoadRunner(THREADS).run("soak: " + scenario.getName(), duration,
+                new ScenarioTask(scenario, appClient), windows);
+        List<DriftDetector.DriftCheck> checks = DriftDetector.analyze(windows, SOAK_WARMUP_WINDOWS,
+                SOAK_COMPARED_WINDOWS, SOAK_P99_DRIFT_LIMIT, SOAK_THROUGHPUT_DRIFT_LIMIT);
+        LoadReport.attach(result);
+        SoakReport.attach(result.getName(), windows, checks);
+
+        // then
+        assertEquals(0, result.getTotalErrors(),
+                "Все ответы приложения должны соответствовать ожиданиям шагов сценария: " + result.getErrorBreakdown());
+        assertAll(checks.stream().map(check -> () -> assertFalse(check.isDrifting(), check.toString())));
+    }
+}
@@ -38,6 +38,18 @@ public class AllureAttachments {
         return json;
     }
 
+    /**
+     * Добавляет HTML-аттачмент в отчёт Allure (например, отчёт нагрузочного прогона с графиками).
+     *
+     * @param name название аттачмента
+     * @param html содержимое HTML-страницы
+     */
+    @Attachment(value = "{name}", type = "text/html", fileExtension = ".html")
+    public static String attachHtml(String name, String html) {
+        log.debug("Добавлен HTML-аттачмент: {}", name);
+        return html;
+    }
+
     /**
      * Добавляет HTTP-запрос в отчёт Allure.
      * Используется в клиенте для логирования отправленных запросов.
@@ -73,8 +85,19 @@ public class AllureAttachments {
      * @param content содержимое файла в виде байтов
      */
     public static void attachFile(String name, byte[] content) {
-        Allure.addAttachment(name, "application/octet-stream",
-                new ByteArrayInputStream(content), ".bin");
+        attachFile(name, "application/octet-stream", content, ".bin");
+    }
+
+    /**
+     * Добавляет файл с заданным MIME-типом и расширением в отчёт Allure (например, запись JFR).
+     *
+     * @param name название файла
+     * @param type MIME-тип содержимого
+     * @param content содержимое файла в виде байтов
+     * @param fileExtension расширение файла (например, ".jfr")
+     */
+    public static void attachFile(String name, String type, byte[] content, String fileExtension) {
+        Allure.addAttachment(name, type, new ByteArrayInputStream(content), fileExtension);
         log.debug("Добавлен файл-аттачмент: {}", name);
     }
 
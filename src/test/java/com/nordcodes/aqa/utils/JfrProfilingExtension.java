@@ -0,0 +1,69 @@
+package com.nordcodes.aqa.utils;
+
+import com.nordcodes.aqa.config.AppLauncher;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static com.nordcodes.aqa.config.TestConfig.APP_RUN_DIR;
+
+/**
+ * JUnit-расширение: на каждый сценарий (тестовый метод) запускает тестируемое приложение
+ * с Java Flight Recorder, после сценария останавливает его и прикладывает к отчёту Allure
+ * сводку по записи ({@link JfrSummary}), сам файл .jfr и лог приложения.
+ * Работает только при заданном {@code -Dapp.jar}; иначе сценарий выполняется против уже запущенного приложения.
+ */
+public class JfrProfilingExtension implements BeforeEachCallback, AfterEachCallback {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrProfilingExtension.class);
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(JfrProfilingExtension.class);
+    private static final String LAUNCHER_KEY = "launcher";
+    private static final String RECORDING_KEY = "recording";
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        if (!AppLauncher.isConfigured()) {
+            log.info("Путь к jar приложения не задан (-Dapp.jar), запись JFR не ведётся");
+            return;
+        }
+        String name = context.getRequiredTestClass().getSimpleName() + "-" + context.getRequiredTestMethod().getName();
+        Path recording = Paths.get(APP_RUN_DIR, name + ".jfr").toAbsolutePath();
+        AppLauncher launcher = AppLauncher.start(name, List.of(
+                "-XX:StartFlightRecording=filename=" + recording + ",settings=profile,dumponexit=true"));
+
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        store.put(LAUNCHER_KEY, launcher);
+        store.put(RECORDING_KEY, recording);
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) throws IOException {
+        ExtensionContext.Store store = context.getStore(NAMESPACE);
+        AppLauncher launcher = store.remove(LAUNCHER_KEY, AppLauncher.class);
+        Path recording = store.remove(RECORDING_KEY, Path.class);
+        if (launcher == null) {
+            return;
+        }
+        launcher.stop();
+        AllureAttachments.attachFile("Лог приложения", "text/plain", Files.readAllBytes(launcher.getLogFile()), ".log");
+
+        if (!Files.isRegularFile(recording)) {
+            log.warn("Файл записи JFR не создан: {}", recording);
+            return;
+        }
+        String summary = JfrSummary.parse(recording).toReport();
+        log.info("Сводка JFR:\n{}", summary);
+        AllureAttachments.attachFile("Сводка JFR", "text/plain", summary.getBytes(StandardCharsets.UTF_8), ".txt");
+        AllureAttachments.attachFile(recording.getFileName().toString(), "application/octet-stream",
+                Files.readAllBytes(recording), ".jfr");
+    }
+}
@@ -0,0 +1,183 @@
+package com.nordcodes.aqa.utils;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Сводка по записи Java Flight Recorder тестируемого приложения.
+ * Разбирает файл .jfr через JFR consumer API и агрегирует ключевые события:
+ * паузы GC, скорость аллокаций, парковки потоков, ожидание мониторов и чтение из сокетов.
+ * Пороги длительности событий определяются настройками записи (для {@code settings=profile} — 10–20 мс).
+ */
+public class JfrSummary {
+
+    private static final int TOP_SIZE = 5;
+
+    private final EventStats gcPauses = new EventStats();
+    private final EventStats threadParks = new EventStats();
+    private final EventStats monitorEnters = new EventStats();
+    private final EventStats socketReads = new EventStats();
+    private final Map<String, Long> allocationsByClass = new HashMap<>();
+    private long allocatedBytes;
+    private long socketBytesRead;
+    private Instant firstEvent;
+    private Instant lastEvent;
+
+    private JfrSummary() {
+    }
+
+    /**
+     * Разбирает файл записи JFR.
+     *
+     * @param recording путь к файлу .jfr
+     * @return сводка по записи
+     * @throws IOException если файл не удалось прочитать
+     */
+    public static JfrSummary parse(Path recording) throws IOException {
+        JfrSummary summary = new JfrSummary();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                summary.accept(file.readEvent());
+            }
+        }
+        return summary;
+    }
+
+    private void accept(RecordedEvent event) {
+        Instant start = event.getStartTime();
+        if (firstEvent == null || start.isBefore(firstEvent)) {
+            firstEvent = start;
+        }
+        if (lastEvent == null || event.getEndTime().isAfter(lastEvent)) {
+            lastEvent = event.getEndTime();
+        }
+
+        switch (event.getEventType().getName()) {
+            case "jdk.GarbageCollection":
+                gcPauses.add(event.getString("name"), event.getDuration("sumOfPauses"));
+                break;
+            case "jdk.ObjectAllocationSample":
+                long weight = event.getLong("weight");
+                allocatedBytes += weight;
+                allocationsByClass.merge(className(event.getClass("objectClass")), weight, Long::sum);
+                break;
+            case "jdk.ThreadPark":
+                threadParks.add(className(event.getClass("parkedClass")), event.getDuration());
+                break;
+            case "jdk.JavaMonitorEnter":
+                monitorEnters.add(className(event.getClass("monitorClass")), event.getDuration());
+                break;
+            case "jdk.SocketRead":
+                socketReads.add(event.getString("host") + ":" + event.getInt("port"), event.getDuration());
+                socketBytesRead += Math.max(0, event.getLong("bytesRead"));
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Длительность записи по временным меткам событий.
+     */
+    public Duration getRecordingDuration() {
+        return firstEvent == null ? Duration.ZERO : Duration.between(firstEvent, lastEvent);
+    }
+
+    public long getGcCount() {
+        return gcPauses.count;
+    }
+
+    public Duration getGcPauseTotal() {
+        return Duration.ofNanos(gcPauses.totalNanos);
+    }
+
+    public Duration getGcPauseMax() {
+        return Duration.ofNanos(gcPauses.maxNanos);
+    }
+
+    /**
+     * Оценка скорости аллокаций по сэмплам jdk.ObjectAllocationSample, байт в секунду.
+     */
+    public double getAllocationRate() {
+        double seconds = getRecordingDuration().toNanos() / 1e9;
+        return seconds > 0 ? allocatedBytes / seconds : 0.0;
+    }
+
+    /**
+     * Формирует текстовую сводку для отчёта.
+     *
+     * @return сводка по записи
+     */
+    public String toReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Длительность записи: %.1f с%n%n", getRecordingDuration().toMillis() / 1000.0));
+
+        sb.append(String.format("GC: пауз=%d, суммарно=%.1f мс, максимум=%.1f мс%n",
+                gcPauses.count, millis(gcPauses.totalNanos), millis(gcPauses.maxNanos)));
+        gcPauses.appendTop(sb);
+
+        sb.append(String.format("%nАллокации: %.1f МБ, скорость ~%.1f МБ/с%n",
+                allocatedBytes / 1048576.0, getAllocationRate() / 1048576.0));
+        allocationsByClass.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .limit(TOP_SIZE)
+                .forEach(e -> sb.append(String.format("    %-60s %10.1f МБ%n", e.getKey(), e.getValue() / 1048576.0)));
+
+        sb.append(String.format("%nПарковки потоков (jdk.ThreadPark): событий=%d, суммарно=%.1f мс, максимум=%.1f мс%n",
+                threadParks.count, millis(threadParks.totalNanos), millis(threadParks.maxNanos)));
+        threadParks.appendTop(sb);
+
+        sb.append(String.format("%nОжидание мониторов (jdk.JavaMonitorEnter): событий=%d, суммарно=%.1f мс, максимум=%.1f мс%n",
+                monitorEnters.count, millis(monitorEnters.totalNanos), millis(monitorEnters.maxNanos)));
+        monitorEnters.appendTop(sb);
+
+        sb.append(String.format("%nЧтение из сокетов (jdk.SocketRead): событий=%d, суммарно=%.1f мс, максимум=%.1f мс, прочитано=%.1f КБ%n",
+                socketReads.count, millis(socketReads.totalNanos), millis(socketReads.maxNanos), socketBytesRead / 1024.0));
+        socketReads.appendTop(sb);
+        return sb.toString();
+    }
+
+    private static String className(RecordedClass recordedClass) {
+        return recordedClass == null ? "<unknown>" : recordedClass.getName();
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1e6;
+    }
+
+    /**
+     * Счётчики событий одного типа с разбивкой по ключу (класс, адрес и т.д.).
+     */
+    private static final class EventStats {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+        private final Map<String, long[]> byKey = new HashMap<>();
+
+        private void add(String key, Duration duration) {
+            long nanos = duration.toNanos();
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+            long[] stats = byKey.computeIfAbsent(key, k -> new long[2]);
+            stats[0]++;
+            stats[1] += nanos;
+        }
+
+        private void appendTop(StringBuilder sb) {
+            byKey.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+                    .limit(TOP_SIZE)
+                    .forEach(e -> sb.append(String.format("    %-60s %8d событий %10.1f мс%n",
+                            e.getKey(), e.getValue()[0], millis(e.getValue()[1]))));
+        }
+    }
+}
@@ -3,7 +3,9 @@ package com.nordcodes.aqa.utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static com.nordcodes.aqa.config.TestConfig.*;
 
@@ -15,6 +17,8 @@ public class TokenGenerator {
 
     private static final Logger log = LoggerFactory.getLogger(TokenGenerator.class);
     private static final SecureRandom random = new SecureRandom();
+    private static final byte[] HEX_ALPHABET_BYTES = HEX_TOKEN_ALPHABET.getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] SPEC_ALPHABET_BYTES = TOKEN_ALPHABET.getBytes(StandardCharsets.US_ASCII);
 
     /**
      * Генерирует токен заданной длины из заданного алфавита.
@@ -79,4 +83,32 @@ public class TokenGenerator {
         log.debug("Сгенерирован HEX-токен: {}", token);
         return token;
     }
-}
\ No newline at end of file
+
+    /**
+     * Генерирует HEX-токен (0-9A-F) сразу в байтах ASCII для нагрузочных прогонов.
+     * В отличие от {@link #generateHexToken()} не использует SecureRandom и не логирует токен.
+     *
+     * @return токен длиной 32 байта
+     */
+    public static byte[] generateHexTokenBytes() {
+        return generateTokenBytes(HEX_ALPHABET_BYTES);
+    }
+
+    /**
+     * Генерирует токен по ТЗ (A-Z0-9) сразу в байтах ASCII для нагрузочных прогонов.
+     *
+     * @return токен длиной 32 байта
+     */
+    public static byte[] generateValidTokenBytes() {
+        return generateTokenBytes(SPEC_ALPHABET_BYTES);
+    }
+
+    private static byte[] generateTokenBytes(byte[] alphabet) {
+        ThreadLocalRandom current = ThreadLocalRandom.current();
+        byte[] token = new byte[TOKEN_LENGTH];
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            token[i] = alphabet[current.nextInt(alphabet.length)];
+        }
+        return token;
+    }
+}